@@ -0,0 +1,143 @@
+package de.fentacore.utils;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.CustomerDAO;
+import de.fentacore.dao.ReadingDAO;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.Customer;
+import de.fentacore.model.Reading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load benchmark comparing the HTTP containers on GET /customers and GET /readings, with one
+ * request per invocation from 32 client threads (-t to change). Throughput is requests per
+ * millisecond; the sample mode reports the latency percentiles.
+ * <p>
+ * Unlike the parser benchmarks this needs the database from database.properties, and it
+ * RECREATES ITS TABLES and seeds them, so point it at a scratch database:
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="ContainerLoadBenchmark"
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="ContainerLoadBenchmark -p container=grizzly -p query=limit=100 -t 64"
+ * </pre>
+ *
+ * server.* properties apply as usual and can be passed to the fork with -jvmArgsAppend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(32)
+@Fork(1)
+public class ContainerLoadBenchmark {
+
+    @Param({"jdk", "grizzly"})
+    private String container;
+
+    @Param({"/customers", "/readings"})
+    private String path;
+
+    // Appended to the path, e.g. "limit=100"
+    @Param({""})
+    private String query;
+
+    @Param({"200"})
+    private int customers;
+
+    @Param({"25"})
+    private int readingsPerCustomer;
+
+    @Param({"8095"})
+    private int port;
+
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        seed();
+        String baseUrl = "http://localhost:" + port + "/rest";
+        Server.startServer(baseUrl, Server.createContainer(container));
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        request = HttpRequest.newBuilder(URI.create(baseUrl + path + (query.isEmpty() ? "" : "?" + query)))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Server.stopServer();
+        DatabaseConfig.closeDataSource();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        // An error page is usually cheaper than the list and would otherwise look fast
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private void seed() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        List<Customer> customerRows = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("First" + i);
+            customer.setLastName("Last" + i);
+            customer.setBirthDate(LocalDate.of(1970 + i % 40, 1 + i % 12, 1 + i % 28));
+            customer.setGender(ICustomer.Gender.values()[i % ICustomer.Gender.values().length]);
+            customerRows.add(customer);
+        }
+        new CustomerDAO().createAll(customerRows);
+
+        List<Reading> readingRows = new ArrayList<>();
+        for (Customer customer : customerRows) {
+            for (int i = 0; i < readingsPerCustomer; i++) {
+                Reading reading = new Reading();
+                reading.setCustomer(customer);
+                reading.setDateOfReading(LocalDate.of(2020, 1, 1).plusMonths(i));
+                reading.setKindOfMeter(IReading.KindOfMeter.STROM);
+                reading.setMeterCount(1000d + i * 17.5);
+                reading.setMeterId("MST-" + customer.getLastName());
+                reading.setSubstitute(false);
+                reading.setComment("");
+                readingRows.add(reading);
+            }
+        }
+        new ReadingDAO().createAll(readingRows);
+    }
+}
@@ -0,0 +1,85 @@
+package de.fentacore.utils;
+
+import de.fentacore.interfaces.IReading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the field parsers behind {@link CSVImporter}: the {@link CsvTokenizer} date
+ * and decimal parsers, and the importer's meter kind detection. The latter is private, so it
+ * is called through a method handle; held in a static final and invoked exactly, the JIT
+ * inlines it like a direct call. Each call takes the next value of a small mixed sample,
+ * including the malformed inputs that take the slow path. Quotes are removed while
+ * tokenizing, which {@link CsvTokenizerBenchmark} measures.
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="CsvFieldBenchmark"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvFieldBenchmark {
+
+    private static final MethodHandle METER_KIND = find("determineMeterKindFromContent", IReading.KindOfMeter.class);
+
+    // Sample sizes are powers of two so the next index is a mask, not a modulo
+    private static final String[] NUMBERS = {"16573", "5,965", "473", "0,5", "17056", "12,3456", "", "n/a"};
+    private static final String[] DATES = {"01.02.2018", "15.11.1999", "31.12.2024", "29.02.2020",
+            "01.01.1970", "", "2018-02-01", "32.01.2018"};
+    // Header blocks as readReadingHeader collects them, one per meter kind plus an unknown one
+    private static final String[] HEADERS = {
+            header("\"MST-af34569\"", "kWh"),
+            header("\"Xr-2018-2312456ab\"", "MWh"),
+            header("23451007", "m³"),
+            header("\"4711\"", "GJ")};
+
+    private final CSVImporter importer = new CSVImporter(new StubCustomerDAO(), new StubReadingDAO());
+    private int next;
+
+    @Benchmark
+    public double parseDecimal() {
+        return CsvTokenizer.parseDecimal(NUMBERS[next++ & (NUMBERS.length - 1)]);
+    }
+
+    @Benchmark
+    public LocalDate parseLocalDate() {
+        return CsvTokenizer.parseLocalDate(DATES[next++ & (DATES.length - 1)]);
+    }
+
+    @Benchmark
+    public IReading.KindOfMeter determineMeterKindFromContent() throws Throwable {
+        return (IReading.KindOfMeter) METER_KIND.invokeExact(importer, HEADERS[next++ & (HEADERS.length - 1)]);
+    }
+
+    private static String header(String meterId, String unit) {
+        return "\"Kunde\";\"" + SyntheticCsv.CUSTOMER_ID + "\";\n"
+                + "\"Zählernummer\";" + meterId + ";\n"
+                + "\"Datum\";\"Zählerstand in " + unit + "\";\"Kommentar\"\n";
+    }
+
+    private static MethodHandle find(String name, Class<?> returnType) {
+        try {
+            return MethodHandles.privateLookupIn(CSVImporter.class, MethodHandles.lookup())
+                    .findVirtual(CSVImporter.class, name, MethodType.methodType(returnType, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.fentacore.utils;
+
+import de.fentacore.model.ImportResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file import cost of {@link CSVImporter} on synthetic files shaped like heizung.csv,
+ * strom.csv, wasser.csv and kunden_utf8.csv. The DAOs are stubs, so the score is reading,
+ * splitting and converting the lines, without any database time.
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="CsvImportBenchmark"
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="CsvImportBenchmark -p rows=10000 -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvImportBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    // A SyntheticCsv.Kind; the generated benchmark code cannot see that package-private type
+    @Param({"STROM", "HEIZUNG", "WASSER"})
+    private String kind;
+
+    private byte[] readingsFile;
+    private byte[] customersFile;
+    private CSVImporter importer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        readingsFile = SyntheticCsv.readings(SyntheticCsv.Kind.valueOf(kind), rows);
+        customersFile = SyntheticCsv.customers(rows);
+        importer = new CSVImporter(new StubCustomerDAO(), new StubReadingDAO());
+    }
+
+    @Benchmark
+    public ImportResult importReadings() throws IOException {
+        return checked(importer.importReadingsFromStream(new ByteArrayInputStream(readingsFile)));
+    }
+
+    // Does not depend on the kind parameter; compare it within one kind only
+    @Benchmark
+    public ImportResult importCustomers() throws IOException {
+        return checked(importer.importCustomersFromStream(new ByteArrayInputStream(customersFile)));
+    }
+
+    // A parser that silently drops rows would otherwise look fast
+    private ImportResult checked(ImportResult result) {
+        if (result.isRejected() || result.getImported() != rows) {
+            throw new IllegalStateException("Imported " + result.getImported() + " of " + rows + " rows: "
+                    + result.getMessage());
+        }
+        return result;
+    }
+}
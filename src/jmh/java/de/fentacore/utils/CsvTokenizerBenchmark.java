@@ -0,0 +1,154 @@
+package de.fentacore.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data rows of a synthetic readings file parsed to day of month and count, once with
+ * {@link CsvTokenizer} and once the way CSVImporter did it before (readLine, trim, substring,
+ * DateTimeFormatter, replace and parseDouble). Both fold every row into a checksum, so neither
+ * can skip work, and the decoded chars are prepared up front so only tokenizing is timed.
+ * Run with -prof gc to see the allocation per operation.
+ *
+ * <pre>
+ * mvn -P jmh test-compile exec:exec@jmh -Djmh.args="CsvTokenizerBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvTokenizerBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Param({"1000000"})
+    private int rows;
+
+    // A SyntheticCsv.Kind; the generated benchmark code cannot see that package-private type
+    @Param({"STROM", "HEIZUNG"})
+    private String kind;
+
+    private char[] file;
+    private int headerLines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = new String(SyntheticCsv.readings(SyntheticCsv.Kind.valueOf(kind), rows), StandardCharsets.UTF_8)
+                .toCharArray();
+        try (BufferedReader reader = new BufferedReader(new CharArrayReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null && !line.contains("Datum")) {
+                headerLines++;
+            }
+            headerLines++;
+        }
+    }
+
+    @Benchmark
+    public double tokenizer() throws IOException {
+        CsvTokenizer csv = new CsvTokenizer(new CharArrayReader(file), ';');
+        for (int i = 0; i < headerLines; i++) {
+            csv.next();
+        }
+        double checksum = 0;
+        int parsed = 0;
+        while (csv.next()) {
+            if (csv.getFieldCount() < 2 || csv.isEmpty(0) || csv.isEmpty(1)) {
+                continue;
+            }
+            checksum += csv.getDateValue(0) % 100 + csv.getDecimal(1) + csv.length(2);
+            parsed++;
+        }
+        return checked(checksum, parsed);
+    }
+
+    @Benchmark
+    public double splitLines() throws IOException {
+        BufferedReader reader = new BufferedReader(new CharArrayReader(file));
+        for (int i = 0; i < headerLines; i++) {
+            reader.readLine();
+        }
+        double checksum = 0;
+        int parsed = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            int firstSep = line.indexOf(';');
+            if (firstSep < 0) {
+                continue;
+            }
+            int secondSep = line.indexOf(';', firstSep + 1);
+            int readingEnd = secondSep < 0 ? line.length() : secondSep;
+
+            String dateStr = stripQuotes(line.substring(0, firstSep).trim());
+            String readingStr = line.substring(firstSep + 1, readingEnd).trim();
+            if (dateStr.isEmpty() || readingStr.isEmpty()) {
+                continue;
+            }
+            String comment = "";
+            if (secondSep >= 0) {
+                int thirdSep = line.indexOf(';', secondSep + 1);
+                comment = stripQuotes(line.substring(secondSep + 1, thirdSep < 0 ? line.length() : thirdSep).trim());
+            }
+
+            LocalDate date = parseDateOrNull(dateStr);
+            checksum += date.getDayOfMonth() + parseDoubleWithComma(readingStr) + comment.length();
+            parsed++;
+        }
+        return checked(checksum, parsed);
+    }
+
+    private double checked(double checksum, int parsed) {
+        if (parsed != rows) {
+            throw new IllegalStateException("Parsed " + parsed + " of " + rows + " rows");
+        }
+        return checksum;
+    }
+
+    private static LocalDate parseDateOrNull(String dateStr) {
+        try {
+            return LocalDate.parse(dateStr, DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDoubleWithComma(String numberStr) {
+        try {
+            return Double.parseDouble(numberStr.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripQuotes(String str) {
+        if (str.startsWith("\"") && str.endsWith("\"")) {
+            return str.substring(1, str.length() - 1);
+        }
+        return str;
+    }
+}
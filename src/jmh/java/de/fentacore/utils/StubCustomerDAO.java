@@ -0,0 +1,63 @@
+package de.fentacore.utils;
+
+import de.fentacore.dao.ICustomerDAO;
+import de.fentacore.dao.RowHandler;
+import de.fentacore.dao.UpsertCounts;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.Customer;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Customer DAO without a database for the parser benchmarks: every customer exists and
+ * createAll and upsertAll only report the batch as stored.
+ */
+class StubCustomerDAO implements ICustomerDAO {
+
+    @Override
+    public ICustomer findById(UUID id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+
+    @Override
+    public int createAll(List<? extends ICustomer> customers) {
+        return customers.size();
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends ICustomer> customers) {
+        return new UpsertCounts(customers.size(), 0, 0);
+    }
+
+    @Override
+    public ICustomer create(ICustomer customer) {
+        return customer;
+    }
+
+    @Override
+    public List<ICustomer> findAll() {
+        return List.of();
+    }
+
+    @Override
+    public boolean update(ICustomer customer) {
+        return false;
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        return false;
+    }
+
+    @Override
+    public List<ICustomer> findPage(UUID after, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public void streamAll(RowHandler<? super ICustomer> handler) {
+    }
+}
@@ -0,0 +1,78 @@
+package de.fentacore.utils;
+
+import de.fentacore.dao.ConsumptionInterval;
+import de.fentacore.dao.IReadingDAO;
+import de.fentacore.dao.ReadingCriteria;
+import de.fentacore.dao.RowHandler;
+import de.fentacore.dao.UpsertCounts;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reading DAO without a database for the parser benchmarks: createAll and upsertAll only report the batch
+ * as stored, so an import measures parsing alone.
+ */
+class StubReadingDAO implements IReadingDAO {
+
+    @Override
+    public int createAll(List<? extends IReading> readings) {
+        return readings.size();
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends IReading> readings) {
+        return new UpsertCounts(readings.size(), 0, 0);
+    }
+
+    @Override
+    public IReading create(IReading reading) {
+        return reading;
+    }
+
+    @Override
+    public IReading findById(UUID id) {
+        return null;
+    }
+
+    @Override
+    public List<IReading> findAll() {
+        return List.of();
+    }
+
+    @Override
+    public boolean update(IReading reading) {
+        return false;
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        return false;
+    }
+
+    @Override
+    public List<IReading> findByCustomerId(UUID customerId) {
+        return List.of();
+    }
+
+    @Override
+    public List<IReading> findByCriteria(ReadingCriteria criteria) {
+        return List.of();
+    }
+
+    @Override
+    public List<IReading> findPageByCriteria(ReadingCriteria criteria, UUID after, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public void streamByCriteria(ReadingCriteria criteria, RowHandler<? super IReading> handler) {
+    }
+
+    @Override
+    public List<ConsumptionPeriod> findConsumption(ReadingCriteria criteria, ConsumptionInterval interval) {
+        return List.of();
+    }
+}
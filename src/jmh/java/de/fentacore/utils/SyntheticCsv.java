@@ -0,0 +1,119 @@
+package de.fentacore.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates CSV files shaped like the ones in resources/data, with any number of data rows.
+ * The content is seeded, so every fork of a benchmark parses the same bytes.
+ */
+final class SyntheticCsv {
+
+    static final UUID CUSTOMER_ID = UUID.fromString("ec617965-88b4-4721-8158-ee36c38e4db3");
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2018, 1, 1);
+    // Dates repeat after a century so they stay four-digit years at any row count
+    private static final int DAYS = 36500;
+
+    enum Kind {
+        // "01.02.2018";16573;
+        STROM("\"MST-af34569\"", "kWh", true) {
+            @Override
+            String count(Random random, int row) {
+                return Integer.toString(10000 + row % 90000);
+            }
+        },
+        // 01.02.2018;5,965;
+        HEIZUNG("\"Xr-2018-2312456ab\"", "MWh", false) {
+            @Override
+            String count(Random random, int row) {
+                return (row % 1000) + "," + (100 + random.nextInt(900));
+            }
+        },
+        // 01.02.2018;473;
+        WASSER("23451007", "m³", false) {
+            @Override
+            String count(Random random, int row) {
+                return Integer.toString(row % 100000);
+            }
+        };
+
+        private final String meterId;
+        private final String unit;
+        private final boolean quotedDates;
+
+        Kind(String meterId, String unit, boolean quotedDates) {
+            this.meterId = meterId;
+            this.unit = unit;
+            this.quotedDates = quotedDates;
+        }
+
+        abstract String count(Random random, int row);
+    }
+
+    private SyntheticCsv() {
+    }
+
+    static byte[] readings(Kind kind, int rows) {
+        Random random = new Random(rows);
+        return write(out -> {
+            out.write("\"Kunde\";\"" + CUSTOMER_ID + "\";\n");
+            out.write("\"Zählernummer\";" + kind.meterId + ";\n");
+            out.write(";;\n;;\n");
+            out.write("\"Datum\";\"Zählerstand in " + kind.unit + "\";\"Kommentar\"\n");
+            for (int row = 0; row < rows; row++) {
+                String date = DATE.format(FIRST_DAY.plusDays(row % DAYS));
+                out.write(kind.quotedDates ? "\"" + date + "\"" : date);
+                out.write(';');
+                out.write(kind.count(random, row));
+                out.write(';');
+                if (row % 50 == 0) {
+                    out.write("\"Zählertausch: neue Nummer 2312456ab\"");
+                }
+                out.write('\n');
+            }
+        });
+    }
+
+    // UUID,Anrede,Vorname,Nachname,Geburtsdatum - about one in ten without a birth date
+    static byte[] customers(int rows) {
+        Random random = new Random(rows);
+        String[] salutations = {"Herr", "Frau", "Divers", "k.A."};
+        return write(out -> {
+            out.write("UUID,Anrede,Vorname,Nachname,Geburtsdatum\n");
+            for (int row = 0; row < rows; row++) {
+                out.write(new UUID(random.nextLong(), random.nextLong()).toString());
+                out.write(',');
+                out.write(salutations[row % salutations.length]);
+                out.write(",Vorname" + row + ",Nachname" + row + ",");
+                if (row % 10 != 0) {
+                    out.write(DATE.format(LocalDate.of(1930, 1, 1).plusDays(random.nextInt(25000))));
+                }
+                out.write('\n');
+            }
+        });
+    }
+
+    private interface Content {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    private static byte[] write(Content content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            content.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
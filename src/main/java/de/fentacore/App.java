@@ -1,8 +1,11 @@
 package de.fentacore;
 
 import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.InMemoryStore;
 import de.fentacore.utils.Server;
 
+import java.io.IOException;
+
 public class App {
     public String greet(String name) {
         return "Hello, " + name + "!";
@@ -10,12 +13,36 @@ public class App {
 
     public static void main(String[] args) {
 
-        if (!DatabaseConfig.checkTablesExist()) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Server.stopServer();
+            if (DatabaseConfig.isInMemoryStorage()) {
+                saveSnapshot();
+            } else {
+                DatabaseConfig.closeDataSource();
+            }
+        }));
 
-            DatabaseConfig.createTables();
+        if (DatabaseConfig.isInMemoryStorage()) {
+            // Loads db.memory.snapshotFile before the first request
+            InMemoryStore.getDefault();
+        } else {
+            // Creates the tables on first start and upgrades existing ones in place
+            DatabaseConfig.migrate();
         }
 
-        Server.startServer("http://localhost:8080/rest");
+        // Host, port and base path come from server.properties
+        Server.startServer();
+
+    }
 
+    private static void saveSnapshot() {
+        try {
+            long rows = InMemoryStore.getDefault().saveSnapshot();
+            if (rows >= 0) {
+                System.out.println("Saved snapshot with " + rows + " rows");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
@@ -0,0 +1,104 @@
+package de.fentacore.config;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table change versions for conditional GETs. The DAOs call {@link #markChanged} after
+ * every successful write and {@link DatabaseConfig} calls {@link #markAllReset} after dropping or
+ * migrating tables, so the list endpoints can answer If-None-Match / If-Modified-Since from memory.
+ * Caches keyed by row use {@link #getResets} to notice that the whole table was replaced.
+ * <p>
+ * Versions live in this process only: writes made by another application instance or
+ * directly in SQL are not seen, so run a single instance when relying on 304 responses.
+ */
+public final class ChangeTracker {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String READINGS = "readings";
+
+    // Changes on every start, so tags handed out before a restart never match again
+    private static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() >>> 16, 36);
+
+    private static final Map<String, Entry> TABLES = new ConcurrentHashMap<>();
+
+    private ChangeTracker() {
+    }
+
+    public static void markChanged(String table) {
+        entry(table).bump();
+    }
+
+    public static void markAllChanged() {
+        markChanged(CUSTOMERS);
+        markChanged(READINGS);
+    }
+
+    /**
+     * Marks every table as changed and replaced as a whole, e.g. after it was dropped,
+     * migrated or reloaded.
+     */
+    public static void markAllReset() {
+        for (String table : new String[]{CUSTOMERS, READINGS}) {
+            Entry entry = entry(table);
+            entry.resets.incrementAndGet();
+            entry.bump();
+        }
+    }
+
+    public static long getVersion(String table) {
+        return entry(table).version.get();
+    }
+
+    /**
+     * Number of times {@code table} was reset; unlike {@link #getVersion} it does not change
+     * on single writes.
+     */
+    public static long getResets(String table) {
+        return entry(table).resets.get();
+    }
+
+    /**
+     * Opaque tag covering the current versions of {@code tables}, e.g. "3f9k2a-4.17".
+     */
+    public static String getTag(String... tables) {
+        StringBuilder tag = new StringBuilder(EPOCH).append('-');
+        for (int i = 0; i < tables.length; i++) {
+            if (i > 0) {
+                tag.append('.');
+            }
+            tag.append(getVersion(tables[i]));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Latest change of any of {@code tables}, truncated to whole seconds as sent in
+     * Last-Modified. Before the first write this is the time the process started.
+     */
+    public static Date getLastModified(String... tables) {
+        long latest = 0;
+        for (String table : tables) {
+            latest = Math.max(latest, entry(table).lastModified);
+        }
+        return new Date(latest / 1000 * 1000);
+    }
+
+    private static Entry entry(String table) {
+        return TABLES.computeIfAbsent(table, name -> new Entry());
+    }
+
+    private static final class Entry {
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicLong resets = new AtomicLong();
+        private volatile long lastModified = System.currentTimeMillis();
+
+        private void bump() {
+            lastModified = System.currentTimeMillis();
+            version.incrementAndGet();
+        }
+    }
+}
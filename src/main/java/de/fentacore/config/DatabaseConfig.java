@@ -1,5 +1,11 @@
 package de.fentacore.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import de.fentacore.model.PoolMetrics;
+
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.*;
@@ -7,6 +13,7 @@ import java.util.Properties;
 
 public class DatabaseConfig {
     private static Properties props;
+    private static volatile HikariDataSource dataSource;
 
     static {
         try {
@@ -22,11 +29,196 @@ public class DatabaseConfig {
         }
     }
 
+    /**
+     * Borrows a connection from the shared pool. Callers must close it (try-with-resources)
+     * to hand it back to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        String url = props.getProperty("db.url");
-        String username = props.getProperty("db.username");
-        String password = props.getProperty("db.password");
-        return DriverManager.getConnection(url, username, password);
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Returns the pooled DataSource, creating it on first use from the db.* and db.pool.*
+     * entries in database.properties.
+     */
+    public static DataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DatabaseConfig.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = new HikariDataSource(buildPoolConfig());
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    private static HikariConfig buildPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("hausverwaltung-pool");
+        config.setJdbcUrl(getProperty("db.url", null));
+        config.setUsername(getProperty("db.username", null));
+        config.setPassword(getProperty("db.password", null));
+        config.setMaximumPoolSize(getIntProperty("db.pool.maximumPoolSize", 10));
+        config.setMinimumIdle(getIntProperty("db.pool.minimumIdle", 2));
+        config.setConnectionTimeout(getLongProperty("db.pool.connectionTimeout", 30000));
+        config.setIdleTimeout(getLongProperty("db.pool.idleTimeout", 600000));
+        config.setMaxLifetime(getLongProperty("db.pool.maxLifetime", 1800000));
+        config.setValidationTimeout(getLongProperty("db.pool.validationTimeout", 5000));
+        config.setKeepaliveTime(getLongProperty("db.pool.keepaliveTime", 0));
+        config.setLeakDetectionThreshold(getLongProperty("db.pool.leakDetectionThreshold", 0));
+        String testQuery = getProperty("db.pool.connectionTestQuery", "");
+        if (!testQuery.isEmpty()) {
+            // Only needed for drivers without JDBC4 isValid(); MariaDB validates natively.
+            config.setConnectionTestQuery(testQuery);
+        }
+        // Connector/J 3.x has no rewriteBatchedStatements; bulk statements send a whole
+        // executeBatch() to the server in one round trip instead.
+        config.addDataSourceProperty("useBulkStmts", getProperty("db.useBulkStmts", "true"));
+        config.setRegisterMbeans(true);
+        return config;
+    }
+
+    /**
+     * Snapshot of the pool's saturation counters, used to size db.pool.maximumPoolSize.
+     */
+    public static PoolMetrics getPoolMetrics() {
+        HikariDataSource ds = (HikariDataSource) getDataSource();
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        PoolMetrics metrics = new PoolMetrics();
+        metrics.setPoolName(ds.getPoolName());
+        metrics.setMaximumPoolSize(ds.getMaximumPoolSize());
+        metrics.setMinimumIdle(ds.getMinimumIdle());
+        if (pool != null) {
+            metrics.setActiveConnections(pool.getActiveConnections());
+            metrics.setIdleConnections(pool.getIdleConnections());
+            metrics.setTotalConnections(pool.getTotalConnections());
+            metrics.setThreadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+        }
+        return metrics;
+    }
+
+    /**
+     * Closes the pool and all of its connections. The next call to getConnection() starts a new pool.
+     */
+    public static void closeDataSource() {
+        synchronized (DatabaseConfig.class) {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        }
+    }
+
+    /**
+     * Rows per executeBatch()/commit for the DAO createAll methods.
+     */
+    public static int getBatchSize() {
+        return Math.max(1, getIntProperty("db.batch.size", 1000));
+    }
+
+    /**
+     * True when customers and readings are kept in memory (db.storage=memory) instead of in
+     * MariaDB (db.storage=mariadb, the default).
+     */
+    public static boolean isInMemoryStorage() {
+        return "memory".equalsIgnoreCase(getProperty("db.storage", "mariadb"));
+    }
+
+    /**
+     * Snapshot file of the in-memory storage, or an empty string to keep no snapshot.
+     */
+    public static String getMemorySnapshotFile() {
+        return getProperty("db.memory.snapshotFile", "");
+    }
+
+    /**
+     * True when CSV imports upsert on the natural keys (db.import.upsert, the default), so
+     * importing a file again updates the stored rows instead of adding them twice.
+     */
+    public static boolean isImportUpsert() {
+        return Boolean.parseBoolean(getProperty("db.import.upsert", "true"));
+    }
+
+    /**
+     * True when CSV imports load readings with LOAD DATA LOCAL INFILE (db.bulk.loadLocalInfile)
+     * instead of batched INSERTs.
+     */
+    public static boolean isBulkLoadEnabled() {
+        return Boolean.parseBoolean(getProperty("db.bulk.loadLocalInfile", "false"));
+    }
+
+    /**
+     * Rows sent per LOAD DATA statement in bulk-load mode.
+     */
+    public static int getBulkLoadRows() {
+        return Math.max(1, getIntProperty("db.bulk.rows", 50000));
+    }
+
+    /**
+     * Reading files imported in parallel by one directory or ZIP import (import.files.workers).
+     * Defaults to one per core, at most db.pool.maximumPoolSize - 1 so API requests still get
+     * a connection.
+     */
+    public static int getImportFileWorkers() {
+        int poolSize = getIntProperty("db.pool.maximumPoolSize", 10);
+        int workers = Math.min(Runtime.getRuntime().availableProcessors(), poolSize - 1);
+        return Math.max(1, getIntProperty("import.files.workers", workers));
+    }
+
+    /**
+     * Threads running queued CSV import jobs (POST /import/jobs/{type}).
+     */
+    public static int getImportJobWorkers() {
+        return Math.max(1, getIntProperty("import.jobs.workers", 2));
+    }
+
+    /**
+     * Import jobs that may wait for a worker before new submissions are rejected.
+     */
+    public static int getImportJobQueueCapacity() {
+        return Math.max(1, getIntProperty("import.jobs.queueCapacity", 16));
+    }
+
+    /**
+     * True when UUID keys are stored as BINARY(16) (db.uuid.storage=binary, the default),
+     * false for the legacy VARCHAR(36) text format.
+     */
+    public static boolean isBinaryUuidStorage() {
+        return !"string".equalsIgnoreCase(getProperty("db.uuid.storage", "binary"));
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = System.getProperty(key, props.getProperty(key));
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
     }
 
     /**
@@ -58,61 +250,40 @@ public class DatabaseConfig {
     /**
      * Creates the 'customers' and 'readings' tables if they do not exist.
      * <p>
-     * This method will execute the DDL statements to create the required tables.
-     * Adjust the DDL statements according to your schema and database dialect.
+     * The DDL lives in {@link SchemaMigrator}; this runs every pending migration, so it also
+     * upgrades an existing schema (indexes, column changes) without dropping any data.
      */
     public static void createTables() {
-        String createCustomersTable =
-                "CREATE TABLE IF NOT EXISTS customers (" +
-                        "  id VARCHAR(36) PRIMARY KEY," +
-                        "  first_name VARCHAR(100) NOT NULL," +
-                        "  last_name VARCHAR(100) NOT NULL," +
-                        "  birth_date DATE," +
-                        "  gender VARCHAR(1) CHECK (gender IN ('D','M','U','W'))" +
-                        ");";
-
-        String createReadingsTable =
-                "CREATE TABLE IF NOT EXISTS readings (" +
-                        "  id VARCHAR(36) PRIMARY KEY," +
-                        "  customer_id VARCHAR(36) NOT NULL," +
-                        "  comment VARCHAR(255)," +
-                        "  date_of_reading DATE," +
-                        "  kind_of_meter VARCHAR(20) CHECK (kind_of_meter IN ('HEIZUNG','STROM','UNBEKANNT','WASSER'))," +
-                        "  meter_count DOUBLE," +
-                        "  meter_id VARCHAR(50)," +
-                        "  substitute BOOLEAN," +
-                        "  FOREIGN KEY (customer_id) REFERENCES customers(id)" +
-                        ");";
+        migrate();
+    }
 
-        try (Connection conn = getConnection()) {
-            conn.setAutoCommit(false);
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute(createCustomersTable);
-                stmt.execute(createReadingsTable);
-                conn.commit();
-            } catch (SQLException e) {
-                conn.rollback();
-                e.printStackTrace();
-                throw new RuntimeException("Failed to create tables", e);
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Database connection issue when creating tables", e);
-        }
+    /**
+     * Applies all pending schema migrations. Called on every application start.
+     */
+    public static void migrate() {
+        SchemaMigrator.migrate();
+        ChangeTracker.markAllReset();
     }
 
     public static void deleteTables() {
+        String deleteImportedFilesTable = "DROP TABLE IF EXISTS imported_files;";
+        String deleteDuplicatesTable = "DROP TABLE IF EXISTS " + SchemaMigrator.DUPLICATES_TABLE + ";";
+        String deleteRollupTable = "DROP TABLE IF EXISTS consumption_monthly;";
         String deleteReadingsTable = "DROP TABLE IF EXISTS readings;";
         String deleteCustomersTable = "DROP TABLE IF EXISTS customers;";
+        String deleteVersionTable = "DROP TABLE IF EXISTS " + SchemaMigrator.VERSION_TABLE + ";";
 
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
             try (Statement stmt = conn.createStatement()) {
+                stmt.execute(deleteImportedFilesTable);
+                stmt.execute(deleteDuplicatesTable);
+                stmt.execute(deleteRollupTable);
                 stmt.execute(deleteReadingsTable);
                 stmt.execute(deleteCustomersTable);
+                stmt.execute(deleteVersionTable);
                 conn.commit();
+                ChangeTracker.markAllReset();
             } catch (SQLException e) {
                 conn.rollback();
                 e.printStackTrace();
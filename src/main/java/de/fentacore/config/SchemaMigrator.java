@@ -0,0 +1,427 @@
+package de.fentacore.config;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies versioned schema migrations in order and records each applied version in the
+ * 'schema_version' table, so existing deployments are upgraded in place on startup.
+ * <p>
+ * Migrations are append-only: never edit a released one, add a new version instead.
+ * Statements should be idempotent (IF NOT EXISTS) because MariaDB commits DDL implicitly
+ * and a migration interrupted halfway is simply re-run on the next start.
+ */
+public class SchemaMigrator {
+
+    static final String VERSION_TABLE = "schema_version";
+    // Readings migration 5 removed as duplicates, kept for inspection
+    static final String DUPLICATES_TABLE = "readings_duplicates";
+    private static final String LOCK_NAME = "hausverwaltung_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    // Tables holding UUID keys, parents before children, with their UUID columns
+    private static final String[][] UUID_TABLES = {
+            {"customers", "id"},
+            {"readings", "id", "customer_id"},
+            {"consumption_monthly", "customer_id"}
+    };
+    // child table, child column, parent table, parent column
+    private static final String[][] FOREIGN_KEYS = {
+            {"readings", "customer_id", "customers", "id"}
+    };
+    private static final String CONVERSION_SUFFIX = "_conv";
+    private static final String REPLACED_SUFFIX = "_old";
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    // Monthly consumption per meter and customer from the differences of consecutive readings
+    private static final String ROLLUP_SELECT =
+            "SELECT d.meter_id, d.customer_id, MAX(d.kind_of_meter) AS kind_of_meter, d.period," +
+                    "  SUM(d.delta) AS consumption, COUNT(*) AS intervals FROM (" +
+                    "  SELECT r.meter_id, r.customer_id, r.kind_of_meter," +
+                    "  CAST(DATE_FORMAT(r.date_of_reading, '%Y-%m-01') AS DATE) AS period," +
+                    "  r.meter_count - LAG(r.meter_count) OVER (PARTITION BY r.meter_id, r.customer_id" +
+                    "  ORDER BY r.date_of_reading, r.id) AS delta" +
+                    "  FROM readings r WHERE r.meter_id IS NOT NULL AND r.date_of_reading IS NOT NULL" +
+                    ") d WHERE d.delta IS NOT NULL GROUP BY d.meter_id, d.customer_id, d.period";
+    // The same per kind of meter, so a meter whose readings changed kind keeps both
+    private static final String ROLLUP_BY_KIND_SELECT =
+            "SELECT d.meter_id, d.customer_id, d.kind_of_meter, d.period," +
+                    "  SUM(d.delta) AS consumption, COUNT(*) AS intervals FROM (" +
+                    "  SELECT r.meter_id, r.customer_id, r.kind_of_meter," +
+                    "  CAST(DATE_FORMAT(r.date_of_reading, '%Y-%m-01') AS DATE) AS period," +
+                    "  r.meter_count - LAG(r.meter_count) OVER (PARTITION BY r.meter_id, r.customer_id" +
+                    "  ORDER BY r.date_of_reading, r.id) AS delta" +
+                    "  FROM readings r WHERE r.meter_id IS NOT NULL AND r.date_of_reading IS NOT NULL" +
+                    ") d WHERE d.delta IS NOT NULL GROUP BY d.meter_id, d.customer_id, d.kind_of_meter, d.period";
+
+    static {
+        MIGRATIONS.add(new Migration(1, "Create customers and readings tables",
+                "CREATE TABLE IF NOT EXISTS customers (" +
+                        "  id VARCHAR(36) PRIMARY KEY," +
+                        "  first_name VARCHAR(100) NOT NULL," +
+                        "  last_name VARCHAR(100) NOT NULL," +
+                        "  birth_date DATE," +
+                        "  gender VARCHAR(1) CHECK (gender IN ('D','M','U','W'))" +
+                        ")",
+                "CREATE TABLE IF NOT EXISTS readings (" +
+                        "  id VARCHAR(36) PRIMARY KEY," +
+                        "  customer_id VARCHAR(36) NOT NULL," +
+                        "  comment VARCHAR(255)," +
+                        "  date_of_reading DATE," +
+                        "  kind_of_meter VARCHAR(20) CHECK (kind_of_meter IN ('HEIZUNG','STROM','UNBEKANNT','WASSER'))," +
+                        "  meter_count DOUBLE," +
+                        "  meter_id VARCHAR(50)," +
+                        "  substitute BOOLEAN," +
+                        "  FOREIGN KEY (customer_id) REFERENCES customers(id)" +
+                        ")"));
+
+        // Composite indexes matching the GET /readings filters: per customer, per kind of meter
+        // and per meter, each narrowed by a date range.
+        MIGRATIONS.add(new Migration(2, "Add reading lookup indexes",
+                "CREATE INDEX IF NOT EXISTS idx_readings_customer_date ON readings (customer_id, date_of_reading)",
+                "CREATE INDEX IF NOT EXISTS idx_readings_kind_date ON readings (kind_of_meter, date_of_reading)",
+                "CREATE INDEX IF NOT EXISTS idx_readings_meter_date ON readings (meter_id, date_of_reading)"));
+
+        // Monthly consumption per meter and customer, kept current by the reading DAO. Built with
+        // CREATE ... SELECT so customer_id takes the type readings.customer_id has right now; on a
+        // legacy schema the UUID conversion below then converts it together with readings.
+        MIGRATIONS.add(new Migration(3, "Add monthly consumption rollup",
+                "DROP TABLE IF EXISTS consumption_monthly",
+                "CREATE TABLE consumption_monthly (" +
+                        "  meter_id VARCHAR(50) NOT NULL," +
+                        "  kind_of_meter VARCHAR(20)," +
+                        "  period DATE NOT NULL," +
+                        "  consumption DOUBLE NOT NULL," +
+                        "  intervals INT NOT NULL" +
+                        ") " + ROLLUP_SELECT,
+                "ALTER TABLE consumption_monthly ADD PRIMARY KEY (meter_id, customer_id, period)",
+                "CREATE INDEX IF NOT EXISTS idx_consumption_customer_period ON consumption_monthly (customer_id, kind_of_meter, period)"));
+
+        // SHA-256 of every CSV file imported from a directory or archive, so re-running an
+        // import over the same files skips the ones already loaded.
+        MIGRATIONS.add(new Migration(4, "Track imported files",
+                "CREATE TABLE IF NOT EXISTS imported_files (" +
+                        "  content_hash BINARY(32) PRIMARY KEY," +
+                        "  source VARCHAR(1024) NOT NULL," +
+                        "  imported_rows BIGINT," +
+                        "  imported_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                        ")"));
+
+        // One reading per meter, day and customer, the natural key imports upsert on. The
+        // customer is part of it because a meter handed over to another customer has a final
+        // and a first reading on the same day. Earlier duplicates are moved to
+        // DUPLICATES_TABLE first, and the rollup is recomputed without them.
+        MIGRATIONS.add(new Migration(5, "Unique reading per meter, day and customer",
+                SchemaMigrator::moveDuplicateReadings,
+                "CREATE UNIQUE INDEX IF NOT EXISTS uq_readings_meter_date_customer ON readings (meter_id, date_of_reading, customer_id)",
+                "DROP INDEX IF EXISTS idx_readings_meter_date ON readings",
+                "DELETE FROM consumption_monthly",
+                "INSERT INTO consumption_monthly (meter_id, customer_id, kind_of_meter, period, consumption, intervals) " +
+                        ROLLUP_SELECT));
+
+        // Tables are created with VARCHAR(36) keys above; convert them to db.uuid.storage. Later
+        // changes of that setting are applied by migrate() on every start.
+        MIGRATIONS.add(new Migration(6, "Store UUID keys in the configured format",
+                conn -> alignUuidStorage(conn, DatabaseConfig.isBinaryUuidStorage())));
+
+        // The rollup gets one row per meter, customer, kind and month, the rows the SQL path of
+        // consumption queries returns. kind_of_meter may be NULL, so the key is a unique index
+        // instead of the primary key. Recreated like in migration 3; customer_id takes the
+        // converted type of readings.customer_id.
+        MIGRATIONS.add(new Migration(7, "Key the consumption rollup on kind of meter",
+                "DROP TABLE IF EXISTS consumption_monthly",
+                "CREATE TABLE consumption_monthly (" +
+                        "  meter_id VARCHAR(50) NOT NULL," +
+                        "  kind_of_meter VARCHAR(20)," +
+                        "  period DATE NOT NULL," +
+                        "  consumption DOUBLE NOT NULL," +
+                        "  intervals INT NOT NULL" +
+                        ") " + ROLLUP_BY_KIND_SELECT,
+                "CREATE UNIQUE INDEX IF NOT EXISTS uq_consumption_meter_customer_period_kind ON consumption_monthly (meter_id, customer_id, period, kind_of_meter)",
+                "CREATE INDEX IF NOT EXISTS idx_consumption_customer_period ON consumption_monthly (customer_id, kind_of_meter, period)"));
+    }
+
+    /**
+     * Brings the schema up to the latest version. Safe to call on every start and from
+     * several instances at once; a database-level lock serialises concurrent runs.
+     */
+    public static void migrate() {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            acquireLock(conn);
+            try {
+                ensureVersionTable(conn);
+                int current = getCurrentVersion(conn);
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version > current) {
+                        apply(conn, migration);
+                    }
+                }
+                alignUuidStorage(conn, DatabaseConfig.isBinaryUuidStorage());
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Database migration failed", e);
+        }
+    }
+
+    /**
+     * Highest version known to this build.
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Highest version recorded in the database, or 0 if no migration has run yet.
+     */
+    public static int getCurrentVersion() {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureVersionTable(conn);
+            return getCurrentVersion(conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Applying schema migration " + migration.version + ": " + migration.description);
+        if (migration.step != null) {
+            migration.step.apply(conn);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                stmt.execute(sql);
+            }
+        }
+        String insert = "INSERT INTO " + VERSION_TABLE + " (version, description) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Moves all but one reading of every meter, day and customer to DUPLICATES_TABLE. The row
+     * with the smallest id stays: the first one stored for time-ordered ids, an arbitrary one
+     * for the random ids of older rows. Safe to re-run after an interruption.
+     */
+    private static void moveDuplicateReadings(Connection conn) throws SQLException {
+        String duplicates = "SELECT r.* FROM readings r WHERE EXISTS (" +
+                "SELECT 1 FROM readings k WHERE k.meter_id = r.meter_id AND k.date_of_reading = r.date_of_reading" +
+                "  AND k.customer_id = r.customer_id AND k.id < r.id)";
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (" + duplicates + ")")) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    return;
+                }
+            }
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + DUPLICATES_TABLE + " LIKE readings");
+            stmt.execute("INSERT IGNORE INTO " + DUPLICATES_TABLE + " " + duplicates);
+            int moved = stmt.executeUpdate("DELETE r FROM readings r JOIN " + DUPLICATES_TABLE + " d ON d.id = r.id");
+            if (moved > 0) {
+                System.out.println("Moved " + moved + " duplicate readings to " + DUPLICATES_TABLE);
+            }
+        }
+    }
+
+    /**
+     * Converts the UUID key columns to the format selected by db.uuid.storage if the schema
+     * still uses the other one, e.g. a deployment created before BINARY(16) keys existed.
+     * All rows are kept.
+     * <p>
+     * Each table is copied into a shadow table (CREATE TABLE ... LIKE keeps columns and indexes),
+     * the UUID columns are retyped and rows are copied with a conversion expression. One RENAME
+     * then moves the old tables aside and the shadow tables in, so every table name always
+     * holds a complete table. Only after that are the old tables dropped and the foreign keys
+     * added; if that step is interrupted, the next start finishes it.
+     */
+    private static void alignUuidStorage(Connection conn, boolean binary) throws SQLException {
+        String currentType = getColumnType(conn, "customers", "id");
+        if (currentType == null) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            if (getColumnType(conn, UUID_TABLES[0][0] + REPLACED_SUFFIX, "id") != null) {
+                // A conversion was swapped in but not cleaned up
+                finishConversion(conn, stmt);
+            }
+            if ("binary".equalsIgnoreCase(currentType) == binary) {
+                return;
+            }
+            System.out.println("Converting UUID columns to " + (binary ? "BINARY(16)" : "VARCHAR(36)") + " storage");
+
+            for (String[] table : UUID_TABLES) {
+                String name = table[0];
+                String shadow = name + CONVERSION_SUFFIX;
+                stmt.execute("DROP TABLE IF EXISTS " + shadow);
+                stmt.execute("CREATE TABLE " + shadow + " LIKE " + name);
+
+                List<String> uuidColumns = List.of(table).subList(1, table.length);
+                StringBuilder alter = new StringBuilder("ALTER TABLE " + shadow);
+                for (int i = 0; i < uuidColumns.size(); i++) {
+                    alter.append(i == 0 ? " " : ", ")
+                            .append("MODIFY ").append(uuidColumns.get(i))
+                            .append(binary ? " BINARY(16) NOT NULL" : " VARCHAR(36) NOT NULL");
+                }
+                stmt.execute(alter.toString());
+
+                List<String> columns = getColumnNames(conn, name);
+                List<String> expressions = new ArrayList<>();
+                for (String column : columns) {
+                    expressions.add(uuidColumns.contains(column)
+                            ? (binary ? toBinaryExpression(column) : toStringExpression(column))
+                            : column);
+                }
+                stmt.execute("INSERT INTO " + shadow + " (" + String.join(", ", columns) + ") SELECT "
+                        + String.join(", ", expressions) + " FROM " + name);
+            }
+
+            List<String> renames = new ArrayList<>();
+            for (String[] table : UUID_TABLES) {
+                renames.add(table[0] + " TO " + table[0] + REPLACED_SUFFIX);
+                renames.add(table[0] + CONVERSION_SUFFIX + " TO " + table[0]);
+            }
+            stmt.execute("RENAME TABLE " + String.join(", ", renames));
+
+            finishConversion(conn, stmt);
+        }
+    }
+
+    /**
+     * Drops the tables a conversion replaced and adds the foreign keys, which CREATE TABLE ...
+     * LIKE does not copy. The old tables go first, so their constraint names are free again.
+     */
+    private static void finishConversion(Connection conn, Statement stmt) throws SQLException {
+        // Children first so no foreign key points at a dropped table
+        for (int i = UUID_TABLES.length - 1; i >= 0; i--) {
+            stmt.execute("DROP TABLE IF EXISTS " + UUID_TABLES[i][0] + REPLACED_SUFFIX);
+        }
+        for (String[] fk : FOREIGN_KEYS) {
+            if (!hasForeignKey(conn, fk[0], fk[1])) {
+                stmt.execute("ALTER TABLE " + fk[0] + " ADD FOREIGN KEY (" + fk[1] + ") REFERENCES " + fk[2] + "(" + fk[3] + ")");
+            }
+        }
+    }
+
+    private static boolean hasForeignKey(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() " +
+                "AND TABLE_NAME = ? AND COLUMN_NAME = ? AND REFERENCED_TABLE_NAME IS NOT NULL";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static String toBinaryExpression(String column) {
+        return "UNHEX(REPLACE(" + column + ", '-', ''))";
+    }
+
+    private static String toStringExpression(String column) {
+        String hex = "LOWER(HEX(" + column + "))";
+        return "CONCAT_WS('-', SUBSTR(" + hex + ", 1, 8), SUBSTR(" + hex + ", 9, 4), SUBSTR(" + hex + ", 13, 4), "
+                + "SUBSTR(" + hex + ", 17, 4), SUBSTR(" + hex + ", 21, 12))";
+    }
+
+    private static String getColumnType(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static List<String> getColumnNames(Connection conn, String table) throws SQLException {
+        String sql = "SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "  version INT PRIMARY KEY," +
+                    "  description VARCHAR(255) NOT NULL," +
+                    "  applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    private static int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM " + VERSION_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Migration work that cannot be written as fixed SQL.
+     */
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+        private final Step step;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.step = null;
+        }
+
+        // The step runs before the statements
+        private Migration(int version, String description, Step step, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package de.fentacore.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * HTTP server settings from server.properties. System properties with the same key take
+ * precedence, e.g. -Dserver.port=9090.
+ */
+public class ServerConfig {
+    private static Properties props;
+
+    static {
+        try {
+            props = new Properties();
+            try (InputStream input = ServerConfig.class.getClassLoader().getResourceAsStream("server.properties")) {
+                // Missing file: all settings fall back to their defaults
+                if (input != null) {
+                    props.load(input);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load server properties", e);
+        }
+    }
+
+    /**
+     * The public base URL, e.g. http://localhost:8080/rest.
+     */
+    public static String getBaseUri() {
+        String path = getProperty("server.basePath", "/rest");
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return "http://" + getProperty("server.host", "localhost") + ":" + getIntProperty("server.port", 8080) + path;
+    }
+
+    /**
+     * @return the interface to bind to, or null for all interfaces
+     */
+    public static String getBindAddress() {
+        String address = getProperty("server.bindAddress", "");
+        return address.isEmpty() ? null : address;
+    }
+
+    public static int getBacklog() {
+        return getIntProperty("server.backlog", 0);
+    }
+
+    /**
+     * @return "jdk" or "grizzly"
+     */
+    public static String getContainer() {
+        return getProperty("server.container", "jdk").toLowerCase();
+    }
+
+    /**
+     * @return "virtual", "platform" or "auto"
+     * @throws IllegalArgumentException for any other value
+     */
+    public static String getExecutor() {
+        String executor = getProperty("server.executor", "auto").toLowerCase();
+        switch (executor) {
+            case "virtual":
+            case "platform":
+            case "auto":
+                return executor;
+            default:
+                throw new IllegalArgumentException("Unknown server.executor: " + executor + ". Valid values: virtual, platform, auto");
+        }
+    }
+
+    public static int getThreads() {
+        return Math.max(1, getIntProperty("server.threads", 32));
+    }
+
+    public static int getQueueCapacity() {
+        return Math.max(1, getIntProperty("server.queueCapacity", 256));
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = System.getProperty(key, props.getProperty(key));
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Runs one INSERT statement for many rows with addBatch/executeBatch, committing once per
+ * chunk of db.batch.size rows. An optional {@link ChunkHook} runs in the same transaction just
+ * before each commit. If a chunk fails (e.g. a duplicate key) it is rolled back and retried row
+ * by row, so one bad row only loses itself, as with single create() calls; a chunk picked as a
+ * deadlock victim is first run again as a whole.
+ */
+final class BatchInsert {
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ChunkHook<T> {
+        void beforeCommit(Connection conn, List<? extends T> rows) throws SQLException;
+    }
+
+    private BatchInsert() {
+    }
+
+    /**
+     * @return number of rows inserted
+     */
+    static <T> int insertAll(String sql, List<? extends T> rows, Binder<T> binder) {
+        return insertAll(sql, rows, binder, null);
+    }
+
+    /**
+     * @param beforeCommit runs on the inserting connection before each chunk or row commits;
+     *                     if it fails, those rows are rolled back with it
+     * @return number of rows inserted
+     */
+    static <T> int insertAll(String sql, List<? extends T> rows, Binder<T> binder, ChunkHook<T> beforeCommit) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        int batchSize = DatabaseConfig.getBatchSize();
+        int inserted = 0;
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<? extends T> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                    inserted += insertChunk(conn, stmt, chunk, binder, beforeCommit);
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return inserted;
+    }
+
+    private static <T> int insertChunk(Connection conn, PreparedStatement stmt, List<? extends T> chunk,
+                                       Binder<T> binder, ChunkHook<T> beforeCommit) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                for (T row : chunk) {
+                    binder.bind(stmt, row);
+                    stmt.addBatch();
+                }
+                int[] counts = stmt.executeBatch();
+                if (beforeCommit != null) {
+                    beforeCommit.beforeCommit(conn, chunk);
+                }
+                conn.commit();
+                return countInserted(counts);
+            } catch (SQLException e) {
+                conn.rollback();
+                stmt.clearBatch();
+                if (attempt >= Transactions.MAX_ATTEMPTS || !Transactions.isDeadlock(e)) {
+                    return insertRowByRow(conn, stmt, chunk, binder, beforeCommit);
+                }
+            }
+        }
+    }
+
+    private static <T> int insertRowByRow(Connection conn, PreparedStatement stmt, List<? extends T> chunk,
+                                          Binder<T> binder, ChunkHook<T> beforeCommit) throws SQLException {
+        int inserted = 0;
+        for (T row : chunk) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    binder.bind(stmt, row);
+                    int count = stmt.executeUpdate();
+                    if (beforeCommit != null) {
+                        beforeCommit.beforeCommit(conn, List.of(row));
+                    }
+                    conn.commit();
+                    inserted += count > 0 ? 1 : 0;
+                    break;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (attempt >= Transactions.MAX_ATTEMPTS || !Transactions.isDeadlock(e)) {
+                        e.printStackTrace();
+                        break;
+                    }
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private static int countInserted(int[] counts) {
+        int inserted = 0;
+        for (int count : counts) {
+            // Bulk statements report SUCCESS_NO_INFO instead of per-row counts
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+}
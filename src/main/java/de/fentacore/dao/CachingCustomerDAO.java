@@ -0,0 +1,232 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.CacheMetrics;
+import de.fentacore.model.Customer;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache for {@link ICustomerDAO#findById} in front of another customer DAO.
+ * <p>
+ * Entries are evicted least-recently-used once db.cache.customers.maxSize is reached and expire
+ * after db.cache.customers.ttlSeconds. update, delete and upsertAll drop the entries for the ids
+ * they write right away; creates touch no cached id, so they leave the cache alone. Every entry
+ * also remembers the {@link ChangeTracker} customers reset count it was loaded under, so dropping
+ * or reloading the table retires all of them. Writes made through another DAO instance are only
+ * seen once the entry expires. Callers get their own copy of the cached customer and may modify
+ * it freely.
+ */
+public class CachingCustomerDAO implements ICustomerDAO {
+
+    private static volatile CachingCustomerDAO defaultInstance;
+
+    private final ICustomerDAO delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by itself
+    private final LinkedHashMap<UUID, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    // Bumped by every invalidation; a load that overlapped one is not cached
+    private long invalidations;
+
+    public CachingCustomerDAO(ICustomerDAO delegate, int maxSize, long ttl, TimeUnit unit) {
+        this(delegate, maxSize, unit.toNanos(ttl), System::nanoTime);
+    }
+
+    CachingCustomerDAO(ICustomerDAO delegate, int maxSize, long ttlNanos, LongSupplier nanoTime) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() > CachingCustomerDAO.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Shared cache over a {@link CustomerDAO}, sized from database.properties.
+     */
+    public static CachingCustomerDAO getDefault() {
+        CachingCustomerDAO cache = defaultInstance;
+        if (cache == null) {
+            synchronized (CachingCustomerDAO.class) {
+                cache = defaultInstance;
+                if (cache == null) {
+                    cache = new CachingCustomerDAO(new CustomerDAO(),
+                            Math.max(1, DatabaseConfig.getIntProperty("db.cache.customers.maxSize", 10000)),
+                            Math.max(0, DatabaseConfig.getLongProperty("db.cache.customers.ttlSeconds", 300)),
+                            TimeUnit.SECONDS);
+                    defaultInstance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public ICustomer findById(UUID id) {
+        long resets = ChangeTracker.getResets(ChangeTracker.CUSTOMERS);
+        long generation;
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (entry.resets == resets && nanoTime.getAsLong() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return copyOf(entry.customer);
+                }
+                entries.remove(id);
+            }
+            misses++;
+            generation = invalidations;
+        }
+
+        // Loaded outside the lock so one slow query does not hold up every other lookup. An
+        // update or delete finishing meanwhile may have been read before its commit, so the
+        // result is only cached when nothing was invalidated during the query; a reset racing
+        // with it leaves the entry under the old reset count, which is never served.
+        ICustomer customer = delegate.findById(id);
+        if (customer != null) {
+            synchronized (entries) {
+                if (invalidations == generation) {
+                    entries.put(id, new Entry(copyOf(customer), resets, nanoTime.getAsLong()));
+                }
+            }
+        }
+        return customer;
+    }
+
+    @Override
+    public boolean update(ICustomer customer) {
+        try {
+            return delegate.update(customer);
+        } finally {
+            invalidate(customer.getId());
+        }
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public ICustomer create(ICustomer customer) {
+        return delegate.create(customer);
+    }
+
+    @Override
+    public int createAll(List<? extends ICustomer> customers) {
+        return delegate.createAll(customers);
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends ICustomer> customers) {
+        try {
+            return delegate.upsertAll(customers);
+        } finally {
+            synchronized (entries) {
+                for (ICustomer customer : customers) {
+                    if (customer.getId() != null) {
+                        entries.remove(customer.getId());
+                    }
+                }
+                invalidations++;
+            }
+        }
+    }
+
+    @Override
+    public List<ICustomer> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<ICustomer> findPage(UUID after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public void streamAll(RowHandler<? super ICustomer> handler) throws IOException {
+        delegate.streamAll(handler);
+    }
+
+    public void invalidate(UUID id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(id);
+            invalidations++;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            invalidations++;
+        }
+    }
+
+    public CacheMetrics getMetrics() {
+        CacheMetrics metrics = new CacheMetrics();
+        synchronized (entries) {
+            metrics.setSize(entries.size());
+            metrics.setHits(hits);
+            metrics.setMisses(misses);
+            metrics.setEvictions(evictions);
+        }
+        metrics.setMaxSize(maxSize);
+        metrics.setTtlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        return metrics;
+    }
+
+    private static Customer copyOf(ICustomer source) {
+        Customer copy = new Customer();
+        copy.setId(source.getId());
+        copy.setFirstName(source.getFirstName());
+        copy.setLastName(source.getLastName());
+        copy.setBirthDate(source.getBirthDate());
+        copy.setGender(source.getGender());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final Customer customer;
+        private final long resets;
+        private final long loadedAt;
+
+        private Entry(Customer customer, long resets, long loadedAt) {
+            this.customer = customer;
+            this.resets = resets;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
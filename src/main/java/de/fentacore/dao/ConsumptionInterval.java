@@ -0,0 +1,24 @@
+package de.fentacore.dao;
+
+/**
+ * Period length for {@link IReadingDAO#findConsumption}. Periods are labelled like
+ * "2024-03-15", "2024-03" and "2024".
+ */
+public enum ConsumptionInterval {
+    DAY("%Y-%m-%d"),
+    MONTH("%Y-%m"),
+    YEAR("%Y");
+
+    private final String dateFormat;
+
+    ConsumptionInterval(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    /**
+     * MariaDB DATE_FORMAT pattern producing the period label.
+     */
+    String getDateFormat() {
+        return dateFormat;
+    }
+}
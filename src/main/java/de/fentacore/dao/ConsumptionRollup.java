@@ -0,0 +1,233 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maintains 'consumption_monthly', the monthly consumption per meter, customer and kind of meter,
+ * so monthly and yearly consumption queries read one row per period instead of every reading.
+ * <p>
+ * {@link ReadingDAO} and {@link ReadingBulkLoader} call {@link #refresh} for each write, on the
+ * writing connection and before it commits, so the rollup commits or rolls back together with
+ * the readings. Only the months the written readings can affect are recomputed: from the month
+ * of the earliest written reading up to the month of the next existing reading after the latest
+ * one, whose difference changes too.
+ */
+public final class ConsumptionRollup {
+
+    static final String TABLE = "consumption_monthly";
+
+    // Differences between consecutive counts of one meter for one customer, booked to the
+    // month and kind of the later reading. Placeholders: extra reading filter, extra difference
+    // filter.
+    private static final String SELECT_MONTHLY =
+            "SELECT d.meter_id, d.customer_id, d.kind_of_meter, d.period, SUM(d.delta), COUNT(*) FROM (" +
+            "SELECT r.meter_id, r.customer_id, r.kind_of_meter, r.date_of_reading, " +
+            "CAST(DATE_FORMAT(r.date_of_reading, '%%Y-%%m-01') AS DATE) AS period, " +
+            "r.meter_count - LAG(r.meter_count) OVER (PARTITION BY r.meter_id, r.customer_id ORDER BY r.date_of_reading, r.id) AS delta " +
+            "FROM readings r WHERE r.meter_id IS NOT NULL AND r.date_of_reading IS NOT NULL%s" +
+            ") d WHERE d.delta IS NOT NULL%s GROUP BY d.meter_id, d.customer_id, d.kind_of_meter, d.period";
+
+    private static final String INSERT_MONTHLY =
+            "INSERT INTO " + TABLE + " (meter_id, customer_id, kind_of_meter, period, consumption, intervals) ";
+
+    private ConsumptionRollup() {
+    }
+
+    /**
+     * Recomputes the whole rollup from the readings table, e.g. after readings were changed
+     * with plain SQL.
+     *
+     * @return number of rollup rows written
+     */
+    public static int rebuild() {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM " + TABLE);
+                int rows = stmt.executeUpdate(INSERT_MONTHLY + String.format(SELECT_MONTHLY, "", ""));
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to rebuild " + TABLE, e);
+        }
+    }
+
+    /**
+     * Recomputes the months affected by {@code changed}, which holds the readings as written
+     * (and, for updates and deletes, as they were before). Runs in the caller's transaction on
+     * {@code conn} and leaves committing to it; a failure must roll back the write as well.
+     * Refreshes of one meter from parallel imports can deadlock; InnoDB then rolls back one
+     * whole transaction and the caller runs it again.
+     */
+    static void refresh(Connection conn, Collection<? extends IReading> changed) throws SQLException {
+        // Refreshed in one order, so two writers of the same meters wait instead of deadlocking
+        Map<List<Object>, LocalDate[]> ranges = new TreeMap<>(
+                Comparator.comparing((List<Object> key) -> (String) key.get(0)).thenComparing(key -> (UUID) key.get(1)));
+        for (IReading reading : changed) {
+            if (reading == null || reading.getMeterId() == null || reading.getDateOfReading() == null
+                    || reading.getCustomer() == null || reading.getCustomer().getId() == null) {
+                continue;
+            }
+            LocalDate date = reading.getDateOfReading();
+            ranges.merge(List.of(reading.getMeterId(), reading.getCustomer().getId()), new LocalDate[]{date, date},
+                    (a, b) -> new LocalDate[]{min(a[0], b[0]), max(a[1], b[1])});
+        }
+        for (Map.Entry<List<Object>, LocalDate[]> range : ranges.entrySet()) {
+            refresh(conn, (String) range.getKey().get(0), (UUID) range.getKey().get(1),
+                    range.getValue()[0], range.getValue()[1]);
+        }
+    }
+
+    private static void refresh(Connection conn, String meterId, UUID customerId, LocalDate first, LocalDate last)
+            throws SQLException {
+        LocalDate next = findNextReadingDate(conn, meterId, customerId, last);
+        LocalDate from = first.withDayOfMonth(1);
+        LocalDate to = (next != null ? next : last).with(TemporalAdjusters.lastDayOfMonth());
+
+        // Rows from the last reading before 'from' on feed LAG() but are not booked themselves
+        String readingFilter = " AND r.meter_id = ? AND r.customer_id = ? AND r.date_of_reading <= ?" +
+                " AND r.date_of_reading >= COALESCE((SELECT MAX(p.date_of_reading) FROM readings p" +
+                " WHERE p.meter_id = ? AND p.customer_id = ? AND p.date_of_reading < ?), ?)";
+        String insert = INSERT_MONTHLY + String.format(SELECT_MONTHLY, readingFilter, " AND d.date_of_reading >= ?");
+
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM " + TABLE + " WHERE meter_id = ? AND customer_id = ? AND period BETWEEN ? AND ?");
+             PreparedStatement stmt = conn.prepareStatement(insert)) {
+
+            delete.setString(1, meterId);
+            UuidColumns.set(delete, 2, customerId);
+            delete.setDate(3, Date.valueOf(from));
+            delete.setDate(4, Date.valueOf(to));
+            delete.executeUpdate();
+
+            stmt.setString(1, meterId);
+            UuidColumns.set(stmt, 2, customerId);
+            stmt.setDate(3, Date.valueOf(to));
+            stmt.setString(4, meterId);
+            UuidColumns.set(stmt, 5, customerId);
+            stmt.setDate(6, Date.valueOf(from));
+            stmt.setDate(7, Date.valueOf(from));
+            stmt.setDate(8, Date.valueOf(from));
+            stmt.executeUpdate();
+        }
+    }
+
+    private static LocalDate findNextReadingDate(Connection conn, String meterId, UUID customerId, LocalDate after)
+            throws SQLException {
+        String sql = "SELECT MIN(date_of_reading) FROM readings WHERE meter_id = ? AND customer_id = ? AND date_of_reading > ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, meterId);
+            UuidColumns.set(stmt, 2, customerId);
+            stmt.setDate(3, Date.valueOf(after));
+            try (ResultSet rs = stmt.executeQuery()) {
+                Date next = rs.next() ? rs.getDate(1) : null;
+                return next != null ? next.toLocalDate() : null;
+            }
+        }
+    }
+
+    /**
+     * Whether {@link #find} can answer the query: whole months only, and no substitute filter
+     * because the rollup includes estimated readings.
+     */
+    static boolean covers(ReadingCriteria criteria, ConsumptionInterval interval) {
+        if (interval == ConsumptionInterval.DAY) {
+            return false;
+        }
+        if (criteria == null) {
+            return true;
+        }
+        LocalDate start = criteria.getStartDate();
+        LocalDate end = criteria.getEndDate();
+        return criteria.getSubstitute() == null
+                && (start == null || start.getDayOfMonth() == 1)
+                && (end == null || end.equals(end.with(TemporalAdjusters.lastDayOfMonth())));
+    }
+
+    static List<ConsumptionPeriod> find(ReadingCriteria criteria, ConsumptionInterval interval) {
+        List<ConsumptionPeriod> periods = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (criteria != null) {
+            if (criteria.getCustomerId() != null) {
+                conditions.add("customer_id = ?");
+                params.add(UuidColumns.toParameter(criteria.getCustomerId()));
+            }
+            if (criteria.getStartDate() != null) {
+                conditions.add("period >= ?");
+                params.add(Date.valueOf(criteria.getStartDate()));
+            }
+            if (criteria.getEndDate() != null) {
+                conditions.add("period <= ?");
+                params.add(Date.valueOf(criteria.getEndDate()));
+            }
+            if (criteria.getKindOfMeter() != null) {
+                conditions.add("kind_of_meter = ?");
+                params.add(criteria.getKindOfMeter().name());
+            }
+            if (criteria.getMeterId() != null) {
+                conditions.add("meter_id = ?");
+                params.add(criteria.getMeterId());
+            }
+        }
+        // Same rows as the SQL path of ReadingDAO.findConsumption: per meter, kind and period
+        String sql = "SELECT meter_id, kind_of_meter, " +
+                "DATE_FORMAT(period, '" + interval.getDateFormat() + "') AS label, " +
+                "SUM(consumption) AS consumption, SUM(intervals) AS intervals FROM " + TABLE +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                " GROUP BY meter_id, kind_of_meter, label ORDER BY meter_id, label, kind_of_meter";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ConsumptionPeriod period = new ConsumptionPeriod();
+                    period.setMeterId(rs.getString("meter_id"));
+                    String kom = rs.getString("kind_of_meter");
+                    if (kom != null) {
+                        period.setKindOfMeter(IReading.KindOfMeter.valueOf(kom));
+                    }
+                    period.setPeriod(rs.getString("label"));
+                    period.setConsumption(rs.getDouble("consumption"));
+                    period.setIntervals(rs.getInt("intervals"));
+                    periods.add(period);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return periods;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
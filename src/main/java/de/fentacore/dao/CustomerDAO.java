@@ -1,32 +1,44 @@
 package de.fentacore.dao;
 
+import de.fentacore.config.ChangeTracker;
 import de.fentacore.config.DatabaseConfig;
 import de.fentacore.interfaces.ICustomer;
 import de.fentacore.model.Customer;
+import de.fentacore.utils.Uuids;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 public class CustomerDAO implements ICustomerDAO {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO customers (id, first_name, last_name, birth_date, gender) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_CUSTOMER = INSERT_CUSTOMER +
+            " ON DUPLICATE KEY UPDATE first_name = VALUES(first_name), last_name = VALUES(last_name)," +
+            " birth_date = VALUES(birth_date), gender = VALUES(gender)";
+
     @Override
     public ICustomer create(ICustomer customer) {
-        String sql = "INSERT INTO customers (id, first_name, last_name, birth_date, gender) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_CUSTOMER)) {
 
-            UUID newId = (customer.getId() == null) ? UUID.randomUUID() : customer.getId();
-            stmt.setString(1, newId.toString());
-            stmt.setString(2, customer.getFirstName());
-            stmt.setString(3, customer.getLastName());
-            stmt.setDate(4, customer.getBirthDate() != null ? Date.valueOf(customer.getBirthDate()) : null);
-            stmt.setString(5, customer.getGender() != null ? customer.getGender().name() : null);
+            UUID newId = (customer.getId() == null) ? Uuids.timeOrdered() : customer.getId();
+            bindInsert(stmt, customer, newId);
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
                 customer.setId(newId);
+                ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
                 return customer;
             }
         } catch (SQLException e) {
@@ -35,26 +47,113 @@ public class CustomerDAO implements ICustomerDAO {
         return null;
     }
 
+    @Override
+    public int createAll(List<? extends ICustomer> customers) {
+        if (customers == null) {
+            return 0;
+        }
+        // Ids are assigned up front so the caller can reference them once the batch is stored
+        for (ICustomer customer : customers) {
+            if (customer.getId() == null) {
+                customer.setId(Uuids.timeOrdered());
+            }
+        }
+        int inserted = BatchInsert.<ICustomer>insertAll(INSERT_CUSTOMER, customers,
+                (stmt, customer) -> bindInsert(stmt, customer, customer.getId()));
+        if (inserted > 0) {
+            ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        }
+        return inserted;
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends ICustomer> customers) {
+        if (customers == null || customers.isEmpty()) {
+            return new UpsertCounts(0, 0, 0);
+        }
+        for (ICustomer customer : customers) {
+            if (customer.getId() == null) {
+                customer.setId(Uuids.timeOrdered());
+            }
+        }
+        // Only the ids of this call are looked up, by primary key; later rows of the same
+        // call are compared against earlier ones
+        Map<UUID, ICustomer> stored = findStored(customers);
+        List<ICustomer> inserts = new ArrayList<>();
+        List<ICustomer> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (ICustomer customer : customers) {
+            ICustomer before = stored.put(customer.getId(), customer);
+            if (before == null) {
+                inserts.add(customer);
+            } else if (sameValues(before, customer)) {
+                unchanged++;
+            } else {
+                updates.add(customer);
+            }
+        }
+
+        BatchInsert.Binder<ICustomer> binder = (stmt, customer) -> bindInsert(stmt, customer, customer.getId());
+        int inserted = BatchInsert.insertAll(UPSERT_CUSTOMER, inserts, binder);
+        int updated = BatchInsert.insertAll(UPSERT_CUSTOMER, updates, binder);
+        if (inserted + updated > 0) {
+            ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        }
+        return new UpsertCounts(inserted, updated, unchanged);
+    }
+
+    private Map<UUID, ICustomer> findStored(List<? extends ICustomer> customers) {
+        Map<UUID, ICustomer> stored = new HashMap<>();
+        int chunkSize = DatabaseConfig.getBatchSize();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            for (int from = 0; from < customers.size(); from += chunkSize) {
+                List<? extends ICustomer> chunk = customers.subList(from, Math.min(from + chunkSize, customers.size()));
+                String sql = "SELECT id, first_name, last_name, birth_date, gender FROM customers WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        UuidColumns.set(stmt, i + 1, chunk.get(i).getId());
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Customer customer = mapResultSetToCustomer(rs, "");
+                            stored.put(customer.getId(), customer);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Everything is treated as new; the upsert still overwrites what exists
+            e.printStackTrace();
+        }
+        return stored;
+    }
+
+    private static boolean sameValues(ICustomer a, ICustomer b) {
+        return Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getBirthDate(), b.getBirthDate())
+                && a.getGender() == b.getGender();
+    }
+
+    private static void bindInsert(PreparedStatement stmt, ICustomer customer, UUID id) throws SQLException {
+        UuidColumns.set(stmt, 1, id);
+        stmt.setString(2, customer.getFirstName());
+        stmt.setString(3, customer.getLastName());
+        stmt.setDate(4, customer.getBirthDate() != null ? Date.valueOf(customer.getBirthDate()) : null);
+        stmt.setString(5, customer.getGender() != null ? customer.getGender().name() : null);
+    }
+
     @Override
     public ICustomer findById(UUID id) {
         String sql = "SELECT id, first_name, last_name, birth_date, gender FROM customers WHERE id = ?";
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, id.toString());
+            UuidColumns.set(stmt, 1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Customer c = new Customer();
-                    c.setId(UUID.fromString(rs.getString("id")));
-                    c.setFirstName(rs.getString("first_name"));
-                    c.setLastName(rs.getString("last_name"));
-                    Date bd = rs.getDate("birth_date");
-                    c.setBirthDate(bd != null ? bd.toLocalDate() : null);
-                    String gender = rs.getString("gender");
-                    if (gender != null) {
-                        c.setGender(ICustomer.Gender.valueOf(gender));
-                    }
-                    return c;
+                    return mapResultSetToCustomer(rs, "");
                 }
             }
         } catch (SQLException e) {
@@ -72,17 +171,50 @@ public class CustomerDAO implements ICustomerDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Customer c = new Customer();
-                c.setId(UUID.fromString(rs.getString("id")));
-                c.setFirstName(rs.getString("first_name"));
-                c.setLastName(rs.getString("last_name"));
-                Date bd = rs.getDate("birth_date");
-                c.setBirthDate(bd != null ? bd.toLocalDate() : null);
-                String gender = rs.getString("gender");
-                if (gender != null) {
-                    c.setGender(ICustomer.Gender.valueOf(gender));
+                customers.add(mapResultSetToCustomer(rs, ""));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return customers;
+    }
+
+    @Override
+    public void streamAll(RowHandler<? super ICustomer> handler) throws IOException {
+        String sql = "SELECT id, first_name, last_name, birth_date, gender FROM customers";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            // A positive fetch size makes the driver stream rows instead of loading them all
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(mapResultSetToCustomer(rs, ""));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new IOException("Streaming customers failed", e);
+        }
+    }
+
+    @Override
+    public List<ICustomer> findPage(UUID after, int limit) {
+        List<ICustomer> customers = new ArrayList<>();
+        String sql = "SELECT id, first_name, last_name, birth_date, gender FROM customers" +
+                (after != null ? " WHERE id > ?" : "") + " ORDER BY id LIMIT ?";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                UuidColumns.set(stmt, index++, after);
+            }
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(mapResultSetToCustomer(rs, ""));
                 }
-                customers.add(c);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -100,10 +232,13 @@ public class CustomerDAO implements ICustomerDAO {
             stmt.setString(2, customer.getLastName());
             stmt.setDate(3, customer.getBirthDate() != null ? Date.valueOf(customer.getBirthDate()) : null);
             stmt.setString(4, customer.getGender() != null ? customer.getGender().name() : null);
-            stmt.setString(5, customer.getId().toString());
+            UuidColumns.set(stmt, 5, customer.getId());
 
             int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -116,12 +251,33 @@ public class CustomerDAO implements ICustomerDAO {
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, id.toString());
+            UuidColumns.set(stmt, 1, id);
             int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
+
+    /**
+     * Maps the customer columns of the current row. {@code prefix} is prepended to every
+     * column label so joined queries can alias them (e.g. "c_first_name").
+     */
+    static Customer mapResultSetToCustomer(ResultSet rs, String prefix) throws SQLException {
+        Customer c = new Customer();
+        c.setId(UuidColumns.get(rs, prefix + "id"));
+        c.setFirstName(rs.getString(prefix + "first_name"));
+        c.setLastName(rs.getString(prefix + "last_name"));
+        Date bd = rs.getDate(prefix + "birth_date");
+        c.setBirthDate(bd != null ? bd.toLocalDate() : null);
+        String gender = rs.getString(prefix + "gender");
+        if (gender != null) {
+            c.setGender(ICustomer.Gender.valueOf(gender));
+        }
+        return c;
+    }
 }
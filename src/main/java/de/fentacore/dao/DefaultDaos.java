@@ -0,0 +1,23 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+
+/**
+ * The DAOs used when none are passed in, chosen by db.storage: the shared in-memory store for
+ * "memory", the MariaDB DAOs (with the customer cache) otherwise.
+ */
+public final class DefaultDaos {
+
+    private DefaultDaos() {
+    }
+
+    public static ICustomerDAO customerDAO() {
+        return DatabaseConfig.isInMemoryStorage()
+                ? InMemoryStore.getDefault().customerDAO() : CachingCustomerDAO.getDefault();
+    }
+
+    public static IReadingDAO readingDAO() {
+        return DatabaseConfig.isInMemoryStorage()
+                ? InMemoryStore.getDefault().readingDAO() : new ReadingDAO();
+    }
+}
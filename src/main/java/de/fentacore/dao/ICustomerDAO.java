@@ -1,13 +1,44 @@
 package de.fentacore.dao;
 
 import de.fentacore.interfaces.ICustomer;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
 public interface ICustomerDAO {
     ICustomer create(ICustomer customer);
+
+    /**
+     * Inserts all customers with batched statements, one transaction per db.batch.size rows.
+     * Missing ids are assigned before inserting. Rows rejected by the database are skipped.
+     *
+     * @return number of customers inserted
+     */
+    int createAll(List<? extends ICustomer> customers);
+
+    /**
+     * Stores customers keyed on their id: new ones are inserted, stored ones with other values
+     * are overwritten and equal ones are left alone, with batched
+     * INSERT ... ON DUPLICATE KEY UPDATE statements. Rows rejected by the database are skipped.
+     */
+    UpsertCounts upsertAll(List<? extends ICustomer> customers);
+
     ICustomer findById(UUID id);
     List<ICustomer> findAll();
     boolean update(ICustomer customer);
     boolean delete(UUID id);
+
+    /**
+     * Keyset page of customers ordered by id. Returns up to {@code limit} customers whose id
+     * is greater than {@code after} (null for the first page).
+     */
+    List<ICustomer> findPage(UUID after, int limit);
+
+    /**
+     * Passes every customer to {@code handler} while the result set is still being read,
+     * without buffering the rows.
+     *
+     * @throws IOException if the handler fails or the query breaks off part way through
+     */
+    void streamAll(RowHandler<? super ICustomer> handler) throws IOException;
 }
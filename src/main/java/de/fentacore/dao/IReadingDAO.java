@@ -1,14 +1,57 @@
 package de.fentacore.dao;
 
 import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
 public interface IReadingDAO {
     IReading create(IReading reading);
+
+    /**
+     * Inserts all readings with batched statements, one transaction per db.batch.size rows.
+     * Missing ids are assigned before inserting. Rows rejected by the database are skipped.
+     *
+     * @return number of readings inserted
+     */
+    int createAll(List<? extends IReading> readings);
+
+    /**
+     * Stores readings keyed on meter id, date of reading and customer: new ones are inserted,
+     * stored ones with other values are overwritten and equal ones are left alone, in batches.
+     * A reading that matches a stored one takes over its id. Rows rejected by the database are
+     * skipped, including new ones whose key another writer stored in the meantime.
+     */
+    UpsertCounts upsertAll(List<? extends IReading> readings);
+
     IReading findById(UUID id);
     List<IReading> findAll();
     boolean update(IReading reading);
     boolean delete(UUID id);
     List<IReading> findByCustomerId(UUID customerId);
+    List<IReading> findByCriteria(ReadingCriteria criteria);
+
+    /**
+     * Keyset page of readings matching {@code criteria}, ordered by id. Returns up to
+     * {@code limit} readings whose id is greater than {@code after} (null for the first page).
+     */
+    List<IReading> findPageByCriteria(ReadingCriteria criteria, UUID after, int limit);
+
+    /**
+     * Passes every reading matching {@code criteria} to {@code handler} while the result set is
+     * still being read, without buffering the rows.
+     *
+     * @throws IOException if the handler fails or the query breaks off part way through
+     */
+    void streamByCriteria(ReadingCriteria criteria, RowHandler<? super IReading> handler) throws IOException;
+
+    /**
+     * Consumption per meter and period, computed in the database from the differences between
+     * consecutive meter counts of each meter and customer (a new tenant starts from their own
+     * first reading). The start date of {@code criteria} limits the later reading of each pair,
+     * so the first period in range still counts from the reading before it. Ordered by meter id
+     * and period.
+     */
+    List<ConsumptionPeriod> findConsumption(ReadingCriteria criteria, ConsumptionInterval interval);
 }
@@ -0,0 +1,68 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * The 'imported_files' table: content hashes of CSV files that were imported from a directory
+ * or archive. A file is claimed before its import starts, so two imports running at the same
+ * time never load the same content twice, and released again if the import fails.
+ * <p>
+ * A claim whose import was cut short by a crash keeps imported_rows NULL; delete that row to
+ * import the file again.
+ */
+public class ImportedFileDAO {
+
+    /**
+     * @return true if the hash was not recorded yet and now belongs to the caller, false if
+     *         the same content was imported (or is being imported) already
+     */
+    public boolean claim(byte[] contentHash, String source) {
+        String sql = "INSERT IGNORE INTO imported_files (content_hash, source) VALUES (?, ?)";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBytes(1, contentHash);
+            stmt.setString(2, truncate(source));
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to record imported file " + source, e);
+        }
+    }
+
+    public boolean complete(byte[] contentHash, long importedRows) {
+        String sql = "UPDATE imported_files SET imported_rows = ?, imported_at = CURRENT_TIMESTAMP WHERE content_hash = ?";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, importedRows);
+            stmt.setBytes(2, contentHash);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public boolean release(byte[] contentHash) {
+        String sql = "DELETE FROM imported_files WHERE content_hash = ?";
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBytes(1, contentHash);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Keeps the end of long paths, which names the file
+    private static String truncate(String source) {
+        return source.length() <= 1024 ? source : source.substring(source.length() - 1024);
+    }
+}
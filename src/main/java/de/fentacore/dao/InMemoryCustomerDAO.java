@@ -0,0 +1,181 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.Customer;
+import de.fentacore.utils.Uuids;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * {@link ICustomerDAO} over an {@link InMemoryStore}. Customers are copied on the way in and
+ * out, so callers may modify what they pass and get freely.
+ */
+public class InMemoryCustomerDAO implements ICustomerDAO {
+
+    private final InMemoryStore store;
+
+    public InMemoryCustomerDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public ICustomer create(ICustomer customer) {
+        UUID newId = (customer.getId() == null) ? Uuids.timeOrdered() : customer.getId();
+        if (!insert(customer, newId)) {
+            return null;
+        }
+        customer.setId(newId);
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        return customer;
+    }
+
+    @Override
+    public int createAll(List<? extends ICustomer> customers) {
+        if (customers == null) {
+            return 0;
+        }
+        int inserted = 0;
+        for (ICustomer customer : customers) {
+            if (customer.getId() == null) {
+                customer.setId(Uuids.timeOrdered());
+            }
+            if (insert(customer, customer.getId())) {
+                inserted++;
+            }
+        }
+        if (inserted > 0) {
+            ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        }
+        return inserted;
+    }
+
+    // Same constraints as the table: names are required and ids unique
+    private boolean insert(ICustomer customer, UUID id) {
+        if (!isValid(customer)) {
+            return false;
+        }
+        synchronized (store.writeLock) {
+            return store.customers.putIfAbsent(id, copyOf(customer, id)) == null;
+        }
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends ICustomer> customers) {
+        if (customers == null || customers.isEmpty()) {
+            return new UpsertCounts(0, 0, 0);
+        }
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        synchronized (store.writeLock) {
+            for (ICustomer customer : customers) {
+                if (customer.getId() == null) {
+                    customer.setId(Uuids.timeOrdered());
+                }
+                if (!isValid(customer)) {
+                    continue;
+                }
+                Customer before = store.customers.put(customer.getId(), copyOf(customer, customer.getId()));
+                if (before == null) {
+                    inserted++;
+                } else if (sameValues(before, customer)) {
+                    unchanged++;
+                } else {
+                    updated++;
+                }
+            }
+        }
+        if (inserted + updated > 0) {
+            ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        }
+        return new UpsertCounts(inserted, updated, unchanged);
+    }
+
+    @Override
+    public ICustomer findById(UUID id) {
+        Customer customer = id != null ? store.customers.get(id) : null;
+        return customer != null ? copyOf(customer, id) : null;
+    }
+
+    @Override
+    public List<ICustomer> findAll() {
+        List<ICustomer> customers = new ArrayList<>(store.customers.size());
+        for (Customer customer : store.customers.values()) {
+            customers.add(copyOf(customer, customer.getId()));
+        }
+        return customers;
+    }
+
+    @Override
+    public boolean update(ICustomer customer) {
+        if (customer.getId() == null || !isValid(customer)) {
+            return false;
+        }
+        synchronized (store.writeLock) {
+            if (store.customers.replace(customer.getId(), copyOf(customer, customer.getId())) == null) {
+                return false;
+            }
+        }
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        return true;
+    }
+
+    // Like the foreign key from readings, a customer with readings cannot be deleted
+    @Override
+    public boolean delete(UUID id) {
+        synchronized (store.writeLock) {
+            if (id == null || store.hasReadings(id) || store.customers.remove(id) == null) {
+                return false;
+            }
+        }
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        return true;
+    }
+
+    @Override
+    public List<ICustomer> findPage(UUID after, int limit) {
+        Map<UUID, Customer> tail = after != null ? store.customers.tailMap(after, false) : store.customers;
+        List<ICustomer> customers = new ArrayList<>(Math.min(limit, 1024));
+        for (Customer customer : tail.values()) {
+            if (customers.size() >= limit) {
+                break;
+            }
+            customers.add(copyOf(customer, customer.getId()));
+        }
+        return customers;
+    }
+
+    @Override
+    public void streamAll(RowHandler<? super ICustomer> handler) throws IOException {
+        for (Customer customer : store.customers.values()) {
+            handler.handle(copyOf(customer, customer.getId()));
+        }
+    }
+
+    private static boolean isValid(ICustomer customer) {
+        return customer.getFirstName() != null && customer.getLastName() != null;
+    }
+
+    private static boolean sameValues(ICustomer a, ICustomer b) {
+        return Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getBirthDate(), b.getBirthDate())
+                && a.getGender() == b.getGender();
+    }
+
+    static Customer copyOf(ICustomer customer, UUID id) {
+        Customer copy = new Customer();
+        copy.setId(id);
+        copy.setFirstName(customer.getFirstName());
+        copy.setLastName(customer.getLastName());
+        copy.setBirthDate(customer.getBirthDate());
+        copy.setGender(customer.getGender());
+        return copy;
+    }
+}
@@ -0,0 +1,403 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.dao.InMemoryStore.DateKey;
+import de.fentacore.dao.InMemoryStore.StoredReading;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
+import de.fentacore.model.Customer;
+import de.fentacore.utils.Uuids;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * {@link IReadingDAO} over an {@link InMemoryStore}. Queries start from the most selective
+ * index the criteria allow (meter, then customer, then date range) and filter the rest; the
+ * readings come back joined with a copy of their customer, as from the database.
+ * Consumption is computed from the readings on every call, there is no rollup to maintain.
+ */
+public class InMemoryReadingDAO implements IReadingDAO {
+
+    private static final Comparator<StoredReading> BY_DATE_AND_ID = Comparator
+            .comparing((StoredReading reading) -> reading.dateOfReading)
+            .thenComparing(reading -> reading.id, InMemoryStore.ID_ORDER);
+
+    private final InMemoryStore store;
+
+    public InMemoryReadingDAO(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public IReading create(IReading reading) {
+        UUID newId = (reading.getId() == null) ? Uuids.timeOrdered() : reading.getId();
+        synchronized (store.writeLock) {
+            if (!insert(reading, newId)) {
+                return null;
+            }
+        }
+        reading.setId(newId);
+        ChangeTracker.markChanged(ChangeTracker.READINGS);
+        return reading;
+    }
+
+    @Override
+    public int createAll(List<? extends IReading> readings) {
+        if (readings == null) {
+            return 0;
+        }
+        int inserted = 0;
+        synchronized (store.writeLock) {
+            for (IReading reading : readings) {
+                if (reading.getId() == null) {
+                    reading.setId(Uuids.timeOrdered());
+                }
+                if (insert(reading, reading.getId())) {
+                    inserted++;
+                }
+            }
+        }
+        if (inserted > 0) {
+            ChangeTracker.markChanged(ChangeTracker.READINGS);
+        }
+        return inserted;
+    }
+
+    // Callers hold the write lock. Same constraints as the table: unique id, an existing
+    // customer and one reading per meter, day and customer
+    private boolean insert(IReading reading, UUID id) {
+        if (!hasKnownCustomer(reading) || store.readings.containsKey(id)
+                || findSameKey(reading) != null) {
+            return false;
+        }
+        store.putReading(StoredReading.of(reading, id));
+        return true;
+    }
+
+    private StoredReading findSameKey(IReading reading) {
+        return store.findByNaturalKey(reading.getMeterId(), reading.getDateOfReading(),
+                reading.getCustomer() != null ? reading.getCustomer().getId() : null);
+    }
+
+    private boolean hasKnownCustomer(IReading reading) {
+        return reading.getCustomer() != null && reading.getCustomer().getId() != null
+                && store.customers.containsKey(reading.getCustomer().getId());
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends IReading> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return new UpsertCounts(0, 0, 0);
+        }
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        synchronized (store.writeLock) {
+            for (IReading reading : readings) {
+                StoredReading before = findSameKey(reading);
+                if (before == null) {
+                    if (reading.getId() == null) {
+                        reading.setId(Uuids.timeOrdered());
+                    }
+                    if (insert(reading, reading.getId())) {
+                        inserted++;
+                    }
+                    continue;
+                }
+                reading.setId(before.id);
+                if (!hasKnownCustomer(reading)) {
+                    continue;
+                }
+                StoredReading after = StoredReading.of(reading, before.id);
+                if (after.sameValues(before)) {
+                    unchanged++;
+                } else {
+                    store.replaceReading(after);
+                    updated++;
+                }
+            }
+        }
+        if (inserted + updated > 0) {
+            ChangeTracker.markChanged(ChangeTracker.READINGS);
+        }
+        return new UpsertCounts(inserted, updated, unchanged);
+    }
+
+    @Override
+    public IReading findById(UUID id) {
+        StoredReading reading = id != null ? store.readings.get(id) : null;
+        return reading != null ? join(reading, new HashMap<>()) : null;
+    }
+
+    @Override
+    public List<IReading> findAll() {
+        return findByCriteria(null);
+    }
+
+    @Override
+    public boolean update(IReading reading) {
+        if (reading.getId() == null) {
+            return false;
+        }
+        synchronized (store.writeLock) {
+            StoredReading before = store.readings.get(reading.getId());
+            StoredReading sameKey = findSameKey(reading);
+            if (before == null || !hasKnownCustomer(reading) || (sameKey != null && sameKey != before)) {
+                return false;
+            }
+            store.replaceReading(StoredReading.of(reading, before.id));
+        }
+        ChangeTracker.markChanged(ChangeTracker.READINGS);
+        return true;
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+        synchronized (store.writeLock) {
+            if (id == null || store.removeReading(id) == null) {
+                return false;
+            }
+        }
+        ChangeTracker.markChanged(ChangeTracker.READINGS);
+        return true;
+    }
+
+    @Override
+    public List<IReading> findByCustomerId(UUID customerId) {
+        ReadingCriteria criteria = new ReadingCriteria();
+        criteria.setCustomerId(customerId);
+        return findByCriteria(criteria);
+    }
+
+    @Override
+    public List<IReading> findByCriteria(ReadingCriteria criteria) {
+        List<IReading> readings = new ArrayList<>();
+        Map<UUID, ICustomer> customers = new HashMap<>();
+        for (StoredReading reading : match(criteria)) {
+            readings.add(join(reading, customers));
+        }
+        return readings;
+    }
+
+    @Override
+    public List<IReading> findPageByCriteria(ReadingCriteria criteria, UUID after, int limit) {
+        List<StoredReading> page = new ArrayList<>();
+        Iterable<UUID> ids = idsFor(criteria, after);
+        if (ids != null) {
+            // One customer's or meter's ids from the cursor on; other filters are checked per row
+            for (UUID id : ids) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                StoredReading reading = store.readings.get(id);
+                if (reading != null && matches(reading, criteria)) {
+                    page.add(reading);
+                }
+            }
+        } else if (indexFor(criteria) == null) {
+            // Walk the primary key from the cursor on, like the keyset query
+            Iterable<StoredReading> tail = after != null
+                    ? store.readings.tailMap(after, false).values() : store.readings.values();
+            for (StoredReading reading : tail) {
+                if (page.size() >= limit) {
+                    break;
+                }
+                if (matches(reading, criteria)) {
+                    page.add(reading);
+                }
+            }
+        } else {
+            // Only a date range: its index is in date order, so keep the lowest ids past the
+            // cursor in a heap of at most limit rows instead of sorting every match
+            Comparator<StoredReading> byId = Comparator.comparing((StoredReading reading) -> reading.id, InMemoryStore.ID_ORDER);
+            PriorityQueue<StoredReading> lowest = new PriorityQueue<>(byId.reversed());
+            for (DateKey key : indexFor(criteria)) {
+                if (after != null && InMemoryStore.ID_ORDER.compare(key.id, after) <= 0) {
+                    continue;
+                }
+                if (!lowest.isEmpty() && lowest.size() >= limit && InMemoryStore.ID_ORDER.compare(key.id, lowest.peek().id) > 0) {
+                    continue;
+                }
+                StoredReading reading = store.readings.get(key.id);
+                if (reading != null && matches(reading, criteria)) {
+                    lowest.add(reading);
+                    if (lowest.size() > limit) {
+                        lowest.poll();
+                    }
+                }
+            }
+            page.addAll(lowest);
+            page.sort(byId);
+        }
+
+        List<IReading> readings = new ArrayList<>(page.size());
+        Map<UUID, ICustomer> customers = new HashMap<>();
+        for (StoredReading reading : page) {
+            readings.add(join(reading, customers));
+        }
+        return readings;
+    }
+
+    @Override
+    public void streamByCriteria(ReadingCriteria criteria, RowHandler<? super IReading> handler) throws IOException {
+        Map<UUID, ICustomer> customers = new HashMap<>();
+        for (StoredReading reading : match(criteria)) {
+            handler.handle(join(reading, customers));
+        }
+    }
+
+    @Override
+    public List<ConsumptionPeriod> findConsumption(ReadingCriteria criteria, ConsumptionInterval interval) {
+        // As in SQL: the start bound and the kind of meter apply to the later reading of each
+        // pair, so the reading before it still counts; every other filter narrows the readings
+        ReadingCriteria meters = new ReadingCriteria();
+        if (criteria != null) {
+            meters.setCustomerId(criteria.getCustomerId());
+            meters.setEndDate(criteria.getEndDate());
+            meters.setMeterId(criteria.getMeterId());
+            meters.setSubstitute(criteria.getSubstitute());
+        }
+        LocalDate start = criteria != null ? criteria.getStartDate() : null;
+        IReading.KindOfMeter kind = criteria != null ? criteria.getKindOfMeter() : null;
+
+        Map<List<Object>, List<StoredReading>> series = new HashMap<>();
+        for (StoredReading reading : match(meters)) {
+            if (reading.meterId != null && reading.dateOfReading != null) {
+                series.computeIfAbsent(List.of(reading.meterId, reading.customerId), key -> new ArrayList<>()).add(reading);
+            }
+        }
+
+        Map<List<Object>, ConsumptionPeriod> periods = new LinkedHashMap<>();
+        for (List<StoredReading> readings : series.values()) {
+            readings.sort(BY_DATE_AND_ID);
+            for (int i = 1; i < readings.size(); i++) {
+                StoredReading reading = readings.get(i);
+                if ((start != null && reading.dateOfReading.isBefore(start))
+                        || (kind != null && kind != reading.kindOfMeter)) {
+                    continue;
+                }
+                String label = label(reading.dateOfReading, interval);
+                ConsumptionPeriod period = periods.computeIfAbsent(
+                        Arrays.asList(reading.meterId, reading.kindOfMeter, label), key -> {
+                            ConsumptionPeriod p = new ConsumptionPeriod();
+                            p.setMeterId(reading.meterId);
+                            p.setKindOfMeter(reading.kindOfMeter);
+                            p.setPeriod(label);
+                            return p;
+                        });
+                period.setConsumption(period.getConsumption() + reading.meterCount - readings.get(i - 1).meterCount);
+                period.setIntervals(period.getIntervals() + 1);
+            }
+        }
+
+        List<ConsumptionPeriod> result = new ArrayList<>(periods.values());
+        result.sort(Comparator.comparing(ConsumptionPeriod::getMeterId)
+                .thenComparing(ConsumptionPeriod::getPeriod)
+                .thenComparing(ConsumptionPeriod::getKindOfMeter, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    // Same labels as DATE_FORMAT with the interval's pattern
+    private static String label(LocalDate date, ConsumptionInterval interval) {
+        switch (interval) {
+            case DAY:
+                return String.format("%04d-%02d-%02d", date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            case MONTH:
+                return String.format("%04d-%02d", date.getYear(), date.getMonthValue());
+            default:
+                return String.format("%04d", date.getYear());
+        }
+    }
+
+    private List<StoredReading> match(ReadingCriteria criteria) {
+        Iterable<DateKey> keys = indexFor(criteria);
+        List<StoredReading> readings = new ArrayList<>();
+        if (keys == null) {
+            for (StoredReading reading : store.readings.values()) {
+                if (matches(reading, criteria)) {
+                    readings.add(reading);
+                }
+            }
+            return readings;
+        }
+        for (DateKey key : keys) {
+            // An index key may briefly outlive the reading or its old values; matches re-checks
+            StoredReading reading = store.readings.get(key.id);
+            if (reading != null && matches(reading, criteria)) {
+                readings.add(reading);
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * Ids after {@code after} in id order covering every reading that can match, or null if
+     * neither a customer nor a meter is given.
+     */
+    private Iterable<UUID> idsFor(ReadingCriteria criteria, UUID after) {
+        if (criteria == null) {
+            return null;
+        }
+        if (criteria.getMeterId() != null) {
+            return store.idsByMeter(criteria.getMeterId(), after);
+        }
+        if (criteria.getCustomerId() != null) {
+            return store.idsByCustomer(criteria.getCustomerId(), after);
+        }
+        return null;
+    }
+
+    /**
+     * Index keys covering every reading that can match, or null if only a full scan can.
+     */
+    private Iterable<DateKey> indexFor(ReadingCriteria criteria) {
+        if (criteria == null) {
+            return null;
+        }
+        LocalDate start = criteria.getStartDate();
+        LocalDate end = criteria.getEndDate();
+        if (criteria.getMeterId() != null) {
+            return store.byMeter(criteria.getMeterId(), start, end);
+        }
+        if (criteria.getCustomerId() != null) {
+            return store.byCustomer(criteria.getCustomerId(), start, end);
+        }
+        if (start != null || end != null) {
+            return store.byDate(start, end);
+        }
+        return null;
+    }
+
+    private static boolean matches(StoredReading reading, ReadingCriteria criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        LocalDate date = reading.dateOfReading;
+        return (criteria.getCustomerId() == null || criteria.getCustomerId().equals(reading.customerId))
+                && (criteria.getStartDate() == null || (date != null && !date.isBefore(criteria.getStartDate())))
+                && (criteria.getEndDate() == null || (date != null && !date.isAfter(criteria.getEndDate())))
+                && (criteria.getKindOfMeter() == null || criteria.getKindOfMeter() == reading.kindOfMeter)
+                && (criteria.getMeterId() == null || criteria.getMeterId().equals(reading.meterId))
+                && (criteria.getSubstitute() == null || criteria.getSubstitute() == reading.substitute);
+    }
+
+    // {@code customers} is scoped to one call, so readings of one customer share the instance
+    private IReading join(StoredReading reading, Map<UUID, ICustomer> customers) {
+        ICustomer customer = customers.computeIfAbsent(reading.customerId, id -> {
+            Customer stored = store.customers.get(id);
+            return stored != null ? InMemoryCustomerDAO.copyOf(stored, id) : null;
+        });
+        return reading.toReading(customer);
+    }
+}
@@ -0,0 +1,529 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.Customer;
+import de.fentacore.model.Reading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Customers and readings held in this process instead of MariaDB (db.storage=memory), for
+ * edge deployments and load tests. {@link InMemoryCustomerDAO} and {@link InMemoryReadingDAO}
+ * read and write it with the same rules the schema enforces: readings need an existing
+ * customer, a customer with readings cannot be deleted, and a meter has one reading per day
+ * and customer.
+ * <p>
+ * Rows live in concurrent maps keyed and sorted by id (keyset pages), and readings are also
+ * indexed per customer, per meter and by date as (date, id) keys, so date ranges are scanned
+ * as sub-sets. Per customer and per meter they are indexed by id as well, so a page of one
+ * customer's or meter's readings starts at its cursor. Reads take no lock and re-check every
+ * row they get from an index. Writes are serialised on one lock, which keeps the maps and
+ * indexes consistent with each other.
+ * <p>
+ * The data can be written to a snapshot file (db.memory.snapshotFile) on demand and at
+ * shutdown, and is loaded from it when the store is created.
+ */
+public final class InMemoryStore {
+
+    // Unsigned, as MariaDB orders BINARY(16) keys, so pages come in the same order
+    static final Comparator<UUID> ID_ORDER = (a, b) -> {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+    static final UUID MIN_ID = new UUID(0L, 0L);
+    static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private static final int SNAPSHOT_MAGIC = 0x48565331; // "HVS1"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static volatile InMemoryStore defaultInstance;
+
+    final ConcurrentSkipListMap<UUID, Customer> customers = new ConcurrentSkipListMap<>(ID_ORDER);
+    final ConcurrentSkipListMap<UUID, StoredReading> readings = new ConcurrentSkipListMap<>(ID_ORDER);
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListSet<DateKey>> readingsByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<DateKey>> readingsByMeter = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<DateKey> readingsByDate = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListSet<UUID>> readingIdsByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<UUID>> readingIdsByMeter = new ConcurrentHashMap<>();
+
+    // Held by every write and by snapshots
+    final Object writeLock = new Object();
+
+    private final Path snapshotFile;
+
+    /**
+     * @param snapshotFile where {@link #saveSnapshot()} writes to, or null to keep the data in
+     *                     memory only
+     */
+    public InMemoryStore(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Shared store for db.storage=memory, loaded from db.memory.snapshotFile if that exists.
+     */
+    public static InMemoryStore getDefault() {
+        InMemoryStore store = defaultInstance;
+        if (store == null) {
+            synchronized (InMemoryStore.class) {
+                store = defaultInstance;
+                if (store == null) {
+                    String file = DatabaseConfig.getMemorySnapshotFile();
+                    store = new InMemoryStore(file.isEmpty() ? null : Paths.get(file));
+                    try {
+                        store.loadSnapshot();
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to load snapshot " + file, e);
+                    }
+                    defaultInstance = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    public ICustomerDAO customerDAO() {
+        return new InMemoryCustomerDAO(this);
+    }
+
+    public IReadingDAO readingDAO() {
+        return new InMemoryReadingDAO(this);
+    }
+
+    /**
+     * Removes all customers and readings, like dropping and recreating the tables.
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            readings.clear();
+            readingsByCustomer.clear();
+            readingsByMeter.clear();
+            readingsByDate.clear();
+            readingIdsByCustomer.clear();
+            readingIdsByMeter.clear();
+            customers.clear();
+        }
+        ChangeTracker.markAllReset();
+    }
+
+    /**
+     * Writes all customers and readings to the snapshot file, replacing it atomically once
+     * complete. Writes wait while the snapshot is taken; reads do not.
+     *
+     * @return number of rows written, or -1 if no snapshot file is configured
+     */
+    public long saveSnapshot() throws IOException {
+        if (snapshotFile == null) {
+            return -1;
+        }
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        long rows;
+        synchronized (writeLock) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(customers.size());
+                for (Customer customer : customers.values()) {
+                    writeUuid(out, customer.getId());
+                    writeString(out, customer.getFirstName());
+                    writeString(out, customer.getLastName());
+                    writeDate(out, customer.getBirthDate());
+                    out.writeByte(customer.getGender() != null ? customer.getGender().ordinal() : -1);
+                }
+                out.writeInt(readings.size());
+                for (StoredReading reading : readings.values()) {
+                    writeUuid(out, reading.id);
+                    writeUuid(out, reading.customerId);
+                    writeString(out, reading.comment);
+                    writeDate(out, reading.dateOfReading);
+                    out.writeByte(reading.kindOfMeter != null ? reading.kindOfMeter.ordinal() : -1);
+                    out.writeDouble(reading.meterCount);
+                    writeString(out, reading.meterId);
+                    out.writeBoolean(reading.substitute);
+                }
+            }
+            rows = (long) customers.size() + readings.size();
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    /**
+     * Replaces the contents with the snapshot file, if one is configured and exists.
+     *
+     * @return true if a snapshot was loaded
+     */
+    public boolean loadSnapshot() throws IOException {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+        synchronized (writeLock) {
+            clear();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                    throw new IOException("Not a snapshot of this version: " + snapshotFile);
+                }
+                ICustomer.Gender[] genders = ICustomer.Gender.values();
+                for (int i = in.readInt(); i > 0; i--) {
+                    Customer customer = new Customer();
+                    customer.setId(readUuid(in));
+                    customer.setFirstName(readString(in));
+                    customer.setLastName(readString(in));
+                    customer.setBirthDate(readDate(in));
+                    byte gender = in.readByte();
+                    customer.setGender(gender >= 0 ? genders[gender] : null);
+                    customers.put(customer.getId(), customer);
+                }
+                IReading.KindOfMeter[] kinds = IReading.KindOfMeter.values();
+                for (int i = in.readInt(); i > 0; i--) {
+                    UUID id = readUuid(in);
+                    UUID customerId = readUuid(in);
+                    String comment = readString(in);
+                    LocalDate date = readDate(in);
+                    byte kind = in.readByte();
+                    double meterCount = in.readDouble();
+                    String meterId = readString(in);
+                    boolean substitute = in.readBoolean();
+                    putReading(new StoredReading(id, customerId, comment, date, kind >= 0 ? kinds[kind] : null,
+                            meterCount, meterId, substitute));
+                }
+            } catch (IOException | RuntimeException e) {
+                clear();
+                throw e;
+            }
+        }
+        ChangeTracker.markAllReset();
+        return true;
+    }
+
+    // Callers hold writeLock; a stored reading is changed with replaceReading
+    void putReading(StoredReading reading) {
+        readings.put(reading.id, reading);
+        addKeys(reading);
+    }
+
+    private void addKeys(StoredReading reading) {
+        DateKey key = new DateKey(reading.dateOfReading, reading.id);
+        addKey(readingsByCustomer, reading.customerId, key);
+        addId(readingIdsByCustomer, reading.customerId, reading.id);
+        if (reading.meterId != null) {
+            addKey(readingsByMeter, reading.meterId, key);
+            addId(readingIdsByMeter, reading.meterId, reading.id);
+        }
+        readingsByDate.add(key);
+    }
+
+    /**
+     * Swaps a stored reading for {@code after} (same id) in place, so concurrent reads see the
+     * old or the new row but never none. Index keys are only touched where the customer, meter
+     * or date changed, and the new ones are added before the old ones go. Callers hold writeLock.
+     */
+    void replaceReading(StoredReading after) {
+        StoredReading before = readings.put(after.id, after);
+        if (before == null) {
+            addKeys(after);
+            return;
+        }
+        DateKey oldKey = new DateKey(before.dateOfReading, before.id);
+        DateKey newKey = new DateKey(after.dateOfReading, after.id);
+        boolean sameDate = oldKey.equals(newKey);
+        boolean sameCustomer = before.customerId.equals(after.customerId);
+        boolean sameMeter = Objects.equals(before.meterId, after.meterId);
+        if (!sameDate || !sameCustomer) {
+            addKey(readingsByCustomer, after.customerId, newKey);
+            removeKey(readingsByCustomer, before.customerId, oldKey);
+        }
+        if (!sameCustomer) {
+            addId(readingIdsByCustomer, after.customerId, after.id);
+            removeId(readingIdsByCustomer, before.customerId, before.id);
+        }
+        if (!sameDate || !sameMeter) {
+            if (after.meterId != null) {
+                addKey(readingsByMeter, after.meterId, newKey);
+            }
+            if (before.meterId != null) {
+                removeKey(readingsByMeter, before.meterId, oldKey);
+            }
+        }
+        if (!sameMeter) {
+            if (after.meterId != null) {
+                addId(readingIdsByMeter, after.meterId, after.id);
+            }
+            if (before.meterId != null) {
+                removeId(readingIdsByMeter, before.meterId, before.id);
+            }
+        }
+        if (!sameDate) {
+            readingsByDate.add(newKey);
+            readingsByDate.remove(oldKey);
+        }
+    }
+
+    // Callers hold writeLock
+    StoredReading removeReading(UUID id) {
+        StoredReading reading = readings.remove(id);
+        if (reading != null) {
+            DateKey key = new DateKey(reading.dateOfReading, reading.id);
+            removeKey(readingsByCustomer, reading.customerId, key);
+            removeId(readingIdsByCustomer, reading.customerId, reading.id);
+            if (reading.meterId != null) {
+                removeKey(readingsByMeter, reading.meterId, key);
+                removeId(readingIdsByMeter, reading.meterId, reading.id);
+            }
+            readingsByDate.remove(key);
+        }
+        return reading;
+    }
+
+    private static <K> void addKey(ConcurrentHashMap<K, ConcurrentSkipListSet<DateKey>> index, K indexKey, DateKey key) {
+        index.computeIfAbsent(indexKey, k -> new ConcurrentSkipListSet<>()).add(key);
+    }
+
+    private static <K> void removeKey(ConcurrentHashMap<K, ConcurrentSkipListSet<DateKey>> index, K indexKey, DateKey key) {
+        ConcurrentSkipListSet<DateKey> keys = index.get(indexKey);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                index.remove(indexKey);
+            }
+        }
+    }
+
+    private static <K> void addId(ConcurrentHashMap<K, ConcurrentSkipListSet<UUID>> index, K indexKey, UUID id) {
+        index.computeIfAbsent(indexKey, k -> new ConcurrentSkipListSet<>(ID_ORDER)).add(id);
+    }
+
+    private static <K> void removeId(ConcurrentHashMap<K, ConcurrentSkipListSet<UUID>> index, K indexKey, UUID id) {
+        ConcurrentSkipListSet<UUID> ids = index.get(indexKey);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(indexKey);
+            }
+        }
+    }
+
+    boolean hasReadings(UUID customerId) {
+        ConcurrentSkipListSet<DateKey> keys = readingsByCustomer.get(customerId);
+        return keys != null && !keys.isEmpty();
+    }
+
+    /**
+     * The reading of {@code meterId} on {@code date} for {@code customerId}, the unique key of
+     * readings.
+     */
+    StoredReading findByNaturalKey(String meterId, LocalDate date, UUID customerId) {
+        if (meterId == null || date == null || customerId == null) {
+            return null;
+        }
+        for (DateKey key : keys(readingsByMeter.get(meterId), date, date)) {
+            StoredReading reading = readings.get(key.id);
+            if (reading != null && meterId.equals(reading.meterId) && date.equals(reading.dateOfReading)
+                    && customerId.equals(reading.customerId)) {
+                return reading;
+            }
+        }
+        return null;
+    }
+
+    NavigableSet<DateKey> byCustomer(UUID customerId, LocalDate start, LocalDate end) {
+        return keys(readingsByCustomer.get(customerId), start, end);
+    }
+
+    NavigableSet<DateKey> byMeter(String meterId, LocalDate start, LocalDate end) {
+        return keys(readingsByMeter.get(meterId), start, end);
+    }
+
+    NavigableSet<DateKey> byDate(LocalDate start, LocalDate end) {
+        return keys(readingsByDate, start, end);
+    }
+
+    /**
+     * Ids of {@code customerId}'s readings after {@code after} (from the first if null), in id order.
+     */
+    NavigableSet<UUID> idsByCustomer(UUID customerId, UUID after) {
+        return idsAfter(readingIdsByCustomer.get(customerId), after);
+    }
+
+    /**
+     * Ids of {@code meterId}'s readings after {@code after} (from the first if null), in id order.
+     */
+    NavigableSet<UUID> idsByMeter(String meterId, UUID after) {
+        return idsAfter(readingIdsByMeter.get(meterId), after);
+    }
+
+    private static NavigableSet<UUID> idsAfter(NavigableSet<UUID> ids, UUID after) {
+        if (ids == null) {
+            return Collections.emptyNavigableSet();
+        }
+        return after != null ? ids.tailSet(after, false) : ids;
+    }
+
+    // A date bound excludes readings without a date, as it does in SQL
+    private static NavigableSet<DateKey> keys(NavigableSet<DateKey> keys, LocalDate start, LocalDate end) {
+        if (keys == null) {
+            return Collections.emptyNavigableSet();
+        }
+        if (start == null && end == null) {
+            return keys;
+        }
+        return keys.subSet(new DateKey(start != null ? start : LocalDate.MIN, MIN_ID), true,
+                new DateKey(end != null ? end : LocalDate.MAX, MAX_ID), true);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    /**
+     * A reading as the readings table stores it: the customer by id, a missing count as 0
+     * and a missing substitute flag as false.
+     */
+    static final class StoredReading {
+        final UUID id;
+        final UUID customerId;
+        final String comment;
+        final LocalDate dateOfReading;
+        final IReading.KindOfMeter kindOfMeter;
+        final double meterCount;
+        final String meterId;
+        final boolean substitute;
+
+        StoredReading(UUID id, UUID customerId, String comment, LocalDate dateOfReading,
+                      IReading.KindOfMeter kindOfMeter, double meterCount, String meterId, boolean substitute) {
+            this.id = id;
+            this.customerId = customerId;
+            this.comment = comment;
+            this.dateOfReading = dateOfReading;
+            this.kindOfMeter = kindOfMeter;
+            this.meterCount = meterCount;
+            this.meterId = meterId;
+            this.substitute = substitute;
+        }
+
+        static StoredReading of(IReading reading, UUID id) {
+            return new StoredReading(id, reading.getCustomer().getId(), reading.getComment(), reading.getDateOfReading(),
+                    reading.getKindOfMeter(), reading.getMeterCount() != null ? reading.getMeterCount() : 0.0,
+                    reading.getMeterId(), reading.getSubstitute() != null && reading.getSubstitute());
+        }
+
+        boolean sameValues(StoredReading other) {
+            return Objects.equals(customerId, other.customerId)
+                    && Objects.equals(comment, other.comment)
+                    && Objects.equals(dateOfReading, other.dateOfReading)
+                    && kindOfMeter == other.kindOfMeter
+                    && meterCount == other.meterCount
+                    && Objects.equals(meterId, other.meterId)
+                    && substitute == other.substitute;
+        }
+
+        /**
+         * A new Reading joined with {@code customer}, which may be null.
+         */
+        Reading toReading(ICustomer customer) {
+            Reading reading = new Reading();
+            reading.setId(id);
+            reading.setCustomer(customer);
+            reading.setComment(comment);
+            reading.setDateOfReading(dateOfReading);
+            reading.setKindOfMeter(kindOfMeter);
+            reading.setMeterCount(meterCount);
+            reading.setMeterId(meterId);
+            reading.setSubstitute(substitute);
+            return reading;
+        }
+    }
+
+    /**
+     * Index entry ordered by date (readings without a date first), then id.
+     */
+    static final class DateKey implements Comparable<DateKey> {
+        private static final Comparator<DateKey> ORDER = Comparator
+                .comparing((DateKey key) -> key.date, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(key -> key.id, ID_ORDER);
+
+        final LocalDate date;
+        final UUID id;
+
+        DateKey(LocalDate date, UUID id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(DateKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DateKey && compareTo((DateKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, id);
+        }
+    }
+}
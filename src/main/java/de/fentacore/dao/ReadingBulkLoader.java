@@ -0,0 +1,208 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.utils.Uuids;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores readings with LOAD DATA LOCAL INFILE: the rows are written as tab-separated text in
+ * the column order of the 'readings' table and streamed to the server from memory, one
+ * statement per db.bulk.rows rows, which parses them much faster than bound INSERTs.
+ * <p>
+ * If the server or driver does not allow LOCAL INFILE, this loader switches to the fallback
+ * DAO for good. A chunk that fails for another reason is retried through the fallback, so bad
+ * rows are skipped one by one as with batched inserts. Unlike INSERT, LOAD DATA LOCAL turns
+ * duplicate keys and over-long comments into warnings: such rows are skipped or truncated.
+ */
+public class ReadingBulkLoader {
+
+    // ER_NOT_ALLOWED_COMMAND, ER_LOAD_INFILE_CAPABILITY_DISABLED (MariaDB), ER_CLIENT_LOCAL_FILES_DISABLED (MySQL)
+    private static final int[] REFUSED_ERRORS = {1148, 4166, 3948};
+
+    private static final boolean BINARY = DatabaseConfig.isBinaryUuidStorage();
+
+    private final IReadingDAO fallback;
+    // Null for the application's pool
+    private final DataSource dataSource;
+    private final String sql;
+    private volatile boolean refused;
+
+    public ReadingBulkLoader(IReadingDAO fallback) {
+        this(fallback, null);
+    }
+
+    /**
+     * @param dataSource where the LOAD DATA statements run, or null for the application's pool
+     */
+    public ReadingBulkLoader(IReadingDAO fallback, DataSource dataSource) {
+        this.fallback = fallback;
+        this.dataSource = dataSource;
+        // Binary ids travel as hex text and are converted on the server
+        this.sql = "LOAD DATA LOCAL INFILE 'readings.tsv' INTO TABLE readings CHARACTER SET utf8mb4 " +
+                "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' " +
+                (BINARY
+                        ? "(@id, @customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
+                          "SET id = UNHEX(@id), customer_id = UNHEX(@customer_id)"
+                        : "(id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute)");
+    }
+
+    /**
+     * False once the server refused LOCAL INFILE; all rows then go to the fallback DAO.
+     */
+    public boolean isBulkLoading() {
+        return !refused;
+    }
+
+    /**
+     * @return number of rows stored
+     */
+    public int createAll(List<? extends IReading> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return 0;
+        }
+        if (refused) {
+            return fallback.createAll(readings);
+        }
+        for (IReading reading : readings) {
+            if (reading.getId() == null) {
+                reading.setId(Uuids.timeOrdered());
+            }
+        }
+
+        int chunkSize = DatabaseConfig.getBulkLoadRows();
+        int loaded = 0;
+        StringBuilder tsv = new StringBuilder();
+        for (int from = 0; from < readings.size(); from += chunkSize) {
+            List<? extends IReading> chunk = readings.subList(from, Math.min(from + chunkSize, readings.size()));
+            if (refused) {
+                loaded += fallback.createAll(chunk);
+                continue;
+            }
+            tsv.setLength(0);
+            for (IReading reading : chunk) {
+                appendRow(tsv, reading);
+            }
+            try {
+                int rows = load(tsv.toString().getBytes(StandardCharsets.UTF_8), chunk);
+                if (rows > 0) {
+                    ChangeTracker.markChanged(ChangeTracker.READINGS);
+                }
+                loaded += rows;
+            } catch (SQLException e) {
+                if (isRefusal(e)) {
+                    refused = true;
+                    System.out.println("LOAD DATA LOCAL INFILE is not allowed, using batched inserts: " + e.getMessage());
+                } else {
+                    e.printStackTrace();
+                }
+                loaded += fallback.createAll(chunk);
+            }
+        }
+        return loaded;
+    }
+
+    // The chunk's rollup months are refreshed in the same transaction as the load
+    private int load(byte[] tsv, List<? extends IReading> chunk) throws SQLException {
+        try (Connection conn = dataSource != null ? dataSource.getConnection() : DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                stmt.unwrap(org.mariadb.jdbc.Statement.class).setLocalInfileInputStream(new ByteArrayInputStream(tsv));
+                int rows = stmt.executeUpdate(sql);
+                if (rows > 0) {
+                    ConsumptionRollup.refresh(conn, chunk);
+                }
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static boolean isRefusal(SQLException e) {
+        for (int code : REFUSED_ERRORS) {
+            if (e.getErrorCode() == code) {
+                return true;
+            }
+        }
+        // The driver's own refusal carries no server error code
+        String message = e.getMessage();
+        return message != null && message.contains("LOCAL INFILE") && message.contains("disabled");
+    }
+
+    // Same values as ReadingDAO binds for an INSERT
+    private static void appendRow(StringBuilder tsv, IReading reading) {
+        appendUuid(tsv, reading.getId());
+        tsv.append('\t');
+        appendUuid(tsv, reading.getCustomer() != null ? reading.getCustomer().getId() : null);
+        tsv.append('\t');
+        appendText(tsv, reading.getComment());
+        tsv.append('\t');
+        if (reading.getDateOfReading() != null) {
+            tsv.append(reading.getDateOfReading());
+        } else {
+            tsv.append("\\N");
+        }
+        tsv.append('\t');
+        appendText(tsv, reading.getKindOfMeter() != null ? reading.getKindOfMeter().name() : null);
+        tsv.append('\t');
+        tsv.append(reading.getMeterCount() != null ? reading.getMeterCount() : 0.0);
+        tsv.append('\t');
+        appendText(tsv, reading.getMeterId());
+        tsv.append('\t');
+        tsv.append(reading.getSubstitute() != null && reading.getSubstitute() ? '1' : '0');
+        tsv.append('\n');
+    }
+
+    private static void appendUuid(StringBuilder tsv, UUID id) {
+        if (id == null) {
+            tsv.append("\\N");
+        } else if (BINARY) {
+            appendHex(tsv, id.getMostSignificantBits());
+            appendHex(tsv, id.getLeastSignificantBits());
+        } else {
+            tsv.append(id);
+        }
+    }
+
+    private static void appendHex(StringBuilder tsv, long bits) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            tsv.append(Character.forDigit((int) (bits >>> shift) & 0xF, 16));
+        }
+    }
+
+    // Escapes the characters LOAD DATA treats specially with ESCAPED BY '\\'
+    private static void appendText(StringBuilder tsv, String value) {
+        if (value == null) {
+            tsv.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': tsv.append("\\\\"); break;
+                case '\t': tsv.append("\\t"); break;
+                case '\n': tsv.append("\\n"); break;
+                case '\r': tsv.append("\\r"); break;
+                case '\0': tsv.append("\\0"); break;
+                default: tsv.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package de.fentacore.dao;
+
+import de.fentacore.interfaces.IReading;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Filter for {@link IReadingDAO#findByCriteria(ReadingCriteria)}. Every field is optional;
+ * a null field does not restrict the result. Date bounds are inclusive.
+ */
+public class ReadingCriteria {
+    private UUID customerId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private IReading.KindOfMeter kindOfMeter;
+    private String meterId;
+    private Boolean substitute;
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(UUID customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public IReading.KindOfMeter getKindOfMeter() {
+        return kindOfMeter;
+    }
+
+    public void setKindOfMeter(IReading.KindOfMeter kindOfMeter) {
+        this.kindOfMeter = kindOfMeter;
+    }
+
+    public String getMeterId() {
+        return meterId;
+    }
+
+    public void setMeterId(String meterId) {
+        this.meterId = meterId;
+    }
+
+    public Boolean getSubstitute() {
+        return substitute;
+    }
+
+    public void setSubstitute(Boolean substitute) {
+        this.substitute = substitute;
+    }
+}
@@ -1,39 +1,67 @@
 package de.fentacore.dao;
 
+import de.fentacore.config.ChangeTracker;
 import de.fentacore.config.DatabaseConfig;
 import de.fentacore.interfaces.IReading;
 import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.ConsumptionPeriod;
+import de.fentacore.model.Customer;
 import de.fentacore.model.Reading;
+import de.fentacore.utils.Uuids;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 public class ReadingDAO implements IReadingDAO {
 
-    private final ICustomerDAO customerDAO = new CustomerDAO();
+    // Customer columns are joined in and aliased with a "c_" prefix, so a reading and its
+    // customer come back in one round trip instead of one extra SELECT per row.
+    private static final String SELECT_READINGS =
+            "SELECT r.id, r.customer_id, r.comment, r.date_of_reading, r.kind_of_meter, r.meter_count, r.meter_id, r.substitute, " +
+            "c.id AS c_id, c.first_name AS c_first_name, c.last_name AS c_last_name, c.birth_date AS c_birth_date, c.gender AS c_gender " +
+            "FROM readings r LEFT JOIN customers c ON c.id = r.customer_id";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int STREAM_CUSTOMER_CACHE_SIZE = 1000;
+
+    private static final String INSERT_READING =
+            "INSERT INTO readings (id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Keyed on the unique (meter_id, date_of_reading, customer_id) index; the stored id is kept
+    private static final String UPSERT_READING = INSERT_READING +
+            " ON DUPLICATE KEY UPDATE customer_id = VALUES(customer_id), comment = VALUES(comment)," +
+            " kind_of_meter = VALUES(kind_of_meter), meter_count = VALUES(meter_count), substitute = VALUES(substitute)";
+
+    // The rollup is refreshed in the transaction of every write, see ConsumptionRollup
+    private static final BatchInsert.ChunkHook<IReading> REFRESH_ROLLUP = ConsumptionRollup::refresh;
 
     @Override
     public IReading create(IReading reading) {
-        String sql = "INSERT INTO readings (id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            UUID newId = (reading.getId() == null) ? UUID.randomUUID() : reading.getId();
-            stmt.setString(1, newId.toString());
-            stmt.setString(2, reading.getCustomer().getId().toString());
-            stmt.setString(3, reading.getComment());
-            stmt.setDate(4, reading.getDateOfReading() != null ? Date.valueOf(reading.getDateOfReading()) : null);
-            stmt.setString(5, reading.getKindOfMeter() != null ? reading.getKindOfMeter().name() : null);
-            stmt.setDouble(6, reading.getMeterCount() != null ? reading.getMeterCount() : 0.0);
-            stmt.setString(7, reading.getMeterId());
-            stmt.setBoolean(8, reading.getSubstitute() != null ? reading.getSubstitute() : false);
-
-            int affectedRows = stmt.executeUpdate();
+        UUID newId = (reading.getId() == null) ? Uuids.timeOrdered() : reading.getId();
+        try {
+            int affectedRows = Transactions.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_READING)) {
+                    bindInsert(stmt, reading, newId);
+                    int rows = stmt.executeUpdate();
+                    if (rows > 0) {
+                        ConsumptionRollup.refresh(conn, List.of(reading));
+                    }
+                    return rows;
+                }
+            });
             if (affectedRows > 0) {
                 reading.setId(newId);
+                ChangeTracker.markChanged(ChangeTracker.READINGS);
                 return reading;
             }
         } catch (SQLException e) {
@@ -42,16 +70,151 @@ public class ReadingDAO implements IReadingDAO {
         return null;
     }
 
+    @Override
+    public int createAll(List<? extends IReading> readings) {
+        if (readings == null) {
+            return 0;
+        }
+        // Ids are assigned up front so the caller can reference them once the batch is stored
+        for (IReading reading : readings) {
+            if (reading.getId() == null) {
+                reading.setId(Uuids.timeOrdered());
+            }
+        }
+        int inserted = BatchInsert.<IReading>insertAll(INSERT_READING, readings,
+                (stmt, reading) -> bindInsert(stmt, reading, reading.getId()), REFRESH_ROLLUP);
+        if (inserted > 0) {
+            ChangeTracker.markChanged(ChangeTracker.READINGS);
+        }
+        return inserted;
+    }
+
+    @Override
+    public UpsertCounts upsertAll(List<? extends IReading> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return new UpsertCounts(0, 0, 0);
+        }
+        // Only the meters and dates of this call are looked up, through the unique index;
+        // later rows of the same call are compared against earlier ones. The customer is part
+        // of the key: on a handover day a meter has a reading for each customer
+        Map<List<Object>, IReading> stored = findStored(readings);
+        List<IReading> inserts = new ArrayList<>();
+        List<IReading> updates = new ArrayList<>();
+        int unchanged = 0;
+        for (IReading reading : readings) {
+            IReading before = null;
+            if (reading.getMeterId() != null && reading.getDateOfReading() != null && reading.getCustomer() != null) {
+                before = stored.put(naturalKey(reading), reading);
+            }
+            if (before == null) {
+                if (reading.getId() == null) {
+                    reading.setId(Uuids.timeOrdered());
+                }
+                inserts.add(reading);
+            } else {
+                reading.setId(before.getId());
+                if (sameValues(before, reading)) {
+                    unchanged++;
+                    continue;
+                }
+                updates.add(reading);
+            }
+        }
+
+        BatchInsert.Binder<IReading> binder = (stmt, reading) -> bindInsert(stmt, reading, reading.getId());
+        // New rows are plain inserts: if a concurrent import stored the same key since
+        // findStored, the row-by-row fallback reports the duplicate instead of counting an
+        // update as an insert under an id that is not in the table
+        int inserted = BatchInsert.insertAll(INSERT_READING, inserts, binder, REFRESH_ROLLUP);
+        // An update keeps meter, date and customer, so the rows as written cover the old months
+        int updated = BatchInsert.insertAll(UPSERT_READING, updates, binder, REFRESH_ROLLUP);
+        if (inserted + updated > 0) {
+            ChangeTracker.markChanged(ChangeTracker.READINGS);
+        }
+        return new UpsertCounts(inserted, updated, unchanged);
+    }
+
+    private Map<List<Object>, IReading> findStored(List<? extends IReading> readings) {
+        Map<String, List<Date>> datesByMeter = new LinkedHashMap<>();
+        for (IReading reading : readings) {
+            if (reading.getMeterId() != null && reading.getDateOfReading() != null) {
+                datesByMeter.computeIfAbsent(reading.getMeterId(), meterId -> new ArrayList<>())
+                        .add(Date.valueOf(reading.getDateOfReading()));
+            }
+        }
+
+        Map<List<Object>, IReading> stored = new HashMap<>();
+        int chunkSize = DatabaseConfig.getBatchSize();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            Map<UUID, ICustomer> customers = new HashMap<>();
+            for (Map.Entry<String, List<Date>> meter : datesByMeter.entrySet()) {
+                List<Date> dates = meter.getValue();
+                for (int from = 0; from < dates.size(); from += chunkSize) {
+                    List<Date> chunk = dates.subList(from, Math.min(from + chunkSize, dates.size()));
+                    String sql = SELECT_READINGS + " WHERE r.meter_id = ? AND r.date_of_reading IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setString(1, meter.getKey());
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setDate(i + 2, chunk.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                Reading reading = mapResultSetToReading(rs, customers);
+                                stored.put(naturalKey(reading), reading);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Everything is treated as new; rows whose key exists are rejected by the insert
+            e.printStackTrace();
+        }
+        return stored;
+    }
+
+    // Columns of the unique index uq_readings_meter_date_customer
+    private static List<Object> naturalKey(IReading reading) {
+        return Arrays.asList(reading.getMeterId(), reading.getDateOfReading(), reading.getCustomer().getId());
+    }
+
+    // Compares the values bindInsert would write
+    private static boolean sameValues(IReading stored, IReading reading) {
+        UUID storedCustomer = stored.getCustomer() != null ? stored.getCustomer().getId() : null;
+        UUID customer = reading.getCustomer() != null ? reading.getCustomer().getId() : null;
+        return Objects.equals(storedCustomer, customer)
+                && Objects.equals(stored.getComment(), reading.getComment())
+                && stored.getKindOfMeter() == reading.getKindOfMeter()
+                && valueOrZero(stored.getMeterCount()) == valueOrZero(reading.getMeterCount())
+                && Boolean.TRUE.equals(stored.getSubstitute()) == Boolean.TRUE.equals(reading.getSubstitute());
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, IReading reading, UUID id) throws SQLException {
+        UuidColumns.set(stmt, 1, id);
+        UuidColumns.set(stmt, 2, reading.getCustomer().getId());
+        stmt.setString(3, reading.getComment());
+        stmt.setDate(4, reading.getDateOfReading() != null ? Date.valueOf(reading.getDateOfReading()) : null);
+        stmt.setString(5, reading.getKindOfMeter() != null ? reading.getKindOfMeter().name() : null);
+        stmt.setDouble(6, reading.getMeterCount() != null ? reading.getMeterCount() : 0.0);
+        stmt.setString(7, reading.getMeterId());
+        stmt.setBoolean(8, reading.getSubstitute() != null ? reading.getSubstitute() : false);
+    }
+
     @Override
     public IReading findById(UUID id) {
-        String sql = "SELECT id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute FROM readings WHERE id = ?";
+        String sql = SELECT_READINGS + " WHERE r.id = ?";
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, id.toString());
+            UuidColumns.set(stmt, 1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToReading(rs);
+                    return mapResultSetToReading(rs, new HashMap<>());
                 }
             }
         } catch (SQLException e) {
@@ -63,13 +226,14 @@ public class ReadingDAO implements IReadingDAO {
     @Override
     public List<IReading> findAll() {
         List<IReading> readings = new ArrayList<>();
-        String sql = "SELECT id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute FROM readings";
+        String sql = SELECT_READINGS;
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            Map<UUID, ICustomer> customers = new HashMap<>();
             while (rs.next()) {
-                Reading r = mapResultSetToReading(rs);
+                Reading r = mapResultSetToReading(rs, customers);
                 readings.add(r);
             }
         } catch (SQLException e) {
@@ -81,20 +245,34 @@ public class ReadingDAO implements IReadingDAO {
     @Override
     public boolean update(IReading reading) {
         String sql = "UPDATE readings SET customer_id = ?, comment = ?, date_of_reading = ?, kind_of_meter = ?, meter_count = ?, meter_id = ?, substitute = ? WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, reading.getCustomer().getId().toString());
-            stmt.setString(2, reading.getComment());
-            stmt.setDate(3, reading.getDateOfReading() != null ? Date.valueOf(reading.getDateOfReading()) : null);
-            stmt.setString(4, reading.getKindOfMeter() != null ? reading.getKindOfMeter().name() : null);
-            stmt.setDouble(5, reading.getMeterCount() != null ? reading.getMeterCount() : 0.0);
-            stmt.setString(6, reading.getMeterId());
-            stmt.setBoolean(7, reading.getSubstitute() != null ? reading.getSubstitute() : false);
-            stmt.setString(8, reading.getId().toString());
+        try {
+            int affectedRows = Transactions.inTransaction(conn -> {
+                // The old meter and date may leave a hole in the rollup just like the new ones fill one
+                IReading before = findForUpdate(conn, reading.getId());
+                if (before == null) {
+                    return 0;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    UuidColumns.set(stmt, 1, reading.getCustomer().getId());
+                    stmt.setString(2, reading.getComment());
+                    stmt.setDate(3, reading.getDateOfReading() != null ? Date.valueOf(reading.getDateOfReading()) : null);
+                    stmt.setString(4, reading.getKindOfMeter() != null ? reading.getKindOfMeter().name() : null);
+                    stmt.setDouble(5, reading.getMeterCount() != null ? reading.getMeterCount() : 0.0);
+                    stmt.setString(6, reading.getMeterId());
+                    stmt.setBoolean(7, reading.getSubstitute() != null ? reading.getSubstitute() : false);
+                    UuidColumns.set(stmt, 8, reading.getId());
 
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+                    int rows = stmt.executeUpdate();
+                    if (rows > 0) {
+                        ConsumptionRollup.refresh(conn, Arrays.asList(before, reading));
+                    }
+                    return rows;
+                }
+            });
+            if (affectedRows > 0) {
+                ChangeTracker.markChanged(ChangeTracker.READINGS);
+                return true;
+            }
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -105,12 +283,25 @@ public class ReadingDAO implements IReadingDAO {
     @Override
     public boolean delete(UUID id) {
         String sql = "DELETE FROM readings WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, id.toString());
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            int affectedRows = Transactions.inTransaction(conn -> {
+                IReading before = findForUpdate(conn, id);
+                if (before == null) {
+                    return 0;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    UuidColumns.set(stmt, 1, id);
+                    int rows = stmt.executeUpdate();
+                    if (rows > 0) {
+                        ConsumptionRollup.refresh(conn, Arrays.asList(before));
+                    }
+                    return rows;
+                }
+            });
+            if (affectedRows > 0) {
+                ChangeTracker.markChanged(ChangeTracker.READINGS);
+                return true;
+            }
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -118,17 +309,44 @@ public class ReadingDAO implements IReadingDAO {
         return false;
     }
 
+    /**
+     * Reads the rollup key of a stored reading (meter, date and customer id) and locks the row
+     * until {@code conn}'s transaction ends, so no concurrent write can change it before the
+     * rollup is refreshed. Returns null when the reading does not exist.
+     */
+    private static IReading findForUpdate(Connection conn, UUID id) throws SQLException {
+        String sql = "SELECT customer_id, date_of_reading, meter_id FROM readings WHERE id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            UuidColumns.set(stmt, 1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Customer customer = new Customer();
+                customer.setId(UuidColumns.get(rs, "customer_id"));
+                Reading reading = new Reading();
+                reading.setId(id);
+                reading.setCustomer(customer);
+                Date dor = rs.getDate("date_of_reading");
+                reading.setDateOfReading(dor != null ? dor.toLocalDate() : null);
+                reading.setMeterId(rs.getString("meter_id"));
+                return reading;
+            }
+        }
+    }
+
     @Override
     public List<IReading> findByCustomerId(UUID customerId) {
         List<IReading> readings = new ArrayList<>();
-        String sql = "SELECT id, customer_id, comment, date_of_reading, kind_of_meter, meter_count, meter_id, substitute FROM readings WHERE customer_id = ?";
+        String sql = SELECT_READINGS + " WHERE r.customer_id = ?";
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, customerId.toString());
+            UuidColumns.set(stmt, 1, customerId);
             try (ResultSet rs = stmt.executeQuery()) {
+                Map<UUID, ICustomer> customers = new HashMap<>();
                 while (rs.next()) {
-                    Reading r = mapResultSetToReading(rs);
+                    Reading r = mapResultSetToReading(rs, customers);
                     readings.add(r);
                 }
             }
@@ -138,11 +356,206 @@ public class ReadingDAO implements IReadingDAO {
         return readings;
     }
 
-    private Reading mapResultSetToReading(ResultSet rs) throws SQLException {
+    @Override
+    public List<IReading> findByCriteria(ReadingCriteria criteria) {
+        List<IReading> readings = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT_READINGS + buildWhereClause(criteria, null, params);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<UUID, ICustomer> customers = new HashMap<>();
+                while (rs.next()) {
+                    readings.add(mapResultSetToReading(rs, customers));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return readings;
+    }
+
+    @Override
+    public List<IReading> findPageByCriteria(ReadingCriteria criteria, UUID after, int limit) {
+        List<IReading> readings = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        // Seek past the last key of the previous page; the primary key index makes every page
+        // cost the same, however deep
+        String sql = SELECT_READINGS + buildWhereClause(criteria, after, params) + " ORDER BY r.id LIMIT ?";
+        params.add(limit);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<UUID, ICustomer> customers = new HashMap<>();
+                while (rs.next()) {
+                    readings.add(mapResultSetToReading(rs, customers));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return readings;
+    }
+
+    @Override
+    public void streamByCriteria(ReadingCriteria criteria, RowHandler<? super IReading> handler) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT_READINGS + buildWhereClause(criteria, null, params);
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            // A positive fetch size makes the driver stream rows instead of loading them all
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<UUID, ICustomer> customers = new HashMap<>();
+                while (rs.next()) {
+                    // Keep the shared-customer map bounded so heap stays flat on huge results
+                    if (customers.size() >= STREAM_CUSTOMER_CACHE_SIZE) {
+                        customers.clear();
+                    }
+                    handler.handle(mapResultSetToReading(rs, customers));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new IOException("Streaming readings failed", e);
+        }
+    }
+
+    @Override
+    public List<ConsumptionPeriod> findConsumption(ReadingCriteria criteria, ConsumptionInterval interval) {
+        // Whole months are answered from the rollup table, one row per meter, kind and month
+        if (ConsumptionRollup.covers(criteria, interval)) {
+            return ConsumptionRollup.find(criteria, interval);
+        }
+        return findConsumptionFromReadings(criteria, interval);
+    }
+
+    // Computes consumption from the readings table with window functions
+    List<ConsumptionPeriod> findConsumptionFromReadings(ReadingCriteria criteria, ConsumptionInterval interval) {
+        List<ConsumptionPeriod> periods = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+
+        // The start bound must not hide the reading before it from LAG(), so it is applied to
+        // the differences, and so is the kind of meter, as in the rollup: a difference counts
+        // for the kind of its later reading. Every other filter narrows the rows the window
+        // runs over
+        ReadingCriteria meters = new ReadingCriteria();
+        if (criteria != null) {
+            meters.setCustomerId(criteria.getCustomerId());
+            meters.setEndDate(criteria.getEndDate());
+            meters.setMeterId(criteria.getMeterId());
+            meters.setSubstitute(criteria.getSubstitute());
+        }
+        String where = buildWhereClause(meters, null, params);
+        where = (where.isEmpty() ? " WHERE " : where + " AND ") + "r.meter_id IS NOT NULL AND r.date_of_reading IS NOT NULL";
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT d.meter_id, d.kind_of_meter, DATE_FORMAT(d.date_of_reading, '")
+                .append(interval.getDateFormat()).append("') AS period, ")
+                .append("SUM(d.delta) AS consumption, COUNT(*) AS intervals FROM (")
+                .append("SELECT r.meter_id, r.kind_of_meter, r.date_of_reading, ")
+                .append("r.meter_count - LAG(r.meter_count) OVER (PARTITION BY r.meter_id, r.customer_id ORDER BY r.date_of_reading, r.id) AS delta ")
+                .append("FROM readings r").append(where)
+                .append(") d WHERE d.delta IS NOT NULL");
+        if (criteria != null && criteria.getStartDate() != null) {
+            sql.append(" AND d.date_of_reading >= ?");
+            params.add(Date.valueOf(criteria.getStartDate()));
+        }
+        if (criteria != null && criteria.getKindOfMeter() != null) {
+            sql.append(" AND d.kind_of_meter = ?");
+            params.add(criteria.getKindOfMeter().name());
+        }
+        sql.append(" GROUP BY d.meter_id, d.kind_of_meter, period ORDER BY d.meter_id, period, d.kind_of_meter");
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ConsumptionPeriod period = new ConsumptionPeriod();
+                    period.setMeterId(rs.getString("meter_id"));
+                    String kom = rs.getString("kind_of_meter");
+                    if (kom != null) {
+                        period.setKindOfMeter(IReading.KindOfMeter.valueOf(kom));
+                    }
+                    period.setPeriod(rs.getString("period"));
+                    period.setConsumption(rs.getDouble("consumption"));
+                    period.setIntervals(rs.getInt("intervals"));
+                    periods.add(period);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return periods;
+    }
+
+    /**
+     * Builds the WHERE clause for the non-null criteria fields (plus the keyset condition when
+     * {@code after} is set) and collects their bind values in placeholder order. Returns an
+     * empty string when nothing is restricted.
+     */
+    private String buildWhereClause(ReadingCriteria criteria, UUID after, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (after != null) {
+            conditions.add("r.id > ?");
+            params.add(UuidColumns.toParameter(after));
+        }
+        if (criteria != null) {
+            if (criteria.getCustomerId() != null) {
+                conditions.add("r.customer_id = ?");
+                params.add(UuidColumns.toParameter(criteria.getCustomerId()));
+            }
+            if (criteria.getStartDate() != null) {
+                conditions.add("r.date_of_reading >= ?");
+                params.add(Date.valueOf(criteria.getStartDate()));
+            }
+            if (criteria.getEndDate() != null) {
+                conditions.add("r.date_of_reading <= ?");
+                params.add(Date.valueOf(criteria.getEndDate()));
+            }
+            if (criteria.getKindOfMeter() != null) {
+                conditions.add("r.kind_of_meter = ?");
+                params.add(criteria.getKindOfMeter().name());
+            }
+            if (criteria.getMeterId() != null) {
+                conditions.add("r.meter_id = ?");
+                params.add(criteria.getMeterId());
+            }
+            if (criteria.getSubstitute() != null) {
+                conditions.add("r.substitute = ?");
+                params.add(criteria.getSubstitute());
+            }
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private void bindParameters(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Maps one joined row. {@code customers} is scoped to a single result set so a customer
+     * that owns many readings is materialised once and shared by all of them.
+     */
+    private Reading mapResultSetToReading(ResultSet rs, Map<UUID, ICustomer> customers) throws SQLException {
         Reading r = new Reading();
-        r.setId(UUID.fromString(rs.getString("id")));
-        UUID customId = UUID.fromString(rs.getString("customer_id"));
-        ICustomer c = customerDAO.findById(customId);
+        r.setId(UuidColumns.get(rs, "id"));
+        UUID customerId = UuidColumns.get(rs, "customer_id");
+        ICustomer c = customers.get(customerId);
+        if (c == null && rs.getObject("c_id") != null) {
+            c = CustomerDAO.mapResultSetToCustomer(rs, "c_");
+            customers.put(customerId, c);
+        }
         r.setCustomer(c);
         r.setComment(rs.getString("comment"));
         Date dor = rs.getDate("date_of_reading");
@@ -0,0 +1,12 @@
+package de.fentacore.dao;
+
+import java.io.IOException;
+
+/**
+ * Receives rows one at a time while a DAO is still reading its result set, so callers can
+ * forward them (e.g. to a response stream) without collecting them in a list first.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void handle(T row) throws IOException;
+}
@@ -0,0 +1,52 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Runs a unit of work in one transaction on a pooled connection. When InnoDB picks the
+ * transaction as a deadlock victim it rolls all of it back, so the whole unit is run again.
+ */
+final class Transactions {
+
+    @FunctionalInterface
+    interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final String DEADLOCK_SQL_STATE = "40001";
+
+    private Transactions() {
+    }
+
+    static <T> T inTransaction(Work<T> work) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        T result = work.run(conn);
+                        conn.commit();
+                        return result;
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        if (attempt >= MAX_ATTEMPTS || !isDeadlock(e)) {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    static boolean isDeadlock(SQLException e) {
+        return DEADLOCK_SQL_STATE.equals(e.getSQLState());
+    }
+}
@@ -0,0 +1,29 @@
+package de.fentacore.dao;
+
+/**
+ * Outcome of an upsert: rows that were new, rows whose stored values were overwritten, and
+ * rows equal to the stored ones, which were not written at all.
+ */
+public class UpsertCounts {
+    private final int inserted;
+    private final int updated;
+    private final int unchanged;
+
+    public UpsertCounts(int inserted, int updated, int unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+}
@@ -0,0 +1,40 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.utils.Uuids;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Reads and binds UUID columns in the storage format selected by db.uuid.storage
+ * (BINARY(16) or VARCHAR(36)). The JSON API always sees java.util.UUID.
+ */
+final class UuidColumns {
+
+    private static final boolean BINARY = DatabaseConfig.isBinaryUuidStorage();
+
+    private UuidColumns() {
+    }
+
+    static Object toParameter(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        return BINARY ? Uuids.toBytes(id) : id.toString();
+    }
+
+    static void set(PreparedStatement stmt, int index, UUID id) throws SQLException {
+        stmt.setObject(index, toParameter(id));
+    }
+
+    static UUID get(ResultSet rs, String column) throws SQLException {
+        if (BINARY) {
+            return Uuids.fromBytes(rs.getBytes(column));
+        }
+        String value = rs.getString(column);
+        return value != null ? UUID.fromString(value) : null;
+    }
+}
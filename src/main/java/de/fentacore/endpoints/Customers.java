@@ -1,16 +1,24 @@
 package de.fentacore.endpoints;
 
+import de.fentacore.config.ChangeTracker;
 import de.fentacore.config.DatabaseConfig;
-import de.fentacore.dao.CustomerDAO;
-import de.fentacore.dao.ReadingDAO;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.ICustomerDAO;
+import de.fentacore.dao.IReadingDAO;
 import de.fentacore.model.Customer;
 import de.fentacore.model.CustomerRequest;
 import de.fentacore.model.CustomersResponse;
 import de.fentacore.model.CustomerWithReadingsResponse;
 import de.fentacore.interfaces.ICustomer;
 import de.fentacore.interfaces.IReading;
+import de.fentacore.utils.ConditionalGet;
+import de.fentacore.utils.JsonStreaming;
+import de.fentacore.utils.PageCursor;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.util.List;
@@ -19,13 +27,76 @@ import java.util.UUID;
 @Path("customers")
 public class Customers {
 
+    private final ICustomerDAO customerDAO;
+    private final IReadingDAO readingDAO;
+
+    public Customers() {
+        this(DefaultDaos.customerDAO(), DefaultDaos.readingDAO());
+    }
+
+    /**
+     * Used by Jersey, which passes the application-scoped DAOs bound by DaoBinder.
+     */
+    @Inject
+    public Customers(ICustomerDAO customerDAO, IReadingDAO readingDAO) {
+        this.customerDAO = customerDAO;
+        this.readingDAO = readingDAO;
+    }
+
+    /**
+     * Lists customers. Responses carry an ETag and Last-Modified; a poll whose If-None-Match or
+     * If-Modified-Since still matches gets 304 Not Modified without a database query.
+     */
     @GET
     @Produces("application/json")
-    public Response getCustomers() {
-        CustomerDAO customers = new CustomerDAO();
-        List<ICustomer> customerList = customers.findAll();
-        CustomersResponse response = new CustomersResponse(customerList);
-        return Response.ok(response).build();
+    public Response getCustomers(@QueryParam("limit") String limitParam,
+                                 @QueryParam("next") String nextCursor,
+                                 @Context Request request) {
+        ConditionalGet validators = ConditionalGet.of(ChangeTracker.CUSTOMERS);
+        if (!PageCursor.isRequested(limitParam, nextCursor)) {
+            Response notModified = validators.notModified(request);
+            if (notModified != null) {
+                return notModified;
+            }
+            // Unpaginated lists are written to the client while the rows are still being read
+            return validators.apply(Response.ok(JsonStreaming.envelope("customers", customerDAO::streamAll), MediaType.APPLICATION_JSON))
+                    .build();
+        }
+
+        int limit;
+        try {
+            limit = PageCursor.parseLimit(limitParam);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Invalid limit. Expected an integer between 1 and " + PageCursor.MAX_LIMIT + ": " + limitParam + "\"}")
+                    .build();
+        }
+        UUID after = null;
+        if (nextCursor != null && !nextCursor.trim().isEmpty()) {
+            try {
+                after = PageCursor.decode(nextCursor);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\": \"Invalid next cursor: " + nextCursor + "\"}")
+                        .build();
+            }
+        }
+
+        Response notModified = validators.notModified(request);
+        if (notModified != null) {
+            return notModified;
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<ICustomer> page = customerDAO.findPage(after, limit + 1);
+        String next = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            next = PageCursor.encode(page.get(limit - 1).getId());
+        }
+        CustomersResponse response = new CustomersResponse(page);
+        response.setNext(next);
+        return validators.apply(Response.ok(response)).build();
     }
 
     @GET
@@ -34,7 +105,6 @@ public class Customers {
     public Response getCustomerById(@PathParam("uuid") String uuidString) {
         try {
             UUID uuid = UUID.fromString(uuidString);
-            CustomerDAO customerDAO = new CustomerDAO();
             ICustomer customer = customerDAO.findById(uuid);
             
             if (customer == null) {
@@ -63,8 +133,7 @@ public class Customers {
     @Produces("application/json")
     @Consumes("application/json")
     public Response createCustomer(Customer customer) {
-        CustomerDAO customers = new CustomerDAO();
-        return Response.ok(customers.create(customer)).build();
+        return Response.ok(customerDAO.create(customer)).build();
     }
 
     @PUT
@@ -89,7 +158,6 @@ public class Customers {
     
     private Response updateCustomerInternal(Customer customerToUpdate) {
         try {
-            CustomerDAO customerDAO = new CustomerDAO();
             
             // Validate required fields
             if (customerToUpdate.getId() == null || 
@@ -134,8 +202,6 @@ public class Customers {
     public Response deleteCustomer(@PathParam("uuid") String uuidString) {
         try {
             UUID uuid = UUID.fromString(uuidString);
-            CustomerDAO customerDAO = new CustomerDAO();
-            ReadingDAO readingDAO = new ReadingDAO();
             
             ICustomer customer = customerDAO.findById(uuid);
             
@@ -1,7 +1,10 @@
 package de.fentacore.endpoints;
 
 import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.ConsumptionRollup;
+import de.fentacore.dao.InMemoryStore;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.core.Response;
 
@@ -11,8 +14,12 @@ public class DbSetup {
     @DELETE
     public Response resetDatabase() {
         try {
-            DatabaseConfig.deleteTables();
-            DatabaseConfig.createTables();
+            if (DatabaseConfig.isInMemoryStorage()) {
+                InMemoryStore.getDefault().clear();
+            } else {
+                DatabaseConfig.deleteTables();
+                DatabaseConfig.createTables();
+            }
 
             return Response.status(Response.Status.OK)
                     .entity("Successfully reset database.")
@@ -24,4 +31,59 @@ public class DbSetup {
                     .build();
         }
     }
+
+    /**
+     * Recomputes the monthly consumption rollup from all readings, e.g. after readings were
+     * loaded or corrected with plain SQL.
+     */
+    @POST
+    @Path("rollup")
+    public Response rebuildRollup() {
+        if (DatabaseConfig.isInMemoryStorage()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("In-memory storage computes consumption from the readings, there is no rollup.")
+                    .build();
+        }
+        try {
+            int rows = ConsumptionRollup.rebuild();
+            return Response.status(Response.Status.OK)
+                    .entity("Rebuilt consumption rollup: " + rows + " rows.")
+                    .build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error rebuilding consumption rollup.")
+                    .build();
+        }
+    }
+
+    /**
+     * Writes the in-memory store to db.memory.snapshotFile, which is loaded again on the next
+     * start. Only available with db.storage=memory.
+     */
+    @POST
+    @Path("snapshot")
+    public Response saveSnapshot() {
+        if (!DatabaseConfig.isInMemoryStorage()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Snapshots are only available with in-memory storage.")
+                    .build();
+        }
+        try {
+            long rows = InMemoryStore.getDefault().saveSnapshot();
+            if (rows < 0) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity("No snapshot file is configured.")
+                        .build();
+            }
+            return Response.status(Response.Status.OK)
+                    .entity("Saved snapshot: " + rows + " rows.")
+                    .build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error saving snapshot.")
+                    .build();
+        }
+    }
 }
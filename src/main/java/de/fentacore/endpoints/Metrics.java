@@ -0,0 +1,57 @@
+package de.fentacore.endpoints;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.CachingCustomerDAO;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.ICustomerDAO;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("metrics")
+public class Metrics {
+
+    private final ICustomerDAO customerDAO;
+
+    public Metrics() {
+        this(DefaultDaos.customerDAO());
+    }
+
+    @Inject
+    public Metrics(ICustomerDAO customerDAO) {
+        this.customerDAO = customerDAO;
+    }
+
+    @GET
+    @Path("pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPoolMetrics() {
+        if (DatabaseConfig.isInMemoryStorage()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"No connection pool with in-memory storage\"}")
+                    .build();
+        }
+        try {
+            return Response.ok(DatabaseConfig.getPoolMetrics()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\": \"Error reading pool metrics: " + e.getMessage() + "\"}")
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCacheMetrics() {
+        if (!(customerDAO instanceof CachingCustomerDAO)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Customer cache is not enabled\"}")
+                    .build();
+        }
+        return Response.ok(((CachingCustomerDAO) customerDAO).getMetrics()).build();
+    }
+}
@@ -1,30 +1,56 @@
 package de.fentacore.endpoints;
 
-import de.fentacore.dao.ReadingDAO;
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.dao.ConsumptionInterval;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.IReadingDAO;
+import de.fentacore.dao.ReadingCriteria;
 import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionResponse;
 import de.fentacore.model.Reading;
 import de.fentacore.model.ReadingRequest;
 import de.fentacore.model.ReadingsResponse;
+import de.fentacore.utils.ConditionalGet;
+import de.fentacore.utils.JsonStreaming;
+import de.fentacore.utils.PageCursor;
+import de.fentacore.utils.Uuids;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Path("readings")
 public class Readings {
 
+    private final IReadingDAO readingDAO;
+
+    public Readings() {
+        this(DefaultDaos.readingDAO());
+    }
+
+    /**
+     * Used by Jersey, which passes the application-scoped DAO bound by DaoBinder.
+     */
+    @Inject
+    public Readings(IReadingDAO readingDAO) {
+        this.readingDAO = readingDAO;
+    }
+
     @GET
     @Path("{uuid}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getReadingById(@PathParam("uuid") String uuidString) {
         try {
             UUID uuid = UUID.fromString(uuidString);
-            ReadingDAO readingDAO = new ReadingDAO();
             IReading reading = readingDAO.findById(uuid);
             
             if (reading == null) {
@@ -53,80 +79,193 @@ public class Readings {
     public Response getReadings(@QueryParam("customer") String customerUuid,
                                @QueryParam("start") String startDate,
                                @QueryParam("end") String endDate,
-                               @QueryParam("kindOfMeter") String kindOfMeter) {
+                               @QueryParam("kindOfMeter") String kindOfMeter,
+                               @QueryParam("meterId") String meterId,
+                               @QueryParam("substitute") String substitute,
+                               @QueryParam("limit") String limitParam,
+                               @QueryParam("next") String nextCursor,
+                               @Context Request request) {
         try {
-            ReadingDAO readingDAO = new ReadingDAO();
-            List<IReading> readings;
+            // Readings embed their customer, so a customer change also invalidates the list
+            ConditionalGet validators = ConditionalGet.of(ChangeTracker.READINGS, ChangeTracker.CUSTOMERS);
+            ReadingCriteria criteria;
+            try {
+                criteria = parseCriteria(customerUuid, startDate, endDate, kindOfMeter, meterId, substitute);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\": \"" + e.getMessage() + "\"}")
+                        .build();
+            }
             
-            // If customer parameter is provided, filter by customer
-            if (customerUuid != null && !customerUuid.trim().isEmpty()) {
-                try {
-                    UUID customerId = UUID.fromString(customerUuid);
-                    readings = readingDAO.findByCustomerId(customerId);
-                } catch (IllegalArgumentException e) {
-                    return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("{\"error\": \"Invalid customer UUID format: " + customerUuid + "\"}")
-                            .build();
+            // All filters are applied by the database in a single query
+            if (!PageCursor.isRequested(limitParam, nextCursor)) {
+                Response notModified = validators.notModified(request);
+                if (notModified != null) {
+                    return notModified;
                 }
-            } else {
-                // Get all readings
-                readings = readingDAO.findAll();
+                // Stream the {"readings":[...]} envelope (JSON Schema Readings) while the rows are
+                // still being read, so memory does not grow with the number of matches
+                StreamingOutput body = JsonStreaming.envelope("readings",
+                        handler -> readingDAO.streamByCriteria(criteria, handler));
+                return validators.apply(Response.ok(body, MediaType.APPLICATION_JSON)).build();
             }
             
-            // Filter by date range if provided
-            if (startDate != null && !startDate.trim().isEmpty()) {
+            int limit;
+            try {
+                limit = PageCursor.parseLimit(limitParam);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\": \"Invalid limit. Expected an integer between 1 and " + PageCursor.MAX_LIMIT + ": " + limitParam + "\"}")
+                        .build();
+            }
+            UUID after = null;
+            if (nextCursor != null && !nextCursor.trim().isEmpty()) {
                 try {
-                    LocalDate start = LocalDate.parse(startDate);
-                    readings = readings.stream()
-                            .filter(reading -> reading.getDateOfReading() != null && 
-                                    !reading.getDateOfReading().isBefore(start))
-                            .collect(Collectors.toList());
-                } catch (DateTimeParseException e) {
+                    after = PageCursor.decode(nextCursor);
+                } catch (IllegalArgumentException e) {
                     return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("{\"error\": \"Invalid start date format. Expected yyyy-MM-dd: " + startDate + "\"}")
+                            .entity("{\"error\": \"Invalid next cursor: " + nextCursor + "\"}")
                             .build();
                 }
             }
             
-            if (endDate != null && !endDate.trim().isEmpty()) {
-                try {
-                    LocalDate end = LocalDate.parse(endDate);
-                    readings = readings.stream()
-                            .filter(reading -> reading.getDateOfReading() != null && 
-                                    !reading.getDateOfReading().isAfter(end))
-                            .collect(Collectors.toList());
-                } catch (DateTimeParseException e) {
-                    return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("{\"error\": \"Invalid end date format. Expected yyyy-MM-dd: " + endDate + "\"}")
-                            .build();
-                }
+            Response notModified = validators.notModified(request);
+            if (notModified != null) {
+                return notModified;
+            }
+            
+            // Fetch one extra row to learn whether another page follows
+            List<IReading> page = readingDAO.findPageByCriteria(criteria, after, limit + 1);
+            String next = null;
+            if (page.size() > limit) {
+                page = page.subList(0, limit);
+                next = PageCursor.encode(page.get(limit - 1).getId());
+            }
+            ReadingsResponse response = new ReadingsResponse(page);
+            response.setNext(next);
+            return validators.apply(Response.ok(response)).build();
+            
+        } catch (Exception e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"Error retrieving readings: " + e.getMessage() + "\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * Consumption per meter and period (interval=day, month or year; default month), computed
+     * by the database from consecutive meter counts. Accepts the same filters as the list.
+     */
+    @GET
+    @Path("consumption")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getConsumption(@QueryParam("customer") String customerUuid,
+                                   @QueryParam("start") String startDate,
+                                   @QueryParam("end") String endDate,
+                                   @QueryParam("kindOfMeter") String kindOfMeter,
+                                   @QueryParam("meterId") String meterId,
+                                   @QueryParam("substitute") String substitute,
+                                   @QueryParam("interval") String intervalParam,
+                                   @Context Request request) {
+        try {
+            ConditionalGet validators = ConditionalGet.of(ChangeTracker.READINGS);
+            ReadingCriteria criteria;
+            try {
+                criteria = parseCriteria(customerUuid, startDate, endDate, kindOfMeter, meterId, substitute);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"error\": \"" + e.getMessage() + "\"}")
+                        .build();
             }
             
-            // Filter by kindOfMeter if provided
-            if (kindOfMeter != null && !kindOfMeter.trim().isEmpty()) {
+            ConsumptionInterval interval = ConsumptionInterval.MONTH;
+            if (intervalParam != null && !intervalParam.trim().isEmpty()) {
                 try {
-                    IReading.KindOfMeter meterType = IReading.KindOfMeter.valueOf(kindOfMeter.toUpperCase());
-                    readings = readings.stream()
-                            .filter(reading -> reading.getKindOfMeter() == meterType)
-                            .collect(Collectors.toList());
+                    interval = ConsumptionInterval.valueOf(intervalParam.trim().toUpperCase());
                 } catch (IllegalArgumentException e) {
                     return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("{\"error\": \"Invalid kindOfMeter. Valid values: HEIZUNG, STROM, WASSER, UNBEKANNT\"}")
+                            .entity("{\"error\": \"Invalid interval. Valid values: day, month, year\"}")
                             .build();
                 }
             }
             
-            // Return readings wrapped in ReadingsResponse format to match JSON Schema Readings
-            ReadingsResponse response = new ReadingsResponse(readings);
-            return Response.ok(response).build();
+            Response notModified = validators.notModified(request);
+            if (notModified != null) {
+                return notModified;
+            }
+            ConsumptionResponse response = new ConsumptionResponse(interval.name().toLowerCase(),
+                    readingDAO.findConsumption(criteria, interval));
+            return validators.apply(Response.ok(response)).build();
             
         } catch (Exception e) {
             return Response.status(Response.Status.BAD_REQUEST)
-                    .entity("{\"error\": \"Error retrieving readings: " + e.getMessage() + "\"}")
+                    .entity("{\"error\": \"Error computing consumption: " + e.getMessage() + "\"}")
                     .build();
         }
     }
 
+    /**
+     * Builds the filter shared by the list and consumption queries.
+     *
+     * @throws IllegalArgumentException with a client-facing message for a malformed parameter
+     */
+    private static ReadingCriteria parseCriteria(String customerUuid, String startDate, String endDate,
+                                                 String kindOfMeter, String meterId, String substitute) {
+        ReadingCriteria criteria = new ReadingCriteria();
+        
+        // If customer parameter is provided, filter by customer
+        if (customerUuid != null && !customerUuid.trim().isEmpty()) {
+            try {
+                criteria.setCustomerId(UUID.fromString(customerUuid));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid customer UUID format: " + customerUuid);
+            }
+        }
+        
+        // Filter by date range if provided
+        if (startDate != null && !startDate.trim().isEmpty()) {
+            try {
+                criteria.setStartDate(LocalDate.parse(startDate));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid start date format. Expected yyyy-MM-dd: " + startDate);
+            }
+        }
+        
+        if (endDate != null && !endDate.trim().isEmpty()) {
+            try {
+                criteria.setEndDate(LocalDate.parse(endDate));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid end date format. Expected yyyy-MM-dd: " + endDate);
+            }
+        }
+        
+        // Filter by kindOfMeter if provided
+        if (kindOfMeter != null && !kindOfMeter.trim().isEmpty()) {
+            try {
+                criteria.setKindOfMeter(IReading.KindOfMeter.valueOf(kindOfMeter.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid kindOfMeter. Valid values: HEIZUNG, STROM, WASSER, UNBEKANNT");
+            }
+        }
+        
+        if (meterId != null && !meterId.trim().isEmpty()) {
+            criteria.setMeterId(meterId.trim());
+        }
+        
+        if (substitute != null && !substitute.trim().isEmpty()) {
+            String value = substitute.trim().toLowerCase();
+            if (!value.equals("true") && !value.equals("false")) {
+                throw new IllegalArgumentException("Invalid substitute value. Expected true or false: " + substitute);
+            }
+            criteria.setSubstitute(Boolean.valueOf(value));
+        }
+        return criteria;
+    }
+
+    /**
+     * Creates a reading. A meter has at most one reading per day and customer, so a second one
+     * is rejected with 409 Conflict; correct the stored reading with PUT instead.
+     */
     @POST
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
@@ -156,11 +295,10 @@ public class Readings {
             
             // Generate UUID if not provided (as per requirement)
             if (reading.getId() == null) {
-                reading.setId(UUID.randomUUID());
+                reading.setId(Uuids.timeOrdered());
             }
             
             // Create reading using DAO
-            ReadingDAO readingDAO = new ReadingDAO();
             IReading createdReading = readingDAO.create(reading);
             
             if (createdReading != null) {
@@ -169,6 +307,8 @@ public class Readings {
                 return Response.status(Response.Status.CREATED)
                         .entity(response)
                         .build();
+            } else if (hasSameDayReading(reading)) {
+                return sameDayConflict(reading);
             } else {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity("{\"error\": \"Failed to create reading\"}")
@@ -210,7 +350,6 @@ public class Readings {
                         .build();
             }
             
-            ReadingDAO readingDAO = new ReadingDAO();
             
             // Check if reading exists
             IReading existingReading = readingDAO.findById(reading.getId());
@@ -229,6 +368,8 @@ public class Readings {
                 return Response.status(Response.Status.OK)
                         .entity(response)
                         .build();
+            } else if (hasSameDayReading(reading)) {
+                return sameDayConflict(reading);
             } else {
                 return Response.status(Response.Status.BAD_REQUEST)
                         .entity("{\"error\": \"Failed to update reading\"}")
@@ -242,13 +383,44 @@ public class Readings {
         }
     }
 
+    /**
+     * True if another reading of the same meter, day and customer is stored, which the unique
+     * key of readings does not allow. Checked after a write failed, to tell this case apart.
+     */
+    private boolean hasSameDayReading(IReading reading) {
+        // NULLs never collide in a unique index, and an unset filter would match any reading
+        if (reading.getMeterId() == null || reading.getDateOfReading() == null
+                || reading.getCustomer() == null || reading.getCustomer().getId() == null) {
+            return false;
+        }
+        ReadingCriteria criteria = new ReadingCriteria();
+        criteria.setMeterId(reading.getMeterId());
+        criteria.setCustomerId(reading.getCustomer().getId());
+        criteria.setStartDate(reading.getDateOfReading());
+        criteria.setEndDate(reading.getDateOfReading());
+        for (IReading stored : readingDAO.findByCriteria(criteria)) {
+            if (!stored.getId().equals(reading.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Response sameDayConflict(IReading reading) {
+        // Serialised by Jackson, so quotes or backslashes in the client's meter id stay valid JSON
+        return Response.status(Response.Status.CONFLICT)
+                .entity(Map.of("error", "Meter " + reading.getMeterId() + " already has a reading on "
+                        + reading.getDateOfReading() + " for this customer"))
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
     @DELETE
     @Path("{uuid}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response deleteReading(@PathParam("uuid") String uuidString) {
         try {
             UUID uuid = UUID.fromString(uuidString);
-            ReadingDAO readingDAO = new ReadingDAO();
             
             // First, get the reading to return it in the response
             IReading reading = readingDAO.findById(uuid);
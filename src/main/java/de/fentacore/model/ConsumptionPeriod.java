@@ -0,0 +1,66 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.fentacore.interfaces.IReading;
+
+/**
+ * Consumption of one meter in one period: the sum of the differences between consecutive meter
+ * counts, each difference booked to the period of the later reading.
+ */
+public class ConsumptionPeriod {
+    @JsonProperty("meterId")
+    private String meterId;
+
+    @JsonProperty("kindOfMeter")
+    private IReading.KindOfMeter kindOfMeter;
+
+    @JsonProperty("period")
+    private String period;
+
+    @JsonProperty("consumption")
+    private double consumption;
+
+    // Number of reading-to-reading differences that make up the consumption
+    @JsonProperty("intervals")
+    private int intervals;
+
+    public String getMeterId() {
+        return meterId;
+    }
+
+    public void setMeterId(String meterId) {
+        this.meterId = meterId;
+    }
+
+    public IReading.KindOfMeter getKindOfMeter() {
+        return kindOfMeter;
+    }
+
+    public void setKindOfMeter(IReading.KindOfMeter kindOfMeter) {
+        this.kindOfMeter = kindOfMeter;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public double getConsumption() {
+        return consumption;
+    }
+
+    public void setConsumption(double consumption) {
+        this.consumption = consumption;
+    }
+
+    public int getIntervals() {
+        return intervals;
+    }
+
+    public void setIntervals(int intervals) {
+        this.intervals = intervals;
+    }
+}
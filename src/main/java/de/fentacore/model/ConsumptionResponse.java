@@ -0,0 +1,38 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class ConsumptionResponse {
+
+    @JsonProperty("interval")
+    private String interval;
+
+    @JsonProperty("consumption")
+    private List<ConsumptionPeriod> consumption;
+
+    public ConsumptionResponse() {
+    }
+
+    public ConsumptionResponse(String interval, List<ConsumptionPeriod> consumption) {
+        this.interval = interval;
+        this.consumption = consumption;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public void setInterval(String interval) {
+        this.interval = interval;
+    }
+
+    public List<ConsumptionPeriod> getConsumption() {
+        return consumption;
+    }
+
+    public void setConsumption(List<ConsumptionPeriod> consumption) {
+        this.consumption = consumption;
+    }
+}
@@ -1,11 +1,18 @@
 package de.fentacore.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import de.fentacore.interfaces.ICustomer;
 import java.util.List;
 
 public class CustomersResponse {
     private List<ICustomer> customers;
 
+    // Cursor for the next page; only present on paginated responses that have more rows
+    @JsonProperty("next")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
+
     public CustomersResponse() {
     }
 
@@ -20,4 +27,12 @@ public class CustomersResponse {
     public void setCustomers(List<ICustomer> customers) {
         this.customers = customers;
     }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
 } 
\ No newline at end of file
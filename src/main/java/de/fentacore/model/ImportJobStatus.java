@@ -0,0 +1,173 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Snapshot of an asynchronous CSV import job as returned by GET /import/jobs/{id}.
+ * Progress is measured in bytes of the uploaded file, throughput in data lines per second.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobStatus {
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("type")
+    private String type;
+
+    @JsonProperty("state")
+    private String state;
+
+    @JsonProperty("message")
+    private String message;
+
+    @JsonProperty("submittedAt")
+    private String submittedAt;
+
+    @JsonProperty("startedAt")
+    private String startedAt;
+
+    @JsonProperty("finishedAt")
+    private String finishedAt;
+
+    @JsonProperty("bytesTotal")
+    private long bytesTotal;
+
+    @JsonProperty("bytesRead")
+    private long bytesRead;
+
+    @JsonProperty("linesRead")
+    private long linesRead;
+
+    @JsonProperty("imported")
+    private long imported;
+
+    @JsonProperty("skipped")
+    private long skipped;
+
+    @JsonProperty("rowsPerSecond")
+    private double rowsPerSecond;
+
+    @JsonProperty("etaSeconds")
+    private Long etaSeconds;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(String submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(String startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public String getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(String finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public void setBytesTotal(long bytesTotal) {
+        this.bytesTotal = bytesTotal;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    /**
+     * Fraction of the uploaded file consumed so far, between 0 and 1.
+     */
+    @JsonProperty("progress")
+    public double getProgress() {
+        return bytesTotal > 0 ? Math.min(1.0, (double) bytesRead / bytesTotal) : 0.0;
+    }
+}
@@ -0,0 +1,140 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Counts reported by a CSV import: how many data lines were read, how many rows were stored
+ * (inserted, or updated when a row with the same key existed) and how many were skipped
+ * (malformed lines, rows rejected by the database and rows equal to the stored ones). The
+ * importer updates it as it goes, so an import job can report progress while it runs.
+ */
+public class ImportResult {
+    @JsonProperty("type")
+    private String type;
+
+    @JsonProperty("source")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String source;
+
+    @JsonProperty("linesRead")
+    private volatile long linesRead;
+
+    @JsonProperty("imported")
+    private volatile long imported;
+
+    @JsonProperty("updated")
+    private volatile long updated;
+
+    @JsonProperty("rejected")
+    private volatile boolean rejected;
+
+    @JsonProperty("alreadyImported")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean alreadyImported;
+
+    @JsonProperty("message")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private volatile String message;
+
+    @JsonProperty("durationMillis")
+    private volatile long durationMillis;
+
+    public ImportResult() {
+    }
+
+    public ImportResult(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * The file the counts belong to, set by multi-file imports.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * True if the file was skipped because the same content was imported before.
+     */
+    public boolean isAlreadyImported() {
+        return alreadyImported;
+    }
+
+    public void setAlreadyImported(boolean alreadyImported) {
+        this.alreadyImported = alreadyImported;
+    }
+
+    /**
+     * Stored rows that replaced an existing row with the same key; included in imported.
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    @JsonProperty("inserted")
+    public long getInserted() {
+        return imported - updated;
+    }
+
+    @JsonProperty("skipped")
+    public long getSkipped() {
+        return Math.max(0, linesRead - imported);
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public void setRejected(boolean rejected) {
+        this.rejected = rejected;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
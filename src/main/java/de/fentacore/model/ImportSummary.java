@@ -0,0 +1,83 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a multi-file import: the customers files, then one {@link ImportResult} per
+ * readings file in the order the files were given. A file that failed or was rejected does
+ * not stop the others; its result carries the reason. Files that were imported before are
+ * skipped and counted separately.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportSummary {
+    @JsonProperty("customers")
+    private List<ImportResult> customers = new ArrayList<>();
+
+    @JsonProperty("files")
+    private List<ImportResult> files = new ArrayList<>();
+
+    @JsonProperty("durationMillis")
+    private long durationMillis;
+
+    public List<ImportResult> getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(List<ImportResult> customers) {
+        this.customers = customers;
+    }
+
+    public List<ImportResult> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<ImportResult> files) {
+        this.files = files;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Readings stored from all files.
+     */
+    @JsonProperty("imported")
+    public long getImported() {
+        long imported = 0;
+        for (ImportResult file : files) {
+            imported += file.getImported();
+        }
+        return imported;
+    }
+
+    @JsonProperty("failedFiles")
+    public int getFailedFiles() {
+        int failed = 0;
+        for (ImportResult file : files) {
+            if (file.isRejected()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    @JsonProperty("skippedFiles")
+    public int getSkippedFiles() {
+        int skipped = 0;
+        for (ImportResult file : files) {
+            if (file.isAlreadyImported()) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+}
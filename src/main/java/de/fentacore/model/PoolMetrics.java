@@ -0,0 +1,91 @@
+package de.fentacore.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class PoolMetrics {
+    @JsonProperty("poolName")
+    private String poolName;
+
+    @JsonProperty("maximumPoolSize")
+    private int maximumPoolSize;
+
+    @JsonProperty("minimumIdle")
+    private int minimumIdle;
+
+    @JsonProperty("activeConnections")
+    private int activeConnections;
+
+    @JsonProperty("idleConnections")
+    private int idleConnections;
+
+    @JsonProperty("totalConnections")
+    private int totalConnections;
+
+    @JsonProperty("threadsAwaitingConnection")
+    private int threadsAwaitingConnection;
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void setPoolName(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public void setActiveConnections(int activeConnections) {
+        this.activeConnections = activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public void setIdleConnections(int idleConnections) {
+        this.idleConnections = idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public void setTotalConnections(int totalConnections) {
+        this.totalConnections = totalConnections;
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    public void setThreadsAwaitingConnection(int threadsAwaitingConnection) {
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+    }
+
+    /**
+     * Share of the pool currently borrowed (0.0 - 1.0). Sustained values near 1.0 together with
+     * threadsAwaitingConnection > 0 mean the pool is too small.
+     */
+    @JsonProperty("utilization")
+    public double getUtilization() {
+        return maximumPoolSize > 0 ? (double) activeConnections / maximumPoolSize : 0.0;
+    }
+}
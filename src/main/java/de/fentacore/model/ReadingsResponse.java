@@ -1,5 +1,6 @@
 package de.fentacore.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import de.fentacore.interfaces.IReading;
 
@@ -10,6 +11,11 @@ public class ReadingsResponse {
     
     @JsonProperty("readings")
     private List<Reading> readings;
+
+    // Cursor for the next page; only present on paginated responses that have more rows
+    @JsonProperty("next")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
     
     public ReadingsResponse() {
     }
@@ -27,4 +33,12 @@ public class ReadingsResponse {
     public void setReadings(List<Reading> readings) {
         this.readings = readings;
     }
+    
+    public String getNext() {
+        return next;
+    }
+    
+    public void setNext(String next) {
+        this.next = next;
+    }
 } 
\ No newline at end of file
@@ -1,17 +1,34 @@
 package de.fentacore.rest;
 
+import de.fentacore.model.ImportJobStatus;
+import de.fentacore.model.ImportResult;
 import de.fentacore.utils.CSVImporter;
+import de.fentacore.utils.ImportJobManager;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
 import java.io.BufferedReader;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Path("/import")
 public class CsvImportEndpoint {
 
-    private final CSVImporter csvImporter = new CSVImporter();
+    private final CSVImporter csvImporter;
+    private final ImportJobManager importJobManager;
+
+    @Inject
+    public CsvImportEndpoint(CSVImporter csvImporter, ImportJobManager importJobManager) {
+        this.csvImporter = csvImporter;
+        this.importJobManager = importJobManager;
+    }
 
     @POST
     @Path("/customers")
@@ -62,4 +79,122 @@ public class CsvImportEndpoint {
                 .build();
         }
     }
-} 
\ No newline at end of file
+
+    @POST
+    @Path("/customers")
+    @Consumes({MediaType.APPLICATION_OCTET_STREAM, "text/csv"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importCustomersStream(InputStream csvStream) {
+        try {
+            // Parsed while the upload is read, so large files are never held in memory
+            ImportResult result = csvImporter.importCustomersFromStream(csvStream);
+            return Response.ok(result).build();
+
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Import failed: " + e.getMessage() + "\"}")
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/readings")
+    @Consumes({MediaType.APPLICATION_OCTET_STREAM, "text/csv"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importReadingsStream(InputStream csvStream) {
+        try {
+            // Parsed while the upload is read, so large files are never held in memory
+            ImportResult result = csvImporter.importReadingsFromStream(csvStream);
+            if (result.isRejected()) {
+                return Response.status(Response.Status.BAD_REQUEST).entity(result).build();
+            }
+            return Response.ok(result).build();
+
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Import failed: " + e.getMessage() + "\"}")
+                .build();
+        }
+    }
+
+    @POST
+    @Path("/jobs/{type}")
+    @Consumes({MediaType.APPLICATION_OCTET_STREAM, "text/csv", MediaType.TEXT_PLAIN})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitImportJob(@PathParam("type") String type, InputStream csvStream,
+                                    @Context UriInfo uriInfo) {
+        if (!ImportJobManager.CUSTOMERS.equals(type) && !ImportJobManager.READINGS.equals(type)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity("{\"error\": \"Unknown import type: " + type + ". Valid types: customers, readings\"}")
+                .build();
+        }
+        try {
+            // The upload is spooled to disk here; parsing and inserting run on a worker thread
+            ImportJobStatus status = importJobManager.submit(type, csvStream);
+            URI location = uriInfo.getBaseUriBuilder().path("import/jobs").path(status.getId()).build();
+            return Response.accepted(status).location(location).build();
+
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .entity("{\"error\": \"Too many imports in progress, try again later\"}")
+                .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Import failed: " + e.getMessage() + "\"}")
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/jobs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listImportJobs() {
+        return Response.ok(importJobManager.listJobs()).build();
+    }
+
+    @GET
+    @Path("/jobs/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getImportJob(@PathParam("id") String id) {
+        try {
+            ImportJobStatus status = importJobManager.getStatus(UUID.fromString(id));
+            if (status == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Import job not found\"}")
+                    .build();
+            }
+            return Response.ok(status).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Invalid UUID format\"}")
+                .build();
+        }
+    }
+
+    @DELETE
+    @Path("/jobs/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cancelImportJob(@PathParam("id") String id) {
+        try {
+            UUID jobId = UUID.fromString(id);
+            if (importJobManager.getStatus(jobId) == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"error\": \"Import job not found\"}")
+                    .build();
+            }
+            if (!importJobManager.cancel(jobId)) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity("{\"error\": \"Import job has already finished\"}")
+                    .build();
+            }
+            return Response.ok(importJobManager.getStatus(jobId)).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Invalid UUID format\"}")
+                .build();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.fentacore.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes UTF-8 from a byte buffer, e.g. a memory-mapped file, straight into the caller's char
+ * array, without the intermediate byte copy of an InputStreamReader. A leading byte order mark
+ * is skipped. Invalid UTF-8 fails the read with a {@link java.nio.charset.CharacterCodingException}
+ * rather than being replaced, so a file in another encoding is reported instead of imported
+ * with garbled text.
+ */
+final class ByteBufferReader extends Reader {
+
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private boolean flushed;
+    // Low surrogate left over when only one char fit into the caller's array
+    private char pending;
+    private boolean hasPending;
+
+    ByteBufferReader(ByteBuffer bytes) {
+        this.bytes = bytes.duplicate();
+        if (this.bytes.remaining() >= BOM.length && this.bytes.get(this.bytes.position()) == BOM[0]
+                && this.bytes.get(this.bytes.position() + 1) == BOM[1]
+                && this.bytes.get(this.bytes.position() + 2) == BOM[2]) {
+            this.bytes.position(this.bytes.position() + BOM.length);
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int read = 0;
+        if (hasPending) {
+            cbuf[off] = pending;
+            hasPending = false;
+            read = 1;
+        }
+        if (read < len && !flushed) {
+            CharBuffer out = CharBuffer.wrap(cbuf, off + read, len - read);
+            decode(out);
+            read = out.position() - off;
+            if (read == 0 && !flushed) {
+                // Only one char of room and the next code point is a surrogate pair: hand out
+                // the high surrogate now and keep the low one for the next read
+                CharBuffer pair = CharBuffer.allocate(2);
+                decode(pair);
+                read = Math.min(pair.position(), 1);
+                if (read > 0) {
+                    cbuf[off] = pair.get(0);
+                }
+                if (pair.position() > 1) {
+                    pending = pair.get(1);
+                    hasPending = true;
+                }
+            }
+        }
+        // Like InputStreamReader, never 0 for a non-empty request
+        return read == 0 ? -1 : read;
+    }
+
+    private void decode(CharBuffer out) throws IOException {
+        CoderResult result = decoder.decode(bytes, out, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        if (result.isUnderflow()) {
+            // All input consumed
+            decoder.flush(out);
+            flushed = true;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
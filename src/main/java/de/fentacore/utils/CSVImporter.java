@@ -1,28 +1,74 @@
 package de.fentacore.utils;
 
-import de.fentacore.dao.CustomerDAO;
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.ICustomerDAO;
+import de.fentacore.dao.IReadingDAO;
+import de.fentacore.dao.ImportedFileDAO;
+import de.fentacore.dao.ReadingBulkLoader;
 import de.fentacore.dao.ReadingDAO;
+import de.fentacore.dao.UpsertCounts;
 import de.fentacore.interfaces.ICustomer;
 import de.fentacore.interfaces.IReading;
 import de.fentacore.model.Customer;
+import de.fentacore.model.ImportResult;
+import de.fentacore.model.ImportSummary;
 import de.fentacore.model.Reading;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.io.StringReader;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class CSVImporter {
 
-    private final CustomerDAO customerDAO = new CustomerDAO();
-    private final ReadingDAO readingDAO = new ReadingDAO();
+    private final ICustomerDAO customerDAO;
+    private final IReadingDAO readingDAO;
+    // Null with in-memory storage, where every file is imported again
+    private final ImportedFileDAO importedFileDAO = DatabaseConfig.isInMemoryStorage() ? null : new ImportedFileDAO();
+    // Set in bulk-load mode when readings go to the database through the JDBC DAO
+    private final ReadingBulkLoader bulkLoader;
+    // Re-imported rows overwrite the stored ones instead of being added again
+    private final boolean upsert = DatabaseConfig.isImportUpsert();
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    // Upper bound on the header text kept for meter kind detection
+    private static final int MAX_HEADER_BLOCK_CHARS = 4096;
+
+    public CSVImporter() {
+        this(DefaultDaos.customerDAO(), DefaultDaos.readingDAO());
+    }
+
+    public CSVImporter(ICustomerDAO customerDAO, IReadingDAO readingDAO) {
+        this.customerDAO = customerDAO;
+        this.readingDAO = readingDAO;
+        this.bulkLoader = DatabaseConfig.isBulkLoadEnabled() && readingDAO instanceof ReadingDAO
+                ? new ReadingBulkLoader(readingDAO) : null;
+    }
 
     /**
      * Import all CSV files from the specified resources path.
@@ -40,164 +86,327 @@ public class CSVImporter {
     }
 
     /**
-     * Import customers from CSV string content
-     * @param csvContent the CSV content as string
-     * @return number of customers imported
+     * Like {@link #importAll(Path, Collection, int)} with the default number of workers.
      */
-    public int importCustomersFromString(String csvContent) {
-        int importedCount = 0;
-        try (BufferedReader reader = new BufferedReader(new StringReader(csvContent))) {
-            String line = reader.readLine(); // read header
-            // expect "UUID,Anrede,Vorname,Nachname,Geburtsdatum"
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                // Split by comma
-                String[] parts = line.split(",");
-                if (parts.length < 4) {
-                    // Not enough columns (some lines may have no birthdate)
-                    continue;
-                }
+    public ImportSummary importAll(Path customersFile, Collection<Path> readingFiles) {
+        return importAll(customersFile, readingFiles, DatabaseConfig.getImportFileWorkers());
+    }
 
-                String uuidStr = parts[0].trim();
-                String anrede = parts[1].trim();
-                String vorname = parts[2].trim();
-                String nachname = parts[3].trim();
-                String geburtsdatum = (parts.length > 4) ? parts[4].trim() : "";
-
-                Customer c = new Customer();
-                c.setId(UUID.fromString(uuidStr));
-                c.setFirstName(vorname);
-                c.setLastName(nachname);
-                c.setGender(mapAnredeToGender(anrede));
-                c.setBirthDate(parseDateOrNull(geburtsdatum));
-
-                customerDAO.create(c);
-                importedCount++;
+    /**
+     * Imports the customers file, then the readings files in parallel on up to {@code workers}
+     * threads. Each file is imported on its own by one worker, with its own batches; every
+     * batch borrows a pool connection only while it is written. A file that cannot be read or
+     * is rejected is recorded in the summary and does not stop the others.
+     * <p>
+     * Files are read through a {@link FileChannel} and decoded as UTF-8. A file whose content
+     * was imported before (see {@link ImportedFileDAO}) is skipped, except with in-memory
+     * storage. The meter kind comes from the file name if it contains heizung, strom or wasser,
+     * and from the header block otherwise.
+     *
+     * @param customersFile a customers CSV, or null if the customers already exist
+     * @param readingFiles  readings CSVs, e.g. one per meter and month
+     * @return per-file results in the order of {@code readingFiles}; if the calling thread is
+     *         interrupted, running files are stopped and the rest are reported as cancelled
+     */
+    public ImportSummary importAll(Path customersFile, Collection<Path> readingFiles, int workers) {
+        List<CsvFile> files = new ArrayList<>();
+        for (Path file : readingFiles) {
+            files.add(CsvFile.of(file));
+        }
+        return importFiles(customersFile != null ? List.of(CsvFile.of(customersFile)) : List.of(), files, workers);
+    }
+
+    /**
+     * Like {@link #importFrom(Path, int)} with the default number of workers.
+     */
+    public ImportSummary importFrom(Path directoryOrZip) throws IOException {
+        return importFrom(directoryOrZip, DatabaseConfig.getImportFileWorkers());
+    }
+
+    /**
+     * Imports every *.csv file in a directory (including subdirectories) or a ZIP archive, as
+     * {@link #importAll(Path, Collection, int)} does. Files whose name starts with "kunden"
+     * are customer files and are imported first; all others are readings files. Re-running
+     * the import over a grown archive only loads the files that are new.
+     *
+     * @throws IOException if the directory or archive itself cannot be read
+     */
+    public ImportSummary importFrom(Path directoryOrZip, int workers) throws IOException {
+        if (Files.isDirectory(directoryOrZip)) {
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(directoryOrZip)) {
+                paths = walk.filter(Files::isRegularFile)
+                        .filter(path -> isCsv(path.getFileName().toString()))
+                        .sorted()
+                        .collect(Collectors.toList());
             }
+            List<CsvFile> files = new ArrayList<>();
+            for (Path path : paths) {
+                files.add(CsvFile.of(path));
+            }
+            return importFiles(files, workers);
+        }
+        try (ZipFile zip = new ZipFile(directoryOrZip.toFile(), StandardCharsets.UTF_8)) {
+            List<CsvFile> files = new ArrayList<>();
+            zip.stream()
+                    .filter(entry -> !entry.isDirectory() && isCsv(entry.getName()))
+                    .sorted(Comparator.comparing(ZipEntry::getName))
+                    .forEach(entry -> files.add(CsvFile.of(directoryOrZip, zip, entry)));
+            return importFiles(files, workers);
+        }
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    private ImportSummary importFiles(List<CsvFile> files, int workers) {
+        List<CsvFile> customerFiles = new ArrayList<>();
+        List<CsvFile> readingFiles = new ArrayList<>();
+        for (CsvFile file : files) {
+            (file.fileName.toLowerCase().startsWith("kunden") ? customerFiles : readingFiles).add(file);
         }
-        return importedCount;
+        return importFiles(customerFiles, readingFiles, workers);
+    }
+
+    private ImportSummary importFiles(List<CsvFile> customerFiles, List<CsvFile> readingFiles, int workers) {
+        long started = System.currentTimeMillis();
+        ImportSummary summary = new ImportSummary();
+        for (CsvFile file : customerFiles) {
+            summary.getCustomers().add(importFile(file, "customers"));
+        }
+
+        if (!readingFiles.isEmpty()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, readingFiles.size())),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "import-file-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            try {
+                List<Future<ImportResult>> futures = new ArrayList<>();
+                for (CsvFile file : readingFiles) {
+                    futures.add(pool.submit(() -> importFile(file, "readings")));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    summary.getFiles().add(awaitFile(futures.get(i), readingFiles.get(i)));
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        summary.setDurationMillis(System.currentTimeMillis() - started);
+        return summary;
+    }
+
+    private static boolean isCsv(String name) {
+        return name.toLowerCase().endsWith(".csv");
     }
 
     /**
-     * Import readings from CSV string content
-     * @param csvContent the CSV content as string
-     * @return number of readings imported
+     * Imports one customers or readings file unless its content was imported before; any
+     * failure is recorded in the result. The claim on the content hash is given up again if
+     * the file fails or is rejected, so it can be imported once the cause is fixed.
      */
-    public int importReadingsFromString(String csvContent) {
-        int importedCount = 0;
-        try (BufferedReader reader = new BufferedReader(new StringReader(csvContent))) {
-            // Determine meter kind from content analysis
-            IReading.KindOfMeter kindOfMeter = determineMeterKindFromContent(csvContent);
-
-            UUID customerId = null;
-            String meterId = null;
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.equals(";;")) continue;
-
-                // "Kunde";"ec617965-88b4-4721-8158-ee36c38e4db3";
-                // "Zählernummer";"Xr-2018-2312456ab";
-                if (line.startsWith("\"Kunde\"") || line.startsWith("Kunde")) {
-                    String[] parts = line.split(";");
-                    if (parts.length > 1) {
-                        customerId = extractUuid(parts[1]);
-                    }
-                } else if (line.startsWith("\"Zählernummer\"") || line.startsWith("Zählernummer")) {
-                    String[] parts = line.split(";");
-                    if (parts.length > 1) {
-                        meterId = stripQuotes(parts[1]);
-                    }
-                } else if (line.contains("Datum") && line.contains("Zählerstand")) {
-                    // This is the header line for readings
-                    break;
-                }
+    private ImportResult importFile(CsvFile file, String type) {
+        ImportResult result = new ImportResult(type);
+        result.setSource(file.name);
+        byte[] hash = null;
+        try {
+            ByteBuffer content = file.read();
+            hash = importedFileDAO != null ? sha256(content) : null;
+            if (hash != null && !importedFileDAO.claim(hash, file.name)) {
+                hash = null;
+                result.setAlreadyImported(true);
+                result.setMessage("Skipped " + file.name + ": the same content was imported before");
+                return result;
             }
 
-            if (customerId == null || meterId == null) {
-                System.out.println("Could not extract customerId or meterId from CSV content");
-                return importedCount;
+            Reader reader = new ByteBufferReader(content);
+            if ("customers".equals(type)) {
+                importCustomerRows(reader, result);
+            } else {
+                IReading.KindOfMeter kindOfMeter = determineMeterKindFromFilename(file.fileName.toLowerCase());
+                importReadingFile(reader, kindOfMeter == IReading.KindOfMeter.UNBEKANNT ? null : kindOfMeter,
+                        "file: " + file.name, result);
             }
+        } catch (IOException | RuntimeException e) {
+            result.setRejected(true);
+            result.setMessage("Failed to import " + file.name + ": " + e);
+        }
 
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+        if (hash != null) {
+            if (result.isRejected()) {
+                importedFileDAO.release(hash);
+            } else {
+                importedFileDAO.complete(hash, result.getImported());
+            }
+        }
+        return result;
+    }
 
-                String[] parts = line.split(";");
-                if (parts.length < 2) {
-                    continue;
-                }
+    private static byte[] sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 
-                String dateStr = stripQuotes(parts[0].trim());
-                String readingStr = parts.length > 1 ? parts[1].trim() : "";
-                String comment = parts.length > 2 ? stripQuotes(parts[2].trim()) : "";
+    private ImportResult awaitFile(Future<ImportResult> future, CsvFile file) {
+        try {
+            if (!Thread.currentThread().isInterrupted()) {
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            // Keep the flag so the remaining files are cancelled too
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            return failedFile(file, "Failed to import " + file.name + ": " + e.getCause());
+        }
+        future.cancel(true);
+        return failedFile(file, "Import of " + file.name + " cancelled");
+    }
 
-                if (dateStr.isEmpty() || readingStr.isEmpty()) {
-                    continue;
+    private static ImportResult failedFile(CsvFile file, String message) {
+        ImportResult result = new ImportResult("readings");
+        result.setSource(file.name);
+        result.setRejected(true);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * A CSV file on disk or in a ZIP archive, read completely when its import starts.
+     */
+    private static final class CsvFile {
+        // Smaller files are copied to the heap; mapping them costs more than it saves
+        private static final long MAP_THRESHOLD = 256 * 1024;
+
+        private final String name;
+        private final String fileName;
+        private final ContentSource source;
+
+        private CsvFile(String name, String fileName, ContentSource source) {
+            this.name = name;
+            this.fileName = fileName;
+            this.source = source;
+        }
+
+        static CsvFile of(Path path) {
+            return new CsvFile(path.toString(), path.getFileName().toString(), () -> {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size > Integer.MAX_VALUE) {
+                        throw new IOException("File too large to import: " + path);
+                    }
+                    if (size >= MAP_THRESHOLD) {
+                        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    }
+                    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // read until full or end of file
+                    }
+                    return buffer.flip();
                 }
+            });
+        }
 
-                LocalDate date = parseDateOrNull(dateStr);
-                Double meterCount = parseDoubleWithComma(readingStr);
-
-                Reading r = new Reading();
-                r.setId(UUID.randomUUID());
-                r.setCustomer(customerDAO.findById(customerId));
-                r.setMeterId(meterId);
-                r.setKindOfMeter(kindOfMeter);
-                r.setDateOfReading(date);
-                r.setMeterCount(meterCount);
-                r.setComment(comment);
-                r.setSubstitute(false); // Not indicated otherwise
-
-                readingDAO.create(r);
-                importedCount++;
-            }
+        // Entries are inflated into memory; compressed data cannot be mapped
+        static CsvFile of(Path archive, ZipFile zip, ZipEntry entry) {
+            String entryName = entry.getName();
+            return new CsvFile(archive + "!/" + entryName, entryName.substring(entryName.lastIndexOf('/') + 1), () -> {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    return ByteBuffer.wrap(in.readAllBytes());
+                }
+            });
+        }
 
+        ByteBuffer read() throws IOException {
+            return source.read();
+        }
+
+        private interface ContentSource {
+            ByteBuffer read() throws IOException;
+        }
+    }
+
+    /**
+     * Import customers from CSV string content
+     * @param csvContent the CSV content as string
+     * @return number of customers imported
+     */
+    public int importCustomersFromString(String csvContent) {
+        int importedCount = 0;
+        try (Reader reader = new StringReader(csvContent)) {
+            importedCount = (int) importCustomerRows(reader, new ImportResult("customers")).getImported();
         } catch (IOException e) {
             e.printStackTrace();
         }
         return importedCount;
     }
 
-    public void importCustomers(String csvPath) {
-        try (BufferedReader reader = getResourceReader(csvPath)) {
-            String line = reader.readLine(); // read header
-            // expect "UUID,Anrede,Vorname,Nachname,Geburtsdatum"
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                // Split by comma
-                String[] parts = line.split(",");
-                if (parts.length < 4) {
-                    // Not enough columns (some lines may have no birthdate)
-                    continue;
-                }
+    /**
+     * Import readings from CSV string content
+     * @param csvContent the CSV content as string
+     * @return number of readings imported
+     */
+    public int importReadingsFromString(String csvContent) {
+        int importedCount = 0;
+        try (Reader reader = new StringReader(csvContent)) {
+            // Meter kind is detected from the header block
+            importedCount = (int) importReadingFile(reader, null, "CSV content", new ImportResult("readings")).getImported();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return importedCount;
+    }
 
-                String uuidStr = parts[0].trim();
-                String anrede = parts[1].trim();
-                String vorname = parts[2].trim();
-                String nachname = parts[3].trim();
-                String geburtsdatum = (parts.length > 4) ? parts[4].trim() : "";
+    /**
+     * Import customers from a UTF-8 CSV stream. Lines are parsed and inserted as they are
+     * read, so memory use does not depend on the size of the upload.
+     * @param csvStream the CSV content; it is consumed but not closed
+     * @return counts of lines read and customers imported
+     */
+    public ImportResult importCustomersFromStream(InputStream csvStream) throws IOException {
+        return importCustomersFromStream(csvStream, new ImportResult("customers"));
+    }
 
-                Customer c = new Customer();
-                c.setId(UUID.fromString(uuidStr));
-                c.setFirstName(vorname);
-                c.setLastName(nachname);
-                c.setGender(mapAnredeToGender(anrede));
-                c.setBirthDate(parseDateOrNull(geburtsdatum));
+    /**
+     * Like {@link #importCustomersFromStream(InputStream)}, but counts into {@code progress} as
+     * rows are processed so another thread can report on a running import. Interrupting the
+     * importing thread stops it between rows with an {@link InterruptedIOException}; batches
+     * committed before that stay in the database.
+     */
+    public ImportResult importCustomersFromStream(InputStream csvStream, ImportResult progress) throws IOException {
+        Reader reader = new InputStreamReader(csvStream, StandardCharsets.UTF_8);
+        return importCustomerRows(reader, progress);
+    }
 
-                customerDAO.create(c);
-            }
+    /**
+     * Import readings from a UTF-8 CSV stream. The meter kind is detected from the header
+     * block; data lines are parsed and inserted as they are read.
+     * @param csvStream the CSV content; it is consumed but not closed
+     * @return counts of lines read and readings imported, or a rejected result if the header
+     *         lacks a known customer or meter id
+     */
+    public ImportResult importReadingsFromStream(InputStream csvStream) throws IOException {
+        return importReadingsFromStream(csvStream, new ImportResult("readings"));
+    }
+
+    /**
+     * Like {@link #importReadingsFromStream(InputStream)}, but counts into {@code progress} as
+     * rows are processed. Interruption is handled as for
+     * {@link #importCustomersFromStream(InputStream, ImportResult)}.
+     */
+    public ImportResult importReadingsFromStream(InputStream csvStream, ImportResult progress) throws IOException {
+        Reader reader = new InputStreamReader(csvStream, StandardCharsets.UTF_8);
+        return importReadingFile(reader, null, "CSV content", progress);
+    }
 
+    public void importCustomers(String csvPath) {
+        try (BufferedReader reader = getResourceReader(csvPath)) {
+            importCustomerRows(reader, new ImportResult("customers"));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -209,121 +418,229 @@ public class CSVImporter {
             String fileName = csvPath.toLowerCase();
             IReading.KindOfMeter kindOfMeter = determineMeterKindFromFilename(fileName);
 
-            UUID customerId = null;
-            String meterId = null;
+            importReadingFile(reader, kindOfMeter, "file: " + csvPath, new ImportResult("readings"));
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.equals(";;")) continue;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-                // "Kunde";"ec617965-88b4-4721-8158-ee36c38e4db3";
-                // "Zählernummer";"Xr-2018-2312456ab";
-                if (line.startsWith("\"Kunde\"") || line.startsWith("Kunde")) {
-                    String[] parts = line.split(";");
-                    if (parts.length > 1) {
-                        customerId = extractUuid(parts[1]);
-                    }
-                } else if (line.startsWith("\"Zählernummer\"") || line.startsWith("Zählernummer")) {
-                    String[] parts = line.split(";");
-                    if (parts.length > 1) {
-                        meterId = stripQuotes(parts[1]);
-                    }
-                } else if (line.contains("Datum") && line.contains("Zählerstand")) {
-                    // This is the header line for readings
-                    break;
-                }
+    /**
+     * Reads a customers CSV ("UUID,Anrede,Vorname,Nachname,Geburtsdatum") after its header
+     * line and stores the rows in batches of db.batch.size, one transaction each.
+     */
+    private ImportResult importCustomerRows(Reader reader, ImportResult result) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Customer> batch = new ArrayList<>();
+        int batchSize = DatabaseConfig.getBatchSize();
+
+        CsvTokenizer csv = new CsvTokenizer(reader, ',');
+        csv.next(); // read header
+        // expect "UUID,Anrede,Vorname,Nachname,Geburtsdatum"
+
+        while (csv.next()) {
+            if (csv.isBlank()) continue;
+            checkInterrupted();
+            result.setLinesRead(result.getLinesRead() + 1);
+
+            if (csv.getNonEmptyFieldCount() < 4) {
+                // Not enough columns (some lines may have no birthdate)
+                continue;
             }
 
-            if (customerId == null || meterId == null) {
-                System.out.println("Could not extract customerId or meterId from file: " + csvPath);
-                return;
+            Customer c = new Customer();
+            c.setId(csv.getUuid(0));
+            c.setGender(mapAnredeToGender(csv, 1));
+            c.setFirstName(csv.getString(2));
+            c.setLastName(csv.getString(3));
+            c.setBirthDate(csv.getFieldCount() > 4 ? csv.getDate(4) : null);
+
+            batch.add(c);
+            if (batch.size() >= batchSize) {
+                storeCustomers(batch, result);
+                batch.clear();
             }
+        }
+        storeCustomers(batch, result);
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        return result;
+    }
 
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(";");
-                if (parts.length < 2) {
-                    continue;
-                }
-
-                String dateStr = stripQuotes(parts[0].trim());
-                String readingStr = parts.length > 1 ? parts[1].trim() : "";
-                String comment = parts.length > 2 ? stripQuotes(parts[2].trim()) : "";
+    /**
+     * Reads one readings file: header block first, then the data rows. The file is rejected
+     * before any row is parsed if the header has no customer or meter id, or the customer is
+     * unknown.
+     * @param kindOfMeter the meter kind, or null to detect it from the header block
+     * @param source describes the input in log messages
+     */
+    private ImportResult importReadingFile(Reader reader, IReading.KindOfMeter kindOfMeter,
+                                           String source, ImportResult result) throws IOException {
+        long started = System.currentTimeMillis();
+
+        CsvTokenizer csv = new CsvTokenizer(reader, ';');
+        ReadingFileHeader header = readReadingHeader(csv, kindOfMeter);
+        if (header.customerId == null || header.meterId == null) {
+            reject(result, "Could not extract customerId or meterId from " + source);
+        } else if (!resolveCustomer(header)) {
+            reject(result, "Unknown customer " + header.customerId + ", rejecting " + source);
+        } else {
+            importReadingRows(csv, header, result);
+        }
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        return result;
+    }
 
-                if (dateStr.isEmpty() || readingStr.isEmpty()) {
-                    continue;
-                }
+    private void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import cancelled");
+        }
+    }
 
-                LocalDate date = parseDateOrNull(dateStr);
-                Double meterCount = parseDoubleWithComma(readingStr);
+    private void reject(ImportResult result, String message) {
+        System.out.println(message);
+        result.setRejected(true);
+        result.setMessage(message);
+    }
 
-                Reading r = new Reading();
-                r.setId(UUID.randomUUID());
-                r.setCustomer(customerDAO.findById(customerId));
-                r.setMeterId(meterId);
-                r.setKindOfMeter(kindOfMeter);
-                r.setDateOfReading(date);
-                r.setMeterCount(meterCount);
-                r.setComment(comment);
-                r.setSubstitute(false); // Not indicated otherwise
+    /**
+     * Metadata from the block above the "Datum;Zählerstand" line of a readings file. It is
+     * the same for every row, so it is parsed and validated once per file.
+     */
+    private static final class ReadingFileHeader {
+        private UUID customerId;
+        private String meterId;
+        private IReading.KindOfMeter kindOfMeter;
+        private ICustomer customer;
+    }
 
-                readingDAO.create(r);
+    /**
+     * Reads the metadata block up to and including the column header line, leaving the
+     * tokenizer positioned before the first data row.
+     */
+    private ReadingFileHeader readReadingHeader(CsvTokenizer csv, IReading.KindOfMeter kindOfMeter) throws IOException {
+        ReadingFileHeader header = new ReadingFileHeader();
+        header.kindOfMeter = kindOfMeter;
+        // Only the header block is kept for meter kind detection, never the data rows
+        StringBuilder headerBlock = new StringBuilder();
+
+        while (csv.next()) {
+            if (csv.isBlank()) continue;
+            String line = csv.getRecord();
+            if (kindOfMeter == null && headerBlock.length() < MAX_HEADER_BLOCK_CHARS) {
+                headerBlock.append(line).append('\n');
             }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+            // "Kunde";"ec617965-88b4-4721-8158-ee36c38e4db3";
+            // "Zählernummer";"Xr-2018-2312456ab";
+            boolean hasValue = csv.getFieldCount() > 1 && !csv.isEmpty(1);
+            if (csv.startsWith(0, "Kunde")) {
+                if (hasValue) {
+                    header.customerId = csv.getUuid(1);
+                }
+            } else if (csv.startsWith(0, "Zählernummer")) {
+                if (hasValue) {
+                    header.meterId = csv.getString(1);
+                }
+            } else if (line.contains("Datum") && line.contains("Zählerstand")) {
+                // This is the header line for readings
+                break;
+            }
         }
+        if (kindOfMeter == null) {
+            header.kindOfMeter = determineMeterKindFromContent(headerBlock.toString());
+        }
+        return header;
     }
 
-    private BufferedReader getResourceReader(String resourcePath) {
-        InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath);
-        if (is == null) {
-            throw new RuntimeException("Resource not found: " + resourcePath);
-        }
-        return new BufferedReader(new InputStreamReader(is));
+    /**
+     * Looks the header's customer up once; every reading of the file shares that instance.
+     *
+     * @return false if the customer does not exist
+     */
+    private boolean resolveCustomer(ReadingFileHeader header) {
+        header.customer = customerDAO.findById(header.customerId);
+        return header.customer != null;
     }
 
-    private ICustomer.Gender mapAnredeToGender(String anrede) {
-        anrede = anrede.toLowerCase();
-        if (anrede.equals("herr")) return ICustomer.Gender.M;
-        if (anrede.equals("frau")) return ICustomer.Gender.W;
-        if (anrede.equals("divers")) return ICustomer.Gender.D;
-        return ICustomer.Gender.U;
+    /**
+     * Parses the data rows and stores them in batches of db.batch.size, one transaction each,
+     * or in bulk-load mode hands db.bulk.rows rows at a time to LOAD DATA LOCAL INFILE.
+     * The loop does no database lookups, and dates and counts are parsed from the tokenizer's
+     * buffer without intermediate strings.
+     */
+    private void importReadingRows(CsvTokenizer csv, ReadingFileHeader header, ImportResult result) throws IOException {
+        List<Reading> batch = new ArrayList<>();
+        int batchSize = bulkLoader != null && bulkLoader.isBulkLoading()
+                ? DatabaseConfig.getBulkLoadRows() : DatabaseConfig.getBatchSize();
+
+        while (csv.next()) {
+            if (csv.isBlank()) continue;
+            checkInterrupted();
+            result.setLinesRead(result.getLinesRead() + 1);
+
+            // "Datum";"Zählerstand";"Kommentar" - columns after the comment are ignored
+            if (csv.getFieldCount() < 2 || csv.isEmpty(0) || csv.isEmpty(1)) {
+                continue;
+            }
+            double meterCount = csv.getDecimal(1);
+
+            Reading r = new Reading();
+            r.setId(Uuids.timeOrdered());
+            r.setCustomer(header.customer);
+            r.setMeterId(header.meterId);
+            r.setKindOfMeter(header.kindOfMeter);
+            r.setDateOfReading(csv.getDate(0));
+            r.setMeterCount(Double.isNaN(meterCount) ? null : meterCount);
+            r.setComment(csv.getFieldCount() > 2 && !csv.isEmpty(2) ? csv.getString(2) : "");
+            r.setSubstitute(false); // Not indicated otherwise
+
+            batch.add(r);
+            if (batch.size() >= batchSize) {
+                storeReadings(batch, result);
+                batch.clear();
+            }
+        }
+        storeReadings(batch, result);
     }
 
-    private LocalDate parseDateOrNull(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) return null;
-        try {
-            return LocalDate.parse(dateStr, DATE_FORMATTER);
-        } catch (DateTimeParseException e) {
-            return null;
+    private void storeCustomers(List<Customer> batch, ImportResult result) {
+        if (upsert) {
+            addCounts(result, customerDAO.upsertAll(batch));
+        } else {
+            result.setImported(result.getImported() + customerDAO.createAll(batch));
         }
     }
 
-    private Double parseDoubleWithComma(String numberStr) {
-        if (numberStr == null || numberStr.isEmpty()) return null;
-        // Replace comma with dot
-        numberStr = numberStr.replace(',', '.');
-        try {
-            return Double.parseDouble(numberStr);
-        } catch (NumberFormatException e) {
-            return null;
+    // LOAD DATA LOCAL skips rows whose meter and date are stored already, it never updates
+    private void storeReadings(List<Reading> batch, ImportResult result) {
+        if (bulkLoader != null) {
+            result.setImported(result.getImported() + bulkLoader.createAll(batch));
+        } else if (upsert) {
+            addCounts(result, readingDAO.upsertAll(batch));
+        } else {
+            result.setImported(result.getImported() + readingDAO.createAll(batch));
         }
     }
 
-    private UUID extractUuid(String str) {
-        str = stripQuotes(str.trim());
-        return UUID.fromString(str);
+    private static void addCounts(ImportResult result, UpsertCounts counts) {
+        result.setImported(result.getImported() + counts.getInserted() + counts.getUpdated());
+        result.setUpdated(result.getUpdated() + counts.getUpdated());
     }
 
-    private String stripQuotes(String str) {
-        if (str.startsWith("\"") && str.endsWith("\"")) {
-            return str.substring(1, str.length()-1);
+    private BufferedReader getResourceReader(String resourcePath) {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath);
+        if (is == null) {
+            throw new RuntimeException("Resource not found: " + resourcePath);
         }
-        return str;
+        return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+    }
+
+    // Compared in the tokenizer's buffer, ignoring case
+    private ICustomer.Gender mapAnredeToGender(CsvTokenizer csv, int field) {
+        if (csv.equalsIgnoreCase(field, "herr")) return ICustomer.Gender.M;
+        if (csv.equalsIgnoreCase(field, "frau")) return ICustomer.Gender.W;
+        if (csv.equalsIgnoreCase(field, "divers")) return ICustomer.Gender.D;
+        return ICustomer.Gender.U;
     }
 
     private IReading.KindOfMeter determineMeterKindFromFilename(String filename) {
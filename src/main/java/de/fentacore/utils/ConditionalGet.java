@@ -0,0 +1,63 @@
+package de.fentacore.utils;
+
+import de.fentacore.config.ChangeTracker;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Date;
+
+/**
+ * ETag / Last-Modified validators for a list endpoint, derived from the
+ * {@link ChangeTracker} versions of the tables the list is read from.
+ * <p>
+ * Take the validators before querying: a write that lands while the rows are being read then
+ * yields a newer tag on the next poll instead of pinning the client to a stale list.
+ */
+public final class ConditionalGet {
+
+    private final EntityTag tag;
+    private final Date lastModified;
+
+    private ConditionalGet(EntityTag tag, Date lastModified) {
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    public static ConditionalGet of(String... tables) {
+        // Weak, because the same list may be sent gzip- or deflate-encoded
+        return new ConditionalGet(new EntityTag(ChangeTracker.getTag(tables), true),
+                ChangeTracker.getLastModified(tables));
+    }
+
+    /**
+     * @return a 304 Not Modified response if the client's copy is current, otherwise null
+     */
+    public Response notModified(Request request) {
+        if (request == null) {
+            return null;
+        }
+        Response.ResponseBuilder builder = request.evaluatePreconditions(lastModified, tag);
+        return builder != null ? apply(builder).build() : null;
+    }
+
+    /**
+     * Adds the validators to a 200 response. no-cache makes browsers revalidate on every poll
+     * rather than reuse the list on a heuristic freshness guess.
+     */
+    public Response.ResponseBuilder apply(Response.ResponseBuilder builder) {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return builder.tag(tag).lastModified(lastModified).cacheControl(cacheControl);
+    }
+
+    public EntityTag getTag() {
+        return tag;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,488 @@
+package de.fentacore.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Splits delimited text into records and fields without creating a String per line or field.
+ * Characters are read into one buffer and a field is an offset range in it, valid until the
+ * next call to {@link #next()}. Only the accessors that return objects allocate.
+ * <p>
+ * Quoting follows RFC 4180: a quoted field may contain delimiters, line breaks and doubled
+ * quotes (""), which are unescaped in place. Unquoted fields are trimmed like
+ * {@link String#trim()}. Lines may end with \n, \r\n or \r.
+ * <p>
+ * {@link #getDateValue} and {@link #getDecimal} read the formats of the import files
+ * (dd.MM.yyyy, decimal comma) straight from the buffer into primitives.
+ */
+public final class CsvTokenizer {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    // Exact as doubles, like any integer of up to 15 digits, so one division rounds correctly
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private char[] buf = new char[64 * 1024];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    // Fields of the current record as [start, end) offsets into buf
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+
+    // Offsets that must move along when the buffer is compacted mid-record
+    private int recordStart;
+    private int fieldStart;
+    private int write;
+
+    public CsvTokenizer(Reader reader, char delimiter) {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false at the end of the input
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordStart = pos;
+        if (peek() < 0) {
+            return false;
+        }
+        while (readField() == delimiter) {
+            // one more field on this record
+        }
+        return true;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Number of fields up to the last non-empty one, like {@link String#split} counts them.
+     */
+    public int getNonEmptyFieldCount() {
+        int count = fieldCount;
+        while (count > 0 && isEmpty(count - 1)) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * True for a record without any content, e.g. an empty or whitespace-only line or ";;".
+     */
+    public boolean isBlank() {
+        return getNonEmptyFieldCount() == 0;
+    }
+
+    public boolean isEmpty(int field) {
+        return length(field) == 0;
+    }
+
+    public int length(int field) {
+        checkField(field);
+        return ends[field] - starts[field];
+    }
+
+    public String getString(int field) {
+        checkField(field);
+        return new String(buf, starts[field], ends[field] - starts[field]);
+    }
+
+    public boolean startsWith(int field, String prefix) {
+        checkField(field);
+        return ends[field] - starts[field] >= prefix.length() && regionMatches(field, prefix, false);
+    }
+
+    public boolean equalsIgnoreCase(int field, String value) {
+        checkField(field);
+        return ends[field] - starts[field] == value.length() && regionMatches(field, value, true);
+    }
+
+    /**
+     * The whole record with its fields unquoted and joined by the delimiter.
+     */
+    public String getRecord() {
+        StringBuilder record = new StringBuilder();
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                record.append(delimiter);
+            }
+            record.append(buf, starts[i], ends[i] - starts[i]);
+        }
+        return record.toString();
+    }
+
+    /**
+     * @return the date of a dd.MM.yyyy field, or null if it is empty or not a valid date
+     */
+    public LocalDate getDate(int field) {
+        return toLocalDate(getDateValue(field));
+    }
+
+    /**
+     * Like {@link #getDate}, but as the number yyyyMMdd (20180201), or -1 for no valid date.
+     */
+    public long getDateValue(int field) {
+        checkField(field);
+        return parseDate(buf, starts[field], ends[field]);
+    }
+
+    /**
+     * @return the number in the field, or NaN if it is empty or not a number
+     */
+    public double getDecimal(int field) {
+        checkField(field);
+        return parseDecimal(buf, starts[field], ends[field]);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the field is not a UUID, as {@link UUID#fromString} does
+     */
+    public UUID getUuid(int field) {
+        checkField(field);
+        return parseUuid(buf, starts[field], ends[field]);
+    }
+
+    /**
+     * Parses dd.MM.yyyy the way {@code DateTimeFormatter.ofPattern("dd.MM.yyyy")} does, including
+     * its smart resolving: a day past the end of the month (31.04.) becomes the last day.
+     *
+     * @return the date as the number yyyyMMdd, or -1 if the text is empty or not a valid date
+     */
+    public static long parseDate(char[] chars, int from, int to) {
+        if (to - from != 10) {
+            // Only signed years with more than four digits are valid otherwise
+            return to > from ? parseDateSlow(new String(chars, from, to - from)) : -1;
+        }
+        int day = twoDigits(chars, from);
+        int month = twoDigits(chars, from + 3);
+        int century = twoDigits(chars, from + 6);
+        int yearOfCentury = twoDigits(chars, from + 8);
+        int year = century * 100 + yearOfCentury;
+        if (chars[from + 2] != '.' || chars[from + 5] != '.' || day < 1 || day > 31
+                || month < 1 || month > 12 || century < 0 || yearOfCentury < 0 || year < 1) {
+            return -1;
+        }
+        day = Math.min(day, Month.of(month).length(Year.isLeap(year)));
+        return year * 10000L + month * 100 + day;
+    }
+
+    public static LocalDate parseLocalDate(String text) {
+        return text == null ? null : toLocalDate(parseDate(text.toCharArray(), 0, text.length()));
+    }
+
+    /**
+     * Parses a decimal number with a comma or a point as separator. Plain numbers up to 15
+     * digits are computed directly; anything else (exponents, more digits) goes through
+     * {@link Double#parseDouble}, so the result is the same either way.
+     *
+     * @return the number, or NaN if the text is empty or not a number
+     */
+    public static double parseDecimal(char[] chars, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if ((c == ',' || c == '.') && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseDecimalSlow(chars, from, to);
+            }
+            if (digits > 15) {
+                return parseDecimalSlow(chars, from, to);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double value = mantissa;
+        if (fractionDigits > 0) {
+            value /= POWERS_OF_TEN[fractionDigits];
+        }
+        return negative ? -value : value;
+    }
+
+    public static double parseDecimal(String text) {
+        return text == null ? Double.NaN : parseDecimal(text.toCharArray(), 0, text.length());
+    }
+
+    private static UUID parseUuid(char[] chars, int from, int to) {
+        if (to - from == 36 && chars[from + 8] == '-' && chars[from + 13] == '-'
+                && chars[from + 18] == '-' && chars[from + 23] == '-') {
+            long time = hex(chars, from, from + 8);
+            long mid = hex(chars, from + 9, from + 13);
+            long high = hex(chars, from + 14, from + 18);
+            long sequence = hex(chars, from + 19, from + 23);
+            long node = hex(chars, from + 24, from + 36);
+            if ((time | mid | high | sequence | node) >= 0) {
+                return new UUID(time << 32 | mid << 16 | high, sequence << 48 | node);
+            }
+        }
+        // Other spellings UUID.fromString accepts, and its error message for invalid ones
+        return UUID.fromString(new String(chars, from, to - from));
+    }
+
+    /**
+     * @return the value of up to 12 ASCII hex digits, or -1 if there is any other character
+     */
+    private static long hex(char[] chars, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static int twoDigits(char[] chars, int at) {
+        int high = chars[at] - '0';
+        int low = chars[at + 1] - '0';
+        if (high < 0 || high > 9 || low < 0 || low > 9) {
+            return -1;
+        }
+        return high * 10 + low;
+    }
+
+    private static long parseDateSlow(String text) {
+        try {
+            LocalDate date = LocalDate.parse(text, DATE_FORMATTER);
+            return date.getYear() * 10000L + date.getMonthValue() * 100 + date.getDayOfMonth();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static LocalDate toLocalDate(long value) {
+        if (value < 0) {
+            return null;
+        }
+        return LocalDate.of((int) (value / 10000), (int) (value / 100 % 100), (int) (value % 100));
+    }
+
+    private static double parseDecimalSlow(char[] chars, int from, int to) {
+        try {
+            return Double.parseDouble(new String(chars, from, to - from).replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Reads one field and the character that ended it.
+     *
+     * @return the delimiter, '\n' at the end of the line or -1 at the end of the input
+     */
+    private int readField() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c <= ' ' && c != delimiter && c != '\n' && c != '\r') {
+            pos++;
+        }
+
+        if (c == '"') {
+            pos++;
+            fieldStart = write = pos;
+            while ((c = scanQuoted()) >= 0) {
+                pos++;
+                if (peek() != '"') {
+                    break;
+                }
+                pos++;
+                buf[write++] = '"';
+            }
+            // Text between the closing quote and the delimiter is kept, blanks dropped
+            while ((c = peek()) >= 0 && c != delimiter && c != '\n' && c != '\r') {
+                pos++;
+                if (c > ' ') {
+                    buf[write++] = (char) c;
+                }
+            }
+        } else {
+            fieldStart = write = pos;
+            c = scanUnquoted();
+        }
+        addField(fieldStart, write);
+
+        if (c == '\r') {
+            pos++;
+            if (peek() == '\n') {
+                pos++;
+            }
+            return '\n';
+        }
+        if (c >= 0) {
+            pos++;
+        }
+        return c;
+    }
+
+    /**
+     * Moves past the content of an unquoted field; write ends up after its last non-blank char.
+     * Runs over the buffered chars in a local loop and refills only when they are used up.
+     *
+     * @return the char that ended the field, or -1 at the end of the input
+     */
+    private int scanUnquoted() throws IOException {
+        do {
+            char[] chars = buf;
+            int p = pos;
+            int end = write;
+            while (p < limit) {
+                char c = chars[p];
+                if (c == delimiter || c == '\n' || c == '\r') {
+                    pos = p;
+                    write = end;
+                    return c;
+                }
+                p++;
+                if (c > ' ') {
+                    end = p;
+                }
+            }
+            pos = p;
+            write = end;
+        } while (fill());
+        return -1;
+    }
+
+    /**
+     * Copies quoted content up to the next quote to write, leaving pos on that quote.
+     *
+     * @return '"', or -1 if the input ends first
+     */
+    private int scanQuoted() throws IOException {
+        do {
+            char[] chars = buf;
+            int p = pos;
+            int w = write;
+            while (p < limit) {
+                char c = chars[p];
+                if (c == '"') {
+                    pos = p;
+                    write = w;
+                    return c;
+                }
+                chars[w++] = c;
+                p++;
+            }
+            pos = p;
+            write = w;
+        } while (fill());
+        return -1;
+    }
+
+    private int peek() throws IOException {
+        if (pos >= limit && !fill()) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+    /**
+     * Reads more input, first moving the current record to the front of the buffer (or
+     * growing the buffer if the record already fills it).
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (recordStart > 0) {
+            int shift = recordStart;
+            System.arraycopy(buf, shift, buf, 0, limit - shift);
+            for (int i = 0; i < fieldCount; i++) {
+                starts[i] -= shift;
+                ends[i] -= shift;
+            }
+            limit -= shift;
+            pos -= shift;
+            fieldStart -= shift;
+            write -= shift;
+            recordStart = 0;
+        } else if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int read;
+        while ((read = reader.read(buf, limit, buf.length - limit)) == 0) {
+            // A reader that cannot fit its next character into the space left returns
+            // nothing; give it more room instead of spinning on empty reads
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private boolean regionMatches(int field, String value, boolean ignoreCase) {
+        int start = starts[field];
+        for (int i = 0; i < value.length(); i++) {
+            char a = buf[start + i];
+            char b = value.charAt(i);
+            if (a != b && (!ignoreCase || Character.toLowerCase(a) != Character.toLowerCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " of " + fieldCount);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.fentacore.utils;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.ICustomerDAO;
+import de.fentacore.dao.IReadingDAO;
+import org.glassfish.jersey.internal.inject.AbstractBinder;
+
+/**
+ * Binds one DAO instance per application into Jersey's injection, so resources share them
+ * (and the customer cache) instead of creating DAOs for every request. The DAOs hold no
+ * per-request state and are safe to call from any number of request threads. The CSV importer
+ * and the background import jobs run on the same DAOs.
+ */
+public class DaoBinder extends AbstractBinder {
+
+    private final ICustomerDAO customerDAO;
+    private final IReadingDAO readingDAO;
+    private final CSVImporter csvImporter;
+    private final ImportJobManager importJobManager;
+
+    public DaoBinder() {
+        this(DefaultDaos.customerDAO(), DefaultDaos.readingDAO());
+    }
+
+    public DaoBinder(ICustomerDAO customerDAO, IReadingDAO readingDAO) {
+        this.customerDAO = customerDAO;
+        this.readingDAO = readingDAO;
+        this.csvImporter = new CSVImporter(customerDAO, readingDAO);
+        this.importJobManager = new ImportJobManager(csvImporter,
+                DatabaseConfig.getImportJobWorkers(), DatabaseConfig.getImportJobQueueCapacity());
+    }
+
+    @Override
+    protected void configure() {
+        bind(customerDAO).to(ICustomerDAO.class);
+        bind(readingDAO).to(IReadingDAO.class);
+        bind(csvImporter).to(CSVImporter.class);
+        bind(importJobManager).to(ImportJobManager.class);
+    }
+
+    /**
+     * Stops the import jobs of this application, interrupting running imports.
+     */
+    public void shutdown() {
+        importJobManager.shutdown();
+    }
+}
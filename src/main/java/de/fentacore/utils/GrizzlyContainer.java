@@ -0,0 +1,70 @@
+package de.fentacore.utils;
+
+import de.fentacore.config.ServerConfig;
+import jakarta.ws.rs.core.UriBuilder;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.KeepAlive;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+/**
+ * Grizzly NIO server (server.container=grizzly). Connections are multiplexed by selector
+ * threads, so idle keep-alive connections do not pin a worker; requests run on a worker pool
+ * of server.threads with a queue of server.queueCapacity.
+ */
+public class GrizzlyContainer implements HttpContainer {
+    private HttpServer server;
+
+    @Override
+    public void start(URI uri, ResourceConfig resourceConfig) {
+        // Grizzly binds to the URI host; an unset bind address means all interfaces
+        String bindAddress = ServerConfig.getBindAddress();
+        URI bindUri = UriBuilder.fromUri(uri).host(bindAddress != null ? bindAddress : "0.0.0.0").build();
+
+        HttpServer httpServer = GrizzlyHttpServerFactory.createHttpServer(bindUri, resourceConfig, false);
+        for (NetworkListener listener : httpServer.getListeners()) {
+            KeepAlive keepAlive = listener.getKeepAlive();
+            keepAlive.setIdleTimeoutInSeconds(ServerConfig.getIntProperty("server.keepAlive.idleTimeoutSeconds", 30));
+            keepAlive.setMaxRequestsCount(ServerConfig.getIntProperty("server.keepAlive.maxRequests", 256));
+
+            TCPNIOTransport transport = listener.getTransport();
+            int backlog = ServerConfig.getBacklog();
+            if (backlog > 0) {
+                transport.setServerConnectionBackLog(backlog);
+            }
+            transport.setWorkerThreadPoolConfig(ThreadPoolConfig.defaultConfig()
+                    .setPoolName("http-worker")
+                    .setCorePoolSize(ServerConfig.getThreads())
+                    .setMaxPoolSize(ServerConfig.getThreads())
+                    .setQueueLimit(ServerConfig.getQueueCapacity()));
+        }
+
+        try {
+            httpServer.start();
+        } catch (IOException e) {
+            httpServer.shutdownNow();
+            throw new UncheckedIOException("Could not bind " + bindUri, e);
+        }
+        server = httpServer;
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.shutdownNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "grizzly";
+    }
+}
@@ -0,0 +1,24 @@
+package de.fentacore.utils;
+
+import org.glassfish.jersey.server.ResourceConfig;
+
+import java.net.URI;
+
+/**
+ * An HTTP server hosting the Jersey application. {@link Server} picks the implementation via
+ * server.container, so the same ResourceConfig can run on the JDK server or on Grizzly.
+ */
+public interface HttpContainer {
+
+    /**
+     * Binds and starts the server for {@code uri} (port and context path) and deploys
+     * {@code resourceConfig} there.
+     *
+     * @throws java.io.UncheckedIOException if the port cannot be bound
+     */
+    void start(URI uri, ResourceConfig resourceConfig);
+
+    void stop();
+
+    String getName();
+}
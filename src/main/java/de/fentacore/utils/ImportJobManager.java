@@ -0,0 +1,294 @@
+package de.fentacore.utils;
+
+import de.fentacore.model.ImportJobStatus;
+import de.fentacore.model.ImportResult;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs CSV imports in the background. Uploads are spooled to a temp file, then imported by a
+ * small fixed pool of worker threads; when all workers are busy and the queue is full, new
+ * jobs are refused rather than competing with API requests for database connections.
+ *
+ * {@link DaoBinder} creates one manager per application over the bound {@link CSVImporter},
+ * sized from import.jobs.workers (default 2) and import.jobs.queueCapacity (default 16) in
+ * database.properties. Finished jobs stay queryable for an hour.
+ */
+public class ImportJobManager {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, REJECTED, FAILED, CANCELLED }
+
+    public static final String CUSTOMERS = "customers";
+    public static final String READINGS = "readings";
+
+    private static final long RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final CSVImporter importer;
+
+    public ImportJobManager(CSVImporter importer, int workers, int queueCapacity) {
+        this.importer = importer;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Stops the workers, interrupting running imports. Called when the server stops.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spools {@code upload} to a temp file and queues its import.
+     *
+     * @param type {@link #CUSTOMERS} or {@link #READINGS}
+     * @throws IllegalArgumentException for an unknown type
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ImportJobStatus submit(String type, InputStream upload) throws IOException {
+        if (!CUSTOMERS.equals(type) && !READINGS.equals(type)) {
+            throw new IllegalArgumentException("Unknown import type: " + type);
+        }
+        pruneFinished();
+
+        Path file = Files.createTempFile("import-" + type + "-", ".csv");
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+            ImportJob job = new ImportJob(type, file, Files.size(file));
+            jobs.put(job.id, job);
+            try {
+                job.future = executor.submit(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                throw e;
+            }
+            return job.snapshot();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the job's current status, or null if it is unknown or expired
+     */
+    public ImportJobStatus getStatus(UUID id) {
+        ImportJob job = jobs.get(id);
+        return job != null ? job.snapshot() : null;
+    }
+
+    public List<ImportJobStatus> listJobs() {
+        List<ImportJob> snapshot = new ArrayList<>(jobs.values());
+        snapshot.sort(Comparator.comparingLong(job -> job.submittedAt));
+        List<ImportJobStatus> statuses = new ArrayList<>();
+        for (ImportJob job : snapshot) {
+            statuses.add(job.snapshot());
+        }
+        return statuses;
+    }
+
+    /**
+     * Cancels a queued or running job. Rows committed before the cancellation stay in the
+     * database.
+     *
+     * @return false if the job is unknown or already finished
+     */
+    public boolean cancel(UUID id) {
+        ImportJob job = jobs.get(id);
+        if (job == null || !job.transition(State.CANCELLED, "Import cancelled")) {
+            return false;
+        }
+        Future<?> future = job.future;
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    private void run(ImportJob job) {
+        if (!job.start()) {
+            // Cancelled while still queued
+            deleteQuietly(job.file);
+            return;
+        }
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.file), job.bytesRead)) {
+            if (CUSTOMERS.equals(job.type)) {
+                importer.importCustomersFromStream(in, job.result);
+            } else {
+                importer.importReadingsFromStream(in, job.result);
+            }
+            if (job.result.isRejected()) {
+                job.transition(State.REJECTED, job.result.getMessage());
+            } else {
+                job.transition(State.COMPLETED, null);
+            }
+        } catch (InterruptedIOException e) {
+            job.transition(State.CANCELLED, "Import cancelled");
+        } catch (Exception e) {
+            e.printStackTrace();
+            job.transition(State.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private void pruneFinished() {
+        long cutoff = System.currentTimeMillis() - RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.finishedAt != 0 && job.finishedAt < cutoff);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static final class ImportJob {
+        private final UUID id = Uuids.timeOrdered();
+        private final String type;
+        private final Path file;
+        private final long bytesTotal;
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final ImportResult result;
+        private final long submittedAt = System.currentTimeMillis();
+
+        private volatile Future<?> future;
+        private volatile long startedAt;
+        private volatile long startedNanos;
+        private volatile long finishedAt;
+        private volatile long finishedNanos;
+        private State state = State.QUEUED;
+        private String message;
+
+        private ImportJob(String type, Path file, long bytesTotal) {
+            this.type = type;
+            this.file = file;
+            this.bytesTotal = bytesTotal;
+            this.result = new ImportResult(type);
+        }
+
+        private synchronized boolean start() {
+            if (state != State.QUEUED) {
+                return false;
+            }
+            state = State.RUNNING;
+            startedNanos = System.nanoTime();
+            startedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        /**
+         * Moves to a final state unless the job already has one (e.g. it was cancelled while
+         * the worker was finishing its last batch).
+         */
+        private synchronized boolean transition(State target, String message) {
+            if (state != State.QUEUED && state != State.RUNNING) {
+                return false;
+            }
+            state = target;
+            this.message = message;
+            finishedNanos = System.nanoTime();
+            finishedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        private synchronized ImportJobStatus snapshot() {
+            ImportJobStatus status = new ImportJobStatus();
+            status.setId(id.toString());
+            status.setType(type);
+            status.setState(state.name());
+            status.setMessage(message);
+            status.setSubmittedAt(Instant.ofEpochMilli(submittedAt).toString());
+            if (startedAt != 0) {
+                status.setStartedAt(Instant.ofEpochMilli(startedAt).toString());
+            }
+            if (finishedAt != 0) {
+                status.setFinishedAt(Instant.ofEpochMilli(finishedAt).toString());
+            }
+            long read = bytesRead.get();
+            status.setBytesTotal(bytesTotal);
+            status.setBytesRead(read);
+            status.setLinesRead(result.getLinesRead());
+            status.setImported(result.getImported());
+            status.setSkipped(result.getSkipped());
+
+            if (startedNanos != 0) {
+                long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+                double seconds = Math.max(1e-3, (end - startedNanos) / 1e9);
+                status.setRowsPerSecond(result.getLinesRead() / seconds);
+                if (state == State.RUNNING && read > 0) {
+                    // Remaining bytes at the byte rate seen so far
+                    status.setEtaSeconds(Math.round((bytesTotal - read) * seconds / read));
+                }
+            }
+            return status;
+        }
+    }
+
+    /**
+     * Counts bytes as the importer consumes the spooled file, for progress and ETA.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
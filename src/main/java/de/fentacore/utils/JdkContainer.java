@@ -0,0 +1,198 @@
+package de.fentacore.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import de.fentacore.config.ServerConfig;
+import org.glassfish.jersey.jdkhttp.JdkHttpHandlerContainer;
+import org.glassfish.jersey.server.ContainerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The built-in com.sun.net.httpserver server (server.container=jdk). Blocking I/O; requests
+ * run on the executor chosen by server.executor.
+ */
+public class JdkContainer implements HttpContainer {
+    private HttpServer server;
+    private ExecutorService executor;
+    private ExecutorService exchangeExecutor;
+    private JdkHttpHandlerContainer container;
+
+    @Override
+    public void start(URI uri, ResourceConfig resourceConfig) {
+        // Before binding, so an invalid server.executor does not leave the port open
+        ExecutorService requestExecutor = createExecutor();
+
+        int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+
+        String bindAddress = ServerConfig.getBindAddress();
+        InetSocketAddress address = bindAddress != null
+                ? new InetSocketAddress(bindAddress, port)
+                : new InetSocketAddress(port);
+
+        HttpServer httpServer;
+        try {
+            httpServer = HttpServer.create(address, ServerConfig.getBacklog());
+        } catch (IOException e) {
+            requestExecutor.shutdown();
+            throw new UncheckedIOException("Could not bind " + address, e);
+        }
+
+        JdkHttpHandlerContainer handler = ContainerFactory.createContainer(JdkHttpHandlerContainer.class, resourceConfig);
+
+        // Without an executor the JDK server runs every request on its single dispatcher thread
+        ExecutorService serverExecutor;
+        if (requestExecutor instanceof ThreadPoolExecutor) {
+            // The bounded pool only sees parsed exchanges, so its rejection handler can answer
+            // overflow with a 503; request lines and headers are read on unbounded daemon threads
+            serverExecutor = Executors.newCachedThreadPool(namedDaemonThreads("http-exchange-"));
+            httpServer.createContext(path, exchange -> requestExecutor.execute(new RequestTask(exchange, handler)));
+        } else {
+            serverExecutor = requestExecutor;
+            httpServer.createContext(path, handler);
+        }
+        httpServer.setExecutor(serverExecutor);
+        httpServer.start();
+        handler.getApplicationHandler().onStartup(handler);
+
+        server = httpServer;
+        executor = requestExecutor;
+        exchangeExecutor = serverExecutor != requestExecutor ? serverExecutor : null;
+        container = handler;
+    }
+
+    @Override
+    public void stop() {
+        try {
+            if (server != null) {
+                server.stop(0);
+            }
+            if (container != null) {
+                container.getApplicationHandler().onShutdown(container);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            if (exchangeExecutor != null) {
+                exchangeExecutor.shutdown();
+            }
+            server = null;
+            executor = null;
+            exchangeExecutor = null;
+            container = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "jdk";
+    }
+
+    /**
+     * Builds the request executor selected by server.executor. Virtual threads are looked up
+     * reflectively so the build keeps targeting Java 17; "auto" falls back to the platform pool
+     * on older runtimes.
+     */
+    static ExecutorService createExecutor() {
+        String mode = ServerConfig.getExecutor();
+        if ("virtual".equals(mode) || "auto".equals(mode)) {
+            try {
+                ExecutorService virtual = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                System.out.println("Using virtual thread per request executor");
+                return virtual;
+            } catch (ReflectiveOperationException e) {
+                if ("virtual".equals(mode)) {
+                    System.out.println("Virtual threads need Java 21+, falling back to platform threads");
+                }
+            }
+        }
+
+        int threads = ServerConfig.getThreads();
+        int queueCapacity = ServerConfig.getQueueCapacity();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedDaemonThreads("http-worker-"),
+                // A full pool answers at once instead of running the request on the caller
+                new ServiceUnavailablePolicy());
+        pool.allowCoreThreadTimeOut(true);
+        System.out.println("Using platform thread pool executor (" + threads + " threads, queue " + queueCapacity + ")");
+        return pool;
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs one parsed exchange through the Jersey handler on a pool worker.
+     */
+    static final class RequestTask implements Runnable {
+        private final HttpExchange exchange;
+        private final HttpHandler handler;
+
+        RequestTask(HttpExchange exchange, HttpHandler handler) {
+            this.exchange = exchange;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                handler.handle(exchange);
+            } catch (IOException e) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Answers a request the pool has no room for with 503 and closes its connection.
+     */
+    static final class ServiceUnavailablePolicy implements RejectedExecutionHandler {
+        private static final byte[] BODY = "Server busy, retry later".getBytes(StandardCharsets.UTF_8);
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool) {
+            if (!(task instanceof RequestTask)) {
+                throw new RejectedExecutionException("Request pool is full");
+            }
+            HttpExchange exchange = ((RequestTask) task).exchange;
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                // The request body is left unread, so the connection cannot be reused
+                exchange.getResponseHeaders().set("Connection", "close");
+                exchange.sendResponseHeaders(503, BODY.length);
+                exchange.getResponseBody().write(BODY);
+            } catch (IOException e) {
+                // Client already gone
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.fentacore.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fentacore.dao.RowHandler;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+
+/**
+ * Writes list responses as {@code {"<field>":[...]}} straight to the response stream. Rows are
+ * serialized as the DAO hands them over, so memory use does not grow with the result size.
+ */
+public final class JsonStreaming {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    static {
+        // The container owns the response stream; closing the generator must not close it
+        MAPPER.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Source of rows for a streamed array, typically a DAO method reading a live result set.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(RowHandler<Object> handler) throws IOException;
+    }
+
+    private JsonStreaming() {
+    }
+
+    public static StreamingOutput envelope(String field, RowSource source) {
+        return output -> {
+            try (JsonGenerator generator = MAPPER.createGenerator(output)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart(field);
+                source.forEach(generator::writeObject);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package de.fentacore.utils;
+
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursors for the paginated list endpoints. A cursor encodes the id of the
+ * last row of a page; the next page continues with the rows sorted after it.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private PageCursor() {
+    }
+
+    public static String encode(UUID lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Uuids.toBytes(lastId));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(UUID)}
+     */
+    public static UUID decode(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor.trim());
+        return Uuids.fromBytes(bytes);
+    }
+
+    /**
+     * Parses the limit query parameter; null or blank means {@link #DEFAULT_LIMIT}.
+     *
+     * @throws IllegalArgumentException if it is not an integer between 1 and {@link #MAX_LIMIT}
+     */
+    public static int parseLimit(String limit) {
+        if (limit == null || limit.trim().isEmpty()) {
+            return DEFAULT_LIMIT;
+        }
+        int value = Integer.parseInt(limit.trim());
+        if (value < 1 || value > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit out of range: " + value);
+        }
+        return value;
+    }
+
+    public static boolean isRequested(String limit, String next) {
+        return (limit != null && !limit.trim().isEmpty()) || (next != null && !next.trim().isEmpty());
+    }
+}
@@ -1,50 +1,103 @@
 package de.fentacore.utils;
 
+import de.fentacore.config.ServerConfig;
 import de.fentacore.endpoints.Customers;
+import de.fentacore.endpoints.Metrics;
 import de.fentacore.endpoints.Readings;
 import de.fentacore.rest.CsvImportEndpoint;
-import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
 
 import de.fentacore.endpoints.DbSetup;
 
 
 import java.net.URI;
 
-import com.sun.net.httpserver.HttpServer;
-
 public class Server {
-    private static HttpServer server;
+    private static HttpContainer server;
+    private static DaoBinder daoBinder;
 
     public static void main(final String[] args) {
-        startServer("http://localhost:8080/rest");
+        startServer();
+    }
+
+    /**
+     * Starts the server on the URL configured in server.properties.
+     */
+    public static void startServer() {
+        startServer(ServerConfig.getBaseUri());
     }
 
+    /**
+     * Starts the server on {@code url} using the container selected by server.container.
+     * Port and context path come from the URL; bind address, backlog and threading from
+     * server.properties.
+     */
     public static void startServer(String url) {
+        startServer(url, createContainer(ServerConfig.getContainer()));
+    }
+
+    public static void startServer(String url, HttpContainer container) {
         System.out.println("Starting server...");
         System.out.println(url);
 
-        final ResourceConfig rc = new ResourceConfig()
+        URI uri = URI.create(url);
+        if (!"http".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Expected an http URL with a host: " + url);
+        }
+
+        DaoBinder binder = new DaoBinder();
+        container.start(uri, createResourceConfig(binder));
+        server = container;
+        daoBinder = binder;
+
+        System.out.println("Ready for Requests.... (" + container.getName() + ")");
+    }
+
+    /**
+     * The application with the DAOs bound by {@code daoBinder} injected into its resources.
+     */
+    public static ResourceConfig createResourceConfig(DaoBinder daoBinder) {
+        ResourceConfig rc = new ResourceConfig()
                 .register(DbSetup.class)
                 .register(Customers.class)
                 .register(Readings.class)
-                .register(CsvImportEndpoint.class);
-
-        server = JdkHttpServerFactory.createHttpServer(URI.create(url), rc);
+                .register(Metrics.class)
+                .register(CsvImportEndpoint.class)
+                .register(daoBinder);
+        // Compresses responses with gzip or deflate when the client's Accept-Encoding asks for it
+        EncodingFilter.enableFor(rc, GZipEncoder.class, DeflateEncoder.class);
+        return rc;
+    }
 
-        System.out.println("Ready for Requests....");
+    /**
+     * @param name "jdk" or "grizzly"
+     */
+    public static HttpContainer createContainer(String name) {
+        switch (name) {
+            case "jdk":
+                return new JdkContainer();
+            case "grizzly":
+                return new GrizzlyContainer();
+            default:
+                throw new IllegalArgumentException("Unknown server.container: " + name + ". Valid values: jdk, grizzly");
+        }
     }
 
     public static void stopServer() {
         if (server != null) {
             try {
                 System.out.println("Stopping server...");
-                server.stop(0);
+                server.stop();
                 System.out.println("Server stopped.");
             } catch (Exception e) {
                 System.out.println("Error stopping server: " + e.getMessage());
             } finally {
+                daoBinder.shutdown();
                 server = null;
+                daoBinder = null;
             }
         } else {
             System.out.println("Server is not running.");
@@ -0,0 +1,68 @@
+package de.fentacore.utils;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUID helpers for the database layer.
+ * <p>
+ * {@link #timeOrdered()} creates version 7 UUIDs (RFC 9562): the first 48 bits are the Unix
+ * timestamp in milliseconds, so new keys sort after existing ones and InnoDB appends them to
+ * the end of the primary key index instead of splitting random pages.
+ */
+public final class Uuids {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static long lastTimestamp = -1L;
+    private static int sequence;
+
+    private Uuids() {
+    }
+
+    /**
+     * Creates a new version 7 UUID. Ids created by this JVM are strictly increasing, also
+     * within the same millisecond (the 12-bit rand_a field is used as a counter).
+     */
+    public static UUID timeOrdered() {
+        long timestamp;
+        int counter;
+        synchronized (Uuids.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                // Start low so a burst within one millisecond has room to count up
+                sequence = RANDOM.nextInt(0x800);
+            } else if (++sequence > 0xFFF) {
+                // Counter exhausted: borrow the next millisecond
+                lastTimestamp++;
+                sequence = 0;
+            }
+            timestamp = lastTimestamp;
+            counter = sequence;
+        }
+
+        long msb = (timestamp << 16) | 0x7000L | counter;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("UUID must be 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
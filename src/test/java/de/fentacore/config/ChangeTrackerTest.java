@@ -0,0 +1,45 @@
+package de.fentacore.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeTrackerTest {
+
+    @Test
+    public void testMarkChanged_OnlyAffectsThatTable() {
+        long customers = ChangeTracker.getVersion(ChangeTracker.CUSTOMERS);
+        long readings = ChangeTracker.getVersion(ChangeTracker.READINGS);
+        String readingsTag = ChangeTracker.getTag(ChangeTracker.READINGS);
+        String combinedTag = ChangeTracker.getTag(ChangeTracker.READINGS, ChangeTracker.CUSTOMERS);
+
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+
+        assertEquals(customers + 1, ChangeTracker.getVersion(ChangeTracker.CUSTOMERS));
+        assertEquals(readings, ChangeTracker.getVersion(ChangeTracker.READINGS));
+        assertEquals(readingsTag, ChangeTracker.getTag(ChangeTracker.READINGS));
+        assertNotEquals(combinedTag, ChangeTracker.getTag(ChangeTracker.READINGS, ChangeTracker.CUSTOMERS));
+    }
+
+    @Test
+    public void testMarkAllReset_CountsResetsOnly() {
+        long resets = ChangeTracker.getResets(ChangeTracker.CUSTOMERS);
+        long version = ChangeTracker.getVersion(ChangeTracker.CUSTOMERS);
+
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        assertEquals(resets, ChangeTracker.getResets(ChangeTracker.CUSTOMERS));
+
+        ChangeTracker.markAllReset();
+        assertEquals(resets + 1, ChangeTracker.getResets(ChangeTracker.CUSTOMERS));
+        assertEquals(version + 2, ChangeTracker.getVersion(ChangeTracker.CUSTOMERS));
+    }
+
+    @Test
+    public void testGetLastModified_WholeSeconds() {
+        ChangeTracker.markAllChanged();
+        long lastModified = ChangeTracker.getLastModified(ChangeTracker.CUSTOMERS, ChangeTracker.READINGS).getTime();
+        assertEquals(0, lastModified % 1000);
+        assertTrue(lastModified <= System.currentTimeMillis());
+        assertTrue(lastModified > System.currentTimeMillis() - 5000);
+    }
+}
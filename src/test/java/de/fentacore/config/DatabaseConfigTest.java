@@ -1,5 +1,6 @@
 package de.fentacore.config;
 
+import de.fentacore.model.PoolMetrics;
 import org.junit.jupiter.api.Test;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -35,4 +36,18 @@ public class DatabaseConfigTest {
             fail("Should not throw SQLException: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testConnectionsArePooled() throws SQLException {
+        try (Connection connection = DatabaseConfig.getConnection()) {
+            PoolMetrics metrics = DatabaseConfig.getPoolMetrics();
+            assertTrue(metrics.getActiveConnections() >= 1);
+            assertTrue(metrics.getTotalConnections() <= metrics.getMaximumPoolSize());
+            assertTrue(metrics.getUtilization() > 0.0);
+        }
+
+        // Closing hands the connection back instead of tearing it down
+        PoolMetrics afterClose = DatabaseConfig.getPoolMetrics();
+        assertTrue(afterClose.getIdleConnections() >= 1);
+    }
 }
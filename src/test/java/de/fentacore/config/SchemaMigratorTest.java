@@ -0,0 +1,179 @@
+package de.fentacore.config;
+
+import de.fentacore.dao.CustomerDAO;
+import de.fentacore.interfaces.ICustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+
+    @AfterEach
+    public void tearDown() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testFreshSchemaIsAtLatestVersion() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion());
+        assertTrue(DatabaseConfig.checkTablesExist());
+    }
+
+    @Test
+    public void testMigrateIsIdempotent() {
+        DatabaseConfig.migrate();
+        DatabaseConfig.migrate();
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion());
+    }
+
+    @Test
+    public void testUpgradesLegacySchemaInPlace() throws SQLException {
+        DatabaseConfig.deleteTables();
+
+        // Schema as created before versioned migrations existed: no version table, no indexes
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE customers (id VARCHAR(36) PRIMARY KEY, first_name VARCHAR(100) NOT NULL, " +
+                    "last_name VARCHAR(100) NOT NULL, birth_date DATE, gender VARCHAR(1))");
+            stmt.execute("CREATE TABLE readings (id VARCHAR(36) PRIMARY KEY, customer_id VARCHAR(36) NOT NULL, " +
+                    "comment VARCHAR(255), date_of_reading DATE, kind_of_meter VARCHAR(20), meter_count DOUBLE, " +
+                    "meter_id VARCHAR(50), substitute BOOLEAN, FOREIGN KEY (customer_id) REFERENCES customers(id))");
+            stmt.execute("INSERT INTO customers (id, first_name, last_name, gender) " +
+                    "VALUES ('550e8400-e29b-41d4-a716-446655440000', 'John', 'Doe', 'M')");
+            stmt.execute("INSERT INTO readings (id, customer_id, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
+                    "VALUES ('6ba7b810-9dad-11d1-80b4-00c04fd430c8', '550e8400-e29b-41d4-a716-446655440000', " +
+                    "'2024-01-01', 'STROM', 10.5, 'M-1', FALSE)");
+            // Imported twice before readings were unique per meter, day and customer
+            stmt.execute("INSERT INTO readings (id, customer_id, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
+                    "VALUES ('6ba7b811-9dad-11d1-80b4-00c04fd430c8', '550e8400-e29b-41d4-a716-446655440000', " +
+                    "'2024-01-01', 'STROM', 10.5, 'M-1', FALSE)");
+            // Meter handed over on the same day: the new customer's first reading stays
+            stmt.execute("INSERT INTO customers (id, first_name, last_name, gender) " +
+                    "VALUES ('550e8400-e29b-41d4-a716-446655440001', 'Jane', 'Roe', 'W')");
+            stmt.execute("INSERT INTO readings (id, customer_id, date_of_reading, kind_of_meter, meter_count, meter_id, substitute) " +
+                    "VALUES ('6ba7b812-9dad-11d1-80b4-00c04fd430c8', '550e8400-e29b-41d4-a716-446655440001', " +
+                    "'2024-01-01', 'STROM', 10.5, 'M-1', FALSE)");
+        }
+
+        DatabaseConfig.migrate();
+
+        assertEquals(SchemaMigrator.getLatestVersion(), SchemaMigrator.getCurrentVersion());
+        assertTrue(hasIndex("idx_readings_customer_date"));
+        assertTrue(hasIndex("idx_readings_kind_date"));
+        assertTrue(hasIndex("uq_readings_meter_date_customer"));
+        assertFalse(hasIndex("idx_readings_meter_date"), "Covered by the unique index");
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM customers")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1), "Existing rows must survive the upgrade");
+        }
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM readings")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1), "Duplicate readings are removed, handovers kept");
+        }
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM " + SchemaMigrator.DUPLICATES_TABLE)) {
+            assertTrue(rs.next());
+            assertEquals("6ba7b811-9dad-11d1-80b4-00c04fd430c8", rs.getString(1), "Removed duplicates are kept aside");
+            assertFalse(rs.next());
+        }
+
+        if (DatabaseConfig.isBinaryUuidStorage()) {
+            assertEquals("binary", getColumnType("customers", "id"));
+            assertEquals("binary", getColumnType("readings", "id"));
+            assertEquals("binary", getColumnType("readings", "customer_id"));
+            assertEquals("binary", getColumnType("consumption_monthly", "customer_id"));
+        }
+
+        // Keys still resolve to the same UUIDs through the DAOs, and the foreign key is back
+        ICustomer customer = new CustomerDAO().findById(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+        assertNotNull(customer);
+        assertEquals("John", customer.getFirstName());
+        assertThrows(SQLException.class, () -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM customers");
+            }
+        });
+    }
+
+    @Test
+    public void testFinishesInterruptedUuidConversion() throws SQLException {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        // State after the swap RENAME but before the cleanup: old tables aside, no foreign key yet
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            String fk;
+            try (ResultSet rs = stmt.executeQuery("SELECT CONSTRAINT_NAME FROM information_schema.KEY_COLUMN_USAGE " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'readings' AND REFERENCED_TABLE_NAME IS NOT NULL")) {
+                assertTrue(rs.next());
+                fk = rs.getString(1);
+            }
+            stmt.execute("ALTER TABLE readings DROP FOREIGN KEY " + fk);
+            stmt.execute("CREATE TABLE customers_old LIKE customers");
+            stmt.execute("CREATE TABLE readings_old LIKE readings");
+            stmt.execute("CREATE TABLE consumption_monthly_old LIKE consumption_monthly");
+        }
+
+        DatabaseConfig.migrate();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM information_schema.TABLES " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE '%\\_old'")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "Replaced tables are dropped");
+        }
+        assertThrows(SQLException.class, () -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO readings (id, customer_id) VALUES (" + uuidLiteral() + ", " + uuidLiteral() + ")");
+            }
+        }, "The foreign key is added back");
+    }
+
+    private static String uuidLiteral() {
+        UUID id = UUID.randomUUID();
+        return DatabaseConfig.isBinaryUuidStorage()
+                ? "UNHEX('" + id.toString().replace("-", "") + "')" : "'" + id + "'";
+    }
+
+    private String getColumnType(String table, String column) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            assertTrue(rs.next());
+            return rs.getString("TYPE_NAME").toLowerCase();
+        }
+    }
+
+    private boolean hasIndex(String indexName) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, "readings", false, false)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
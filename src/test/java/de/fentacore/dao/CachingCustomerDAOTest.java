@@ -0,0 +1,161 @@
+package de.fentacore.dao;
+
+import de.fentacore.config.ChangeTracker;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.CacheMetrics;
+import de.fentacore.model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingCustomerDAOTest {
+
+    private ICustomerDAO delegate;
+    private AtomicLong clock;
+    private CachingCustomerDAO cache;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ICustomerDAO.class);
+        when(delegate.findById(any())).thenAnswer(invocation -> customer(invocation.getArgument(0)));
+        clock = new AtomicLong();
+        cache = new CachingCustomerDAO(delegate, 2, TimeUnit.SECONDS.toNanos(60), clock::get);
+    }
+
+    @Test
+    public void testFindById_ServedFromCacheAsCopy() {
+        UUID id = UUID.randomUUID();
+
+        ICustomer first = cache.findById(id);
+        first.setFirstName("Changed");
+        ICustomer second = cache.findById(id);
+
+        verify(delegate, times(1)).findById(id);
+        assertEquals("John", second.getFirstName());
+        assertNotSame(first, second);
+        CacheMetrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.getHits());
+        assertEquals(1, metrics.getMisses());
+        assertEquals(0.5, metrics.getHitRate());
+    }
+
+    @Test
+    public void testFindById_EvictsLeastRecentlyUsed() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        cache.findById(a);
+        cache.findById(b);
+        cache.findById(a);
+        cache.findById(c);   // evicts b, the least recently used
+        cache.findById(a);
+        cache.findById(b);
+
+        verify(delegate, times(1)).findById(a);
+        verify(delegate, times(2)).findById(b);
+        assertEquals(2, cache.getMetrics().getEvictions());
+        assertEquals(2, cache.getMetrics().getSize());
+    }
+
+    @Test
+    public void testFindById_ExpiresAfterTtl() {
+        UUID id = UUID.randomUUID();
+
+        cache.findById(id);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.findById(id);
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    public void testUpdateAndDelete_Invalidate() {
+        UUID id = UUID.randomUUID();
+        when(delegate.update(any())).thenReturn(true);
+        when(delegate.delete(id)).thenReturn(true);
+
+        cache.findById(id);
+        assertTrue(cache.update(customer(id)));
+        cache.findById(id);
+        assertTrue(cache.delete(id));
+        cache.findById(id);
+
+        verify(delegate, times(3)).findById(id);
+    }
+
+    @Test
+    public void testFindById_StaleAfterTableReset() {
+        UUID id = UUID.randomUUID();
+
+        cache.findById(id);
+        ChangeTracker.markAllReset();
+        cache.findById(id);
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    public void testFindById_KeptAcrossOtherWrites() {
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(delegate.upsertAll(any())).thenReturn(new UpsertCounts(0, 1, 0));
+
+        cache.findById(id);
+        cache.findById(other);
+        // Creates and upserts of other customers bump the table version but leave id cached
+        ChangeTracker.markChanged(ChangeTracker.CUSTOMERS);
+        cache.upsertAll(List.of(customer(other)));
+        cache.findById(id);
+        cache.findById(other);
+
+        verify(delegate, times(1)).findById(id);
+        verify(delegate, times(2)).findById(other);
+    }
+
+    @Test
+    public void testFindById_NotCachedWhenInvalidatedWhileLoading() {
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenAnswer(invocation -> {
+            // An update finishing while the row is read
+            cache.invalidate(id);
+            return customer(id);
+        });
+
+        cache.findById(id);
+        cache.findById(id);
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    public void testFindById_MissingCustomerNotCached() {
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenReturn(null);
+
+        assertNull(cache.findById(id));
+        assertNull(cache.findById(id));
+
+        verify(delegate, times(2)).findById(id);
+        assertEquals(0, cache.getMetrics().getSize());
+    }
+
+    private static Customer customer(UUID id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setBirthDate(LocalDate.of(1980, 1, 1));
+        customer.setGender(ICustomer.Gender.M);
+        return customer;
+    }
+}
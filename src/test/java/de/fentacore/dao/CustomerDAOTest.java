@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,4 +90,124 @@ public class CustomerDAOTest {
         DatabaseConfig.deleteTables();
         DatabaseConfig.createTables();
     }
+
+    @Test
+    public void testFindPage() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        for (int i = 0; i < 5; i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("Customer" + i);
+            customer.setLastName("Doe");
+            customer.setGender(ICustomer.Gender.D);
+            customerDAO.create(customer);
+        }
+
+        List<ICustomer> first = customerDAO.findPage(null, 3);
+        assertEquals(3, first.size());
+        List<ICustomer> second = customerDAO.findPage(first.get(2).getId(), 3);
+        assertEquals(2, second.size());
+        assertTrue(first.get(2).getId().compareTo(second.get(0).getId()) < 0);
+        assertTrue(customerDAO.findPage(second.get(1).getId(), 3).isEmpty());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testCreateAll() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        Customer existing = new Customer();
+        existing.setFirstName("Existing");
+        existing.setLastName("Doe");
+        existing.setGender(ICustomer.Gender.U);
+        customerDAO.create(existing);
+
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("Customer" + i);
+            customer.setLastName("Doe");
+            customer.setBirthDate(LocalDate.of(1980, 1, i + 1));
+            customer.setGender(ICustomer.Gender.W);
+            customers.add(customer);
+        }
+        // A duplicate key fails its chunk, which is then retried row by row
+        Customer duplicate = new Customer();
+        duplicate.setId(existing.getId());
+        duplicate.setFirstName("Duplicate");
+        duplicate.setLastName("Doe");
+        customers.add(2, duplicate);
+
+        System.setProperty("db.batch.size", "2");
+        try {
+            assertEquals(5, customerDAO.createAll(customers));
+        } finally {
+            System.clearProperty("db.batch.size");
+        }
+
+        assertEquals(6, customerDAO.findAll().size());
+        for (Customer customer : customers) {
+            assertNotNull(customer.getId());
+        }
+        assertEquals("Existing", customerDAO.findById(existing.getId()).getFirstName());
+        assertEquals(LocalDate.of(1980, 1, 5), customerDAO.findById(customers.get(5).getId()).getBirthDate());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testUpsertAll() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        Customer stored = new Customer();
+        stored.setFirstName("Erika");
+        stored.setLastName("Muster");
+        stored.setGender(ICustomer.Gender.W);
+        customerDAO.create(stored);
+        Customer renamed = new Customer();
+        renamed.setFirstName("Max");
+        renamed.setLastName("Muster");
+        renamed.setGender(ICustomer.Gender.M);
+        customerDAO.create(renamed);
+
+        Customer same = new Customer();
+        same.setId(stored.getId());
+        same.setFirstName("Erika");
+        same.setLastName("Muster");
+        same.setGender(ICustomer.Gender.W);
+        Customer changed = new Customer();
+        changed.setId(renamed.getId());
+        changed.setFirstName("Max");
+        changed.setLastName("Mustermann");
+        changed.setGender(ICustomer.Gender.M);
+        Customer added = new Customer();
+        added.setFirstName("Neu");
+        added.setLastName("Kunde");
+        added.setGender(ICustomer.Gender.D);
+
+        UpsertCounts counts = customerDAO.upsertAll(List.of(same, changed, added));
+
+        assertEquals(1, counts.getInserted());
+        assertEquals(1, counts.getUpdated());
+        assertEquals(1, counts.getUnchanged());
+        assertEquals(3, customerDAO.findAll().size());
+        assertEquals("Mustermann", customerDAO.findById(renamed.getId()).getLastName());
+        assertEquals("Neu", customerDAO.findById(added.getId()).getFirstName());
+
+        counts = customerDAO.upsertAll(List.of(same, changed, added));
+        assertEquals(0, counts.getInserted() + counts.getUpdated());
+        assertEquals(3, counts.getUnchanged());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
 }
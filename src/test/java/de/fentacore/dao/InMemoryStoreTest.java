@@ -0,0 +1,346 @@
+package de.fentacore.dao;
+
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
+import de.fentacore.model.Customer;
+import de.fentacore.model.Reading;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryStoreTest {
+
+    @Test
+    public void testCustomerAndReadingConstraints() {
+        InMemoryStore store = new InMemoryStore(null);
+        ICustomerDAO customerDAO = store.customerDAO();
+        IReadingDAO readingDAO = store.readingDAO();
+
+        Customer customer = customer("John", "Doe");
+        assertNotNull(customerDAO.create(customer).getId());
+        assertNull(customerDAO.create(customer), "Duplicate id");
+        assertNull(customerDAO.create(customer(null, "Doe")), "Names are required");
+
+        // Callers get copies
+        ICustomer found = customerDAO.findById(customer.getId());
+        found.setFirstName("Jane");
+        assertEquals("John", customerDAO.findById(customer.getId()).getFirstName());
+
+        Reading reading = reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 100d, "S-1");
+        assertNotNull(readingDAO.create(reading));
+        assertNull(readingDAO.create(reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 120d, "S-1")),
+                "One reading per meter and day");
+        assertNull(readingDAO.create(reading(customer("Unknown", "Customer"), LocalDate.of(2024, 1, 2),
+                IReading.KindOfMeter.STROM, 120d, "S-1")), "Customer must exist");
+
+        IReading stored = readingDAO.findById(reading.getId());
+        assertEquals("John", stored.getCustomer().getFirstName());
+        assertEquals(100d, stored.getMeterCount());
+
+        assertFalse(customerDAO.delete(customer.getId()), "Customer still has readings");
+        stored.setComment("corrected");
+        assertTrue(readingDAO.update(stored));
+        assertEquals("corrected", readingDAO.findById(reading.getId()).getComment());
+        assertTrue(readingDAO.delete(reading.getId()));
+        assertTrue(customerDAO.delete(customer.getId()));
+        assertTrue(customerDAO.findAll().isEmpty());
+        assertTrue(readingDAO.findAll().isEmpty());
+    }
+
+    @Test
+    public void testFindByCriteriaAndPages() {
+        InMemoryStore store = new InMemoryStore(null);
+        ICustomerDAO customerDAO = store.customerDAO();
+        IReadingDAO readingDAO = store.readingDAO();
+
+        Customer first = customer("John", "Doe");
+        Customer second = customer("Jane", "Roe");
+        customerDAO.create(first);
+        customerDAO.create(second);
+
+        List<Reading> readings = new ArrayList<>();
+        for (int day = 1; day <= 10; day++) {
+            readings.add(reading(first, LocalDate.of(2024, 3, day), IReading.KindOfMeter.STROM, day, "S-1"));
+            readings.add(reading(second, LocalDate.of(2024, 3, day), IReading.KindOfMeter.WASSER, day, "W-" + day));
+        }
+        assertEquals(20, readingDAO.createAll(readings));
+
+        ReadingCriteria range = new ReadingCriteria();
+        range.setStartDate(LocalDate.of(2024, 3, 3));
+        range.setEndDate(LocalDate.of(2024, 3, 5));
+        assertEquals(6, readingDAO.findByCriteria(range).size());
+
+        range.setMeterId("S-1");
+        assertEquals(3, readingDAO.findByCriteria(range).size());
+
+        ReadingCriteria byCustomer = new ReadingCriteria();
+        byCustomer.setCustomerId(second.getId());
+        byCustomer.setKindOfMeter(IReading.KindOfMeter.WASSER);
+        assertEquals(10, readingDAO.findByCriteria(byCustomer).size());
+        byCustomer.setKindOfMeter(IReading.KindOfMeter.STROM);
+        assertTrue(readingDAO.findByCriteria(byCustomer).isEmpty());
+
+        ReadingCriteria byMeter = new ReadingCriteria();
+        byMeter.setMeterId("S-1");
+        ReadingCriteria byDate = new ReadingCriteria();
+        byDate.setStartDate(LocalDate.of(2024, 3, 3));
+        byDate.setEndDate(LocalDate.of(2024, 3, 7));
+
+        // Keyset pages cover every reading once, in id order, with and without an index
+        ReadingCriteria[] pageCriteria = {null, new ReadingCriteria(), withCustomer(first), byMeter, range, byDate};
+        int[] expected = {20, 20, 10, 10, 3, 10};
+        for (int i = 0; i < pageCriteria.length; i++) {
+            ReadingCriteria criteria = pageCriteria[i];
+            List<UUID> seen = new ArrayList<>();
+            UUID after = null;
+            List<IReading> page;
+            do {
+                page = readingDAO.findPageByCriteria(criteria, after, 3);
+                for (IReading reading : page) {
+                    if (after != null) {
+                        assertTrue(InMemoryStore.ID_ORDER.compare(after, reading.getId()) < 0);
+                    }
+                    seen.add(reading.getId());
+                    after = reading.getId();
+                }
+            } while (page.size() == 3);
+            assertEquals(expected[i], seen.size());
+        }
+
+        // Moving a reading to another meter moves it between the per-meter id indexes
+        IReading moved = readingDAO.findById(readings.get(0).getId());
+        moved.setMeterId("S-2");
+        assertTrue(readingDAO.update(moved));
+        assertEquals(9, readingDAO.findPageByCriteria(byMeter, null, 20).size());
+        byMeter.setMeterId("S-2");
+        assertEquals(List.of(moved.getId()), readingDAO.findPageByCriteria(byMeter, null, 20).stream()
+                .map(IReading::getId).toList());
+
+        List<ICustomer> customers = customerDAO.findPage(null, 1);
+        assertEquals(1, customers.size());
+        assertEquals(1, customerDAO.findPage(customers.get(0).getId(), 10).size());
+    }
+
+    @Test
+    public void testFindConsumption() {
+        InMemoryStore store = new InMemoryStore(null);
+        ICustomerDAO customerDAO = store.customerDAO();
+        IReadingDAO readingDAO = store.readingDAO();
+
+        Customer customer = customer("John", "Doe");
+        customerDAO.create(customer);
+
+        // Same readings as ReadingDAOTest#testFindConsumption, so the results must match
+        List<Reading> readings = new ArrayList<>();
+        readings.add(reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 100d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 1, 20), IReading.KindOfMeter.STROM, 150d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 25), IReading.KindOfMeter.STROM, 260d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 10), IReading.KindOfMeter.STROM, 190d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 1, 5), IReading.KindOfMeter.WASSER, 10d, "W-1"));
+        readingDAO.createAll(readings);
+
+        List<ConsumptionPeriod> monthly = readingDAO.findConsumption(new ReadingCriteria(), ConsumptionInterval.MONTH);
+        assertEquals(2, monthly.size());
+        assertEquals("2024-01", monthly.get(0).getPeriod());
+        assertEquals(50d, monthly.get(0).getConsumption());
+        assertEquals(1, monthly.get(0).getIntervals());
+        assertEquals("2024-02", monthly.get(1).getPeriod());
+        assertEquals(110d, monthly.get(1).getConsumption());
+        assertEquals(2, monthly.get(1).getIntervals());
+        assertEquals(IReading.KindOfMeter.STROM, monthly.get(1).getKindOfMeter());
+
+        List<ConsumptionPeriod> yearly = readingDAO.findConsumption(new ReadingCriteria(), ConsumptionInterval.YEAR);
+        assertEquals(1, yearly.size());
+        assertEquals("2024", yearly.get(0).getPeriod());
+        assertEquals(160d, yearly.get(0).getConsumption());
+
+        // The first reading in range still counts from the one before the start date
+        ReadingCriteria february = new ReadingCriteria();
+        february.setStartDate(LocalDate.of(2024, 2, 1));
+        february.setKindOfMeter(IReading.KindOfMeter.STROM);
+        List<ConsumptionPeriod> daily = readingDAO.findConsumption(february, ConsumptionInterval.DAY);
+        assertEquals(2, daily.size());
+        assertEquals("2024-02-10", daily.get(0).getPeriod());
+        assertEquals(40d, daily.get(0).getConsumption());
+        assertEquals("2024-02-25", daily.get(1).getPeriod());
+        assertEquals(70d, daily.get(1).getConsumption());
+    }
+
+    @Test
+    public void testUpsertAll() {
+        InMemoryStore store = new InMemoryStore(null);
+        ICustomerDAO customerDAO = store.customerDAO();
+        IReadingDAO readingDAO = store.readingDAO();
+
+        Customer customer = customer("John", "Doe");
+        assertEquals(1, customerDAO.upsertAll(List.of(customer)).getInserted());
+        Customer renamed = customer("Johnny", "Doe");
+        renamed.setId(customer.getId());
+        UpsertCounts customerCounts = customerDAO.upsertAll(List.of(renamed, customer("Jane", "Roe")));
+        assertEquals(1, customerCounts.getInserted());
+        assertEquals(1, customerCounts.getUpdated());
+        assertEquals("Johnny", customerDAO.findById(customer.getId()).getFirstName());
+
+        List<Reading> readings = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            readings.add(reading(customer, LocalDate.of(2024, i, 1), IReading.KindOfMeter.STROM, 100d * i, "S-1"));
+        }
+        assertEquals(3, readingDAO.upsertAll(readings).getInserted());
+        UUID februaryId = readings.get(1).getId();
+
+        List<Reading> again = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            again.add(reading(customer, LocalDate.of(2024, i, 1), IReading.KindOfMeter.STROM, i == 2 ? 250d : 100d * i, "S-1"));
+        }
+        again.add(reading(customer, LocalDate.of(2024, 4, 1), IReading.KindOfMeter.STROM, 400d, "S-1"));
+        again.add(reading(customer, LocalDate.of(2024, 4, 1), IReading.KindOfMeter.STROM, 400d, "S-1"));
+        UpsertCounts counts = readingDAO.upsertAll(again);
+
+        assertEquals(1, counts.getInserted());
+        assertEquals(1, counts.getUpdated());
+        assertEquals(3, counts.getUnchanged());
+        assertEquals(februaryId, again.get(1).getId());
+        assertEquals(4, readingDAO.findAll().size());
+        assertEquals(250d, readingDAO.findById(februaryId).getMeterCount());
+
+        // On a handover day the next customer's reading is added, the previous one kept
+        Customer next = customer("Jane", "Doe");
+        customerDAO.create(next);
+        Reading handover = reading(next, LocalDate.of(2024, 4, 1), IReading.KindOfMeter.STROM, 400d, "S-1");
+        assertEquals(1, readingDAO.upsertAll(List.of(handover)).getInserted());
+        assertEquals(customer.getId(), readingDAO.findById(again.get(3).getId()).getCustomer().getId());
+        assertEquals(5, readingDAO.findAll().size());
+    }
+
+    @Test
+    public void testUpdateReplacesReadingInPlace() throws Exception {
+        InMemoryStore store = new InMemoryStore(null);
+        ICustomerDAO customerDAO = store.customerDAO();
+        IReadingDAO readingDAO = store.readingDAO();
+
+        Customer first = customer("John", "Doe");
+        Customer second = customer("Jane", "Roe");
+        customerDAO.create(first);
+        customerDAO.create(second);
+        Reading reading = reading(first, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 1d, "S-1");
+        readingDAO.create(reading);
+
+        // Readers never see the reading missing while it is rewritten
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                if (readingDAO.findById(reading.getId()) == null) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            reading.setMeterCount((double) i);
+            assertTrue(readingDAO.update(reading));
+        }
+        done.set(true);
+        reader.join();
+        assertEquals(0, misses.get());
+
+        // Moved to another meter, day and customer: the indexes follow
+        reading.setMeterId("S-2");
+        reading.setDateOfReading(LocalDate.of(2024, 2, 1));
+        reading.setCustomer(second);
+        assertTrue(readingDAO.update(reading));
+        assertTrue(readingDAO.findByCustomerId(first.getId()).isEmpty());
+        assertEquals(1, readingDAO.findByCustomerId(second.getId()).size());
+        ReadingCriteria oldMeter = new ReadingCriteria();
+        oldMeter.setMeterId("S-1");
+        assertTrue(readingDAO.findByCriteria(oldMeter).isEmpty());
+        ReadingCriteria february = new ReadingCriteria();
+        february.setMeterId("S-2");
+        february.setStartDate(LocalDate.of(2024, 2, 1));
+        february.setEndDate(LocalDate.of(2024, 2, 1));
+        assertEquals(1, readingDAO.findByCriteria(february).size());
+        ReadingCriteria january = new ReadingCriteria();
+        january.setStartDate(LocalDate.of(2024, 1, 1));
+        january.setEndDate(LocalDate.of(2024, 1, 31));
+        assertTrue(readingDAO.findByCriteria(january).isEmpty());
+        assertTrue(customerDAO.delete(first.getId()), "No readings left for the first customer");
+    }
+
+    @Test
+    public void testSnapshotRoundTrip(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("store.snapshot");
+        InMemoryStore store = new InMemoryStore(file);
+        assertFalse(store.loadSnapshot(), "No snapshot yet");
+
+        Customer customer = customer("Jörg", "Müller");
+        customer.setBirthDate(LocalDate.of(1970, 5, 17));
+        customer.setGender(ICustomer.Gender.M);
+        store.customerDAO().create(customer);
+        Customer noDetails = customer("Jane", "Roe");
+        store.customerDAO().create(noDetails);
+        Reading reading = reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.HEIZUNG, 12.5d, "H-1");
+        reading.setComment("Zähler\tgetauscht");
+        reading.setSubstitute(true);
+        store.readingDAO().create(reading);
+        store.readingDAO().create(reading(customer, null, null, 0d, null));
+
+        assertEquals(4, store.saveSnapshot());
+
+        InMemoryStore loaded = new InMemoryStore(file);
+        assertTrue(loaded.loadSnapshot());
+        assertEquals(2, loaded.customerDAO().findAll().size());
+        ICustomer restored = loaded.customerDAO().findById(customer.getId());
+        assertEquals("Jörg", restored.getFirstName());
+        assertEquals(LocalDate.of(1970, 5, 17), restored.getBirthDate());
+        assertEquals(ICustomer.Gender.M, restored.getGender());
+        assertNull(loaded.customerDAO().findById(noDetails.getId()).getBirthDate());
+
+        IReading restoredReading = loaded.readingDAO().findById(reading.getId());
+        assertEquals("Zähler\tgetauscht", restoredReading.getComment());
+        assertEquals(12.5d, restoredReading.getMeterCount());
+        assertEquals(IReading.KindOfMeter.HEIZUNG, restoredReading.getKindOfMeter());
+        assertTrue(restoredReading.getSubstitute());
+        assertEquals(customer.getId(), restoredReading.getCustomer().getId());
+        assertEquals(2, loaded.readingDAO().findAll().size());
+
+        // The indexes are rebuilt as well
+        ReadingCriteria byMeter = new ReadingCriteria();
+        byMeter.setMeterId("H-1");
+        assertEquals(1, loaded.readingDAO().findByCriteria(byMeter).size());
+
+        assertEquals(-1, new InMemoryStore(null).saveSnapshot());
+    }
+
+    private static ReadingCriteria withCustomer(ICustomer customer) {
+        ReadingCriteria criteria = new ReadingCriteria();
+        criteria.setCustomerId(customer.getId());
+        return criteria;
+    }
+
+    private static Customer customer(String firstName, String lastName) {
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        return customer;
+    }
+
+    private static Reading reading(ICustomer customer, LocalDate date, IReading.KindOfMeter kind, double count, String meterId) {
+        Reading reading = new Reading();
+        reading.setCustomer(customer);
+        reading.setDateOfReading(date);
+        reading.setKindOfMeter(kind);
+        reading.setMeterCount(count);
+        reading.setMeterId(meterId);
+        return reading;
+    }
+}
@@ -3,12 +3,18 @@ package de.fentacore.dao;
 import de.fentacore.config.DatabaseConfig;
 import de.fentacore.interfaces.ICustomer;
 import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
 import de.fentacore.model.Customer;
 import de.fentacore.model.Reading;
 import org.junit.jupiter.api.Test;
 
 import javax.xml.crypto.Data;
+import java.sql.Connection;
+import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,4 +69,518 @@ public class ReadingDAOTest {
         DatabaseConfig.deleteTables();
         DatabaseConfig.createTables();
     }
+
+    @Test
+    public void testReadingsShareJoinedCustomer() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+        customer.setBirthDate(LocalDate.of(1985, 5, 15));
+        customer.setGender(ICustomer.Gender.W);
+        customerDAO.create(customer);
+
+        for (int day = 1; day <= 3; day++) {
+            Reading reading = new Reading();
+            reading.setCustomer(customer);
+            reading.setDateOfReading(LocalDate.of(2024, 1, day));
+            reading.setKindOfMeter(IReading.KindOfMeter.STROM);
+            reading.setMeterCount(100d * day);
+            reading.setMeterId("shared");
+            readingDAO.create(reading);
+        }
+
+        List<IReading> readings = readingDAO.findByCustomerId(customer.getId());
+        assertEquals(3, readings.size());
+
+        ICustomer first = readings.get(0).getCustomer();
+        assertNotNull(first);
+        assertEquals(customer.getId(), first.getId());
+        assertEquals("Jane", first.getFirstName());
+        assertEquals(LocalDate.of(1985, 5, 15), first.getBirthDate());
+        assertEquals(ICustomer.Gender.W, first.getGender());
+        for (IReading reading : readings) {
+            assertSame(first, reading.getCustomer());
+        }
+
+        assertEquals("Doe", readingDAO.findById(readings.get(0).getId()).getCustomer().getLastName());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testFindByCriteria() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer first = new Customer();
+        first.setFirstName("John");
+        first.setLastName("Doe");
+        first.setGender(ICustomer.Gender.M);
+        customerDAO.create(first);
+
+        Customer second = new Customer();
+        second.setFirstName("Jane");
+        second.setLastName("Doe");
+        second.setGender(ICustomer.Gender.W);
+        customerDAO.create(second);
+
+        createReading(readingDAO, first, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, "S-1", false);
+        createReading(readingDAO, first, LocalDate.of(2024, 2, 1), IReading.KindOfMeter.STROM, "S-1", true);
+        createReading(readingDAO, first, LocalDate.of(2024, 3, 1), IReading.KindOfMeter.WASSER, "W-1", false);
+        createReading(readingDAO, second, LocalDate.of(2024, 2, 15), IReading.KindOfMeter.STROM, "S-2", false);
+
+        assertEquals(4, readingDAO.findByCriteria(new ReadingCriteria()).size());
+
+        ReadingCriteria byCustomer = new ReadingCriteria();
+        byCustomer.setCustomerId(first.getId());
+        assertEquals(3, readingDAO.findByCriteria(byCustomer).size());
+
+        ReadingCriteria byWindow = new ReadingCriteria();
+        byWindow.setStartDate(LocalDate.of(2024, 2, 1));
+        byWindow.setEndDate(LocalDate.of(2024, 2, 29));
+        assertEquals(2, readingDAO.findByCriteria(byWindow).size());
+
+        byWindow.setKindOfMeter(IReading.KindOfMeter.STROM);
+        byWindow.setCustomerId(second.getId());
+        List<IReading> narrowed = readingDAO.findByCriteria(byWindow);
+        assertEquals(1, narrowed.size());
+        assertEquals("S-2", narrowed.get(0).getMeterId());
+
+        ReadingCriteria byMeter = new ReadingCriteria();
+        byMeter.setMeterId("S-1");
+        byMeter.setSubstitute(true);
+        List<IReading> substitutes = readingDAO.findByCriteria(byMeter);
+        assertEquals(1, substitutes.size());
+        assertEquals(LocalDate.of(2024, 2, 1), substitutes.get(0).getDateOfReading());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testFindPageByCriteria() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        for (int i = 1; i <= 5; i++) {
+            createReading(readingDAO, customer, LocalDate.of(2024, i, 1), IReading.KindOfMeter.STROM, "S-1", false);
+        }
+
+        ReadingCriteria criteria = new ReadingCriteria();
+        criteria.setCustomerId(customer.getId());
+
+        List<IReading> first = readingDAO.findPageByCriteria(criteria, null, 2);
+        assertEquals(2, first.size());
+        List<IReading> second = readingDAO.findPageByCriteria(criteria, first.get(1).getId(), 2);
+        assertEquals(2, second.size());
+        List<IReading> third = readingDAO.findPageByCriteria(criteria, second.get(1).getId(), 2);
+        assertEquals(1, third.size());
+
+        // Pages are disjoint and ordered by id, so walking them yields every reading once
+        assertTrue(first.get(1).getId().compareTo(second.get(0).getId()) < 0);
+        assertTrue(second.get(1).getId().compareTo(third.get(0).getId()) < 0);
+        assertTrue(readingDAO.findPageByCriteria(criteria, third.get(0).getId(), 2).isEmpty());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testStreamByCriteria() throws Exception {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        createReading(readingDAO, customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, "S-1", false);
+        createReading(readingDAO, customer, LocalDate.of(2024, 2, 1), IReading.KindOfMeter.WASSER, "W-1", false);
+        createReading(readingDAO, customer, LocalDate.of(2024, 3, 1), IReading.KindOfMeter.STROM, "S-1", false);
+
+        ReadingCriteria criteria = new ReadingCriteria();
+        criteria.setKindOfMeter(IReading.KindOfMeter.STROM);
+
+        List<IReading> streamed = new ArrayList<>();
+        readingDAO.streamByCriteria(criteria, streamed::add);
+
+        assertEquals(2, streamed.size());
+        assertEquals(readingDAO.findByCriteria(criteria).size(), streamed.size());
+        assertEquals(customer.getId(), streamed.get(0).getCustomer().getId());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testCreateAll() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        List<Reading> readings = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            Reading reading = new Reading();
+            reading.setCustomer(customer);
+            reading.setDateOfReading(LocalDate.of(2024, i, 1));
+            reading.setKindOfMeter(IReading.KindOfMeter.WASSER);
+            reading.setMeterCount(100d * i);
+            reading.setMeterId("W-1");
+            reading.setSubstitute(false);
+            readings.add(reading);
+        }
+
+        assertEquals(12, readingDAO.createAll(readings));
+        assertEquals(0, readingDAO.createAll(new ArrayList<>()));
+
+        List<IReading> stored = readingDAO.findByCustomerId(customer.getId());
+        assertEquals(12, stored.size());
+        IReading last = readingDAO.findById(readings.get(11).getId());
+        assertNotNull(last);
+        assertEquals(1200d, last.getMeterCount());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testFindConsumption() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        // S-1: 100 -> 150 (Jan 20) -> 190 (Feb 10) -> 260 (Feb 25); W-1 has a single reading
+        List<Reading> readings = new ArrayList<>();
+        readings.add(reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 100d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 1, 20), IReading.KindOfMeter.STROM, 150d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 25), IReading.KindOfMeter.STROM, 260d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 10), IReading.KindOfMeter.STROM, 190d, "S-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 1, 5), IReading.KindOfMeter.WASSER, 10d, "W-1"));
+        readingDAO.createAll(readings);
+
+        List<ConsumptionPeriod> monthly = readingDAO.findConsumption(new ReadingCriteria(), ConsumptionInterval.MONTH);
+        assertEquals(2, monthly.size());
+        assertEquals("S-1", monthly.get(0).getMeterId());
+        assertEquals("2024-01", monthly.get(0).getPeriod());
+        assertEquals(50d, monthly.get(0).getConsumption());
+        assertEquals(1, monthly.get(0).getIntervals());
+        assertEquals("2024-02", monthly.get(1).getPeriod());
+        assertEquals(110d, monthly.get(1).getConsumption());
+        assertEquals(2, monthly.get(1).getIntervals());
+        assertEquals(IReading.KindOfMeter.STROM, monthly.get(1).getKindOfMeter());
+
+        List<ConsumptionPeriod> yearly = readingDAO.findConsumption(new ReadingCriteria(), ConsumptionInterval.YEAR);
+        assertEquals(1, yearly.size());
+        assertEquals("2024", yearly.get(0).getPeriod());
+        assertEquals(160d, yearly.get(0).getConsumption());
+
+        // The first reading in range still counts from the one before the start date
+        ReadingCriteria february = new ReadingCriteria();
+        february.setStartDate(LocalDate.of(2024, 2, 1));
+        february.setKindOfMeter(IReading.KindOfMeter.STROM);
+        List<ConsumptionPeriod> daily = readingDAO.findConsumption(february, ConsumptionInterval.DAY);
+        assertEquals(2, daily.size());
+        assertEquals("2024-02-10", daily.get(0).getPeriod());
+        assertEquals(40d, daily.get(0).getConsumption());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testConsumptionRollupFollowsWrites() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        List<Reading> readings = new ArrayList<>();
+        for (int month = 1; month <= 4; month++) {
+            readings.add(reading(customer, LocalDate.of(2024, month, 1), IReading.KindOfMeter.HEIZUNG, 100d * month, "H-1"));
+        }
+        readingDAO.createAll(readings);
+        ReadingCriteria all = new ReadingCriteria();
+        assertEquals(List.of(100d, 100d, 100d), consumptions(ConsumptionRollup.find(all, ConsumptionInterval.MONTH)));
+
+        // Raising March changes both the March and the April difference
+        Reading march = readings.get(2);
+        march.setMeterCount(350d);
+        assertTrue(readingDAO.update(march));
+        assertEquals(List.of(100d, 150d, 50d), consumptions(ConsumptionRollup.find(all, ConsumptionInterval.MONTH)));
+
+        // Without February, March counts from January
+        assertTrue(readingDAO.delete(readings.get(1).getId()));
+        assertEquals(List.of(250d, 50d), consumptions(ConsumptionRollup.find(all, ConsumptionInterval.MONTH)));
+
+        readingDAO.create(reading(customer, LocalDate.of(2024, 5, 1), IReading.KindOfMeter.HEIZUNG, 420d, "H-1"));
+        List<ConsumptionPeriod> maintained = ConsumptionRollup.find(all, ConsumptionInterval.MONTH);
+        assertEquals(List.of(250d, 50d, 20d), consumptions(maintained));
+        assertEquals("2024-05", maintained.get(2).getPeriod());
+
+        // A rebuild from scratch arrives at the same rows
+        assertEquals(3, ConsumptionRollup.rebuild());
+        assertEquals(consumptions(maintained), consumptions(ConsumptionRollup.find(all, ConsumptionInterval.MONTH)));
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testConsumptionRollupMatchesReadings() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+        Customer next = new Customer();
+        next.setFirstName("Jane");
+        next.setLastName("Roe");
+        customerDAO.create(next);
+
+        // M-1 changes kind within February and is handed over in April; W-1 is a second meter
+        List<Reading> readings = new ArrayList<>();
+        readings.add(reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.UNBEKANNT, 100d, "M-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 1), IReading.KindOfMeter.UNBEKANNT, 130d, "M-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 2, 20), IReading.KindOfMeter.STROM, 170d, "M-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 4, 1), IReading.KindOfMeter.STROM, 260d, "M-1"));
+        readings.add(reading(next, LocalDate.of(2024, 4, 1), IReading.KindOfMeter.STROM, 260d, "M-1"));
+        readings.add(reading(next, LocalDate.of(2024, 5, 1), IReading.KindOfMeter.STROM, 300d, "M-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.WASSER, 10d, "W-1"));
+        readings.add(reading(customer, LocalDate.of(2024, 3, 1), IReading.KindOfMeter.WASSER, 25d, "W-1"));
+        readingDAO.createAll(readings);
+
+        ReadingCriteria strom = new ReadingCriteria();
+        strom.setKindOfMeter(IReading.KindOfMeter.STROM);
+        ReadingCriteria fromFebruary = new ReadingCriteria();
+        fromFebruary.setStartDate(LocalDate.of(2024, 2, 1));
+        fromFebruary.setEndDate(LocalDate.of(2024, 4, 30));
+        ReadingCriteria firstCustomer = new ReadingCriteria();
+        firstCustomer.setCustomerId(customer.getId());
+        firstCustomer.setMeterId("M-1");
+
+        for (ReadingCriteria criteria : List.of(new ReadingCriteria(), strom, fromFebruary, firstCustomer)) {
+            for (ConsumptionInterval interval : List.of(ConsumptionInterval.MONTH, ConsumptionInterval.YEAR)) {
+                assertTrue(ConsumptionRollup.covers(criteria, interval));
+                List<String> fromReadings = describe(readingDAO.findConsumptionFromReadings(criteria, interval));
+                assertFalse(fromReadings.isEmpty());
+                assertEquals(fromReadings, describe(ConsumptionRollup.find(criteria, interval)));
+            }
+        }
+        // February holds a difference of each kind
+        assertEquals(List.of("M-1 STROM 2024-02 40.0 1", "M-1 UNBEKANNT 2024-02 30.0 1"),
+                describe(ConsumptionRollup.find(fromFebruary, ConsumptionInterval.MONTH)).subList(0, 2));
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    private static List<String> describe(List<ConsumptionPeriod> periods) {
+        List<String> rows = new ArrayList<>();
+        for (ConsumptionPeriod period : periods) {
+            rows.add(period.getMeterId() + " " + period.getKindOfMeter() + " " + period.getPeriod() + " "
+                    + period.getConsumption() + " " + period.getIntervals());
+        }
+        return rows;
+    }
+
+    @Test
+    public void testFailedRollupRefreshRollsBackWrite() throws Exception {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+        Reading january = reading(customer, LocalDate.of(2024, 1, 1), IReading.KindOfMeter.STROM, 100d, "S-1");
+        assertNotNull(readingDAO.create(january));
+
+        // Without its table every refresh fails, and the readings written with it must not stay
+        setRollupTableName("consumption_monthly", "consumption_monthly_off");
+        try {
+            assertNull(readingDAO.create(reading(customer, LocalDate.of(2024, 2, 1), IReading.KindOfMeter.STROM, 150d, "S-1")));
+            assertEquals(0, readingDAO.createAll(List.of(
+                    reading(customer, LocalDate.of(2024, 3, 1), IReading.KindOfMeter.STROM, 200d, "S-1"))));
+            january.setMeterCount(50d);
+            assertFalse(readingDAO.update(january));
+            assertFalse(readingDAO.delete(january.getId()));
+        } finally {
+            setRollupTableName("consumption_monthly_off", "consumption_monthly");
+        }
+
+        List<IReading> stored = readingDAO.findAll();
+        assertEquals(1, stored.size());
+        assertEquals(100d, stored.get(0).getMeterCount());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    private static void setRollupTableName(String from, String to) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("RENAME TABLE " + from + " TO " + to);
+        }
+    }
+
+    private List<Double> consumptions(List<ConsumptionPeriod> periods) {
+        List<Double> values = new ArrayList<>();
+        for (ConsumptionPeriod period : periods) {
+            values.add(period.getConsumption());
+        }
+        return values;
+    }
+
+    private Reading reading(Customer customer, LocalDate date, IReading.KindOfMeter kind, double count, String meterId) {
+        Reading reading = new Reading();
+        reading.setCustomer(customer);
+        reading.setDateOfReading(date);
+        reading.setKindOfMeter(kind);
+        reading.setMeterCount(count);
+        reading.setMeterId(meterId);
+        reading.setSubstitute(false);
+        return reading;
+    }
+
+    @Test
+    public void testUpsertAll() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+
+        CustomerDAO customerDAO = new CustomerDAO();
+        ReadingDAO readingDAO = new ReadingDAO();
+
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        customerDAO.create(customer);
+
+        List<Reading> readings = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            readings.add(upsertReading(customer, LocalDate.of(2024, i, 1), 100d * i));
+        }
+        UpsertCounts counts = readingDAO.upsertAll(readings);
+        assertEquals(3, counts.getInserted());
+        UUID februaryId = readings.get(1).getId();
+
+        // Same meter and dates again: one changed count, one new month, a duplicate within the call
+        List<Reading> again = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            again.add(upsertReading(customer, LocalDate.of(2024, i, 1), i == 2 ? 250d : 100d * i));
+        }
+        again.add(upsertReading(customer, LocalDate.of(2024, 4, 1), 400d));
+        again.add(upsertReading(customer, LocalDate.of(2024, 4, 1), 400d));
+        counts = readingDAO.upsertAll(again);
+
+        assertEquals(1, counts.getInserted());
+        assertEquals(1, counts.getUpdated());
+        assertEquals(3, counts.getUnchanged());
+        assertEquals(februaryId, again.get(1).getId());
+        assertEquals(4, readingDAO.findAll().size());
+        assertEquals(250d, readingDAO.findById(februaryId).getMeterCount());
+
+        // The rollup follows the updated count
+        List<ConsumptionPeriod> months = readingDAO.findConsumption(null, ConsumptionInterval.MONTH);
+        assertEquals(3, months.size());
+        assertEquals(150d, months.get(0).getConsumption(), 1e-9);
+        assertEquals(50d, months.get(1).getConsumption(), 1e-9);
+
+        // Plain inserts of a stored meter and date are rejected by the unique index
+        assertEquals(0, readingDAO.createAll(List.of(upsertReading(customer, LocalDate.of(2024, 1, 1), 1d))));
+
+        // On a handover day the next customer's reading is added, the previous one kept
+        Customer next = new Customer();
+        next.setFirstName("Jane");
+        next.setLastName("Roe");
+        customerDAO.create(next);
+        Reading handover = upsertReading(next, LocalDate.of(2024, 4, 1), 400d);
+        assertEquals(1, readingDAO.upsertAll(List.of(handover)).getInserted());
+        assertNotEquals(again.get(3).getId(), handover.getId());
+        assertEquals(customer.getId(), readingDAO.findById(again.get(3).getId()).getCustomer().getId());
+        assertEquals(5, readingDAO.findAll().size());
+
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    private static Reading upsertReading(Customer customer, LocalDate date, double count) {
+        Reading reading = new Reading();
+        reading.setCustomer(customer);
+        reading.setDateOfReading(date);
+        reading.setKindOfMeter(IReading.KindOfMeter.STROM);
+        reading.setMeterCount(count);
+        reading.setMeterId("S-1");
+        reading.setSubstitute(false);
+        return reading;
+    }
+
+    private void createReading(ReadingDAO readingDAO, Customer customer, LocalDate date,
+                               IReading.KindOfMeter kind, String meterId, boolean substitute) {
+        Reading reading = new Reading();
+        reading.setCustomer(customer);
+        reading.setDateOfReading(date);
+        reading.setKindOfMeter(kind);
+        reading.setMeterCount(1000d);
+        reading.setMeterId(meterId);
+        reading.setSubstitute(substitute);
+        readingDAO.create(reading);
+    }
 }
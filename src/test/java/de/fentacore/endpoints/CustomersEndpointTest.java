@@ -15,11 +15,13 @@ import de.fentacore.model.CustomerRequest;
 import de.fentacore.model.CustomersResponse;
 import de.fentacore.model.Reading;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -79,21 +81,19 @@ public class CustomersEndpointTest {
     @Test
     void testGetCustomers_Success() throws Exception {
         // Test the GET /customers endpoint that currently has 0% coverage
-        Response response = customersEndpoint.getCustomers();
+        Response response = customersEndpoint.getCustomers(null, null, null);
         
         assertEquals(200, response.getStatus(), "Should return 200 OK");
         assertNotNull(response.getEntity(), "Response should have entity");
         
-        // Verify response is CustomersResponse type
-        assertTrue(response.getEntity() instanceof CustomersResponse, 
-                "Response should be CustomersResponse type");
-        
-        CustomersResponse customersResponse = (CustomersResponse) response.getEntity();
-        assertNotNull(customersResponse.getCustomers(), "Customers list should not be null");
+        // The full list is streamed instead of being built as a CustomersResponse
+        assertTrue(response.getEntity() instanceof StreamingOutput,
+                "Response should be streamed");
         
         // Validate JSON structure
-        String jsonResponse = objectMapper.writeValueAsString(customersResponse);
-        JsonNode jsonNode = objectMapper.readTree(jsonResponse);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(body);
+        JsonNode jsonNode = objectMapper.readTree(body.toByteArray());
         
         assertTrue(jsonNode.has("customers"), "Response should have 'customers' property");
         assertTrue(jsonNode.get("customers").isArray(), "Customers should be an array");
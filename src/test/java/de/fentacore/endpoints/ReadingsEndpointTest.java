@@ -15,6 +15,7 @@ import de.fentacore.interfaces.IReading;
 import de.fentacore.model.Customer;
 import de.fentacore.model.Reading;
 import de.fentacore.model.ReadingRequest;
+import de.fentacore.utils.DaoBinder;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.server.ResourceConfig;
@@ -42,7 +43,7 @@ public class ReadingsEndpointTest extends JerseyTest {
 
     @Override
     protected Application configure() {
-        return new ResourceConfig(Readings.class);
+        return new ResourceConfig(Readings.class).register(new DaoBinder());
     }
 
     @BeforeEach
@@ -356,6 +357,103 @@ public class ReadingsEndpointTest extends JerseyTest {
         assertTrue(jsonResponse.contains("HEIZUNG, STROM, WASSER, UNBEKANNT"));
     }
 
+    @Test
+    public void testGetReadingsPaginated_Success() throws Exception {
+        Reading second = new Reading();
+        second.setCustomer(testCustomer);
+        second.setDateOfReading(LocalDate.of(2024, 2, 15));
+        second.setKindOfMeter(IReading.KindOfMeter.STROM);
+        second.setMeterCount(1300.0);
+        second.setMeterId("METER-001");
+        second.setSubstitute(false);
+        readingDAO.create(second);
+
+        Response response = target("/readings")
+                .queryParam("limit", "1")
+                .request()
+                .get();
+
+        assertEquals(200, response.getStatus());
+        JsonNode firstPage = objectMapper.readTree(response.readEntity(String.class));
+        assertTrue(readingsSchema.validate(firstPage).isEmpty());
+        assertEquals(1, firstPage.get("readings").size());
+        assertEquals(testReading.getId().toString(), firstPage.get("readings").get(0).get("id").asText());
+        assertTrue(firstPage.hasNonNull("next"));
+
+        response = target("/readings")
+                .queryParam("limit", "1")
+                .queryParam("next", firstPage.get("next").asText())
+                .request()
+                .get();
+
+        assertEquals(200, response.getStatus());
+        JsonNode secondPage = objectMapper.readTree(response.readEntity(String.class));
+        assertEquals(1, secondPage.get("readings").size());
+        assertEquals(second.getId().toString(), secondPage.get("readings").get(0).get("id").asText());
+        assertFalse(secondPage.has("next"));
+    }
+
+    @Test
+    public void testGetReadingsPaginated_InvalidParameters() {
+        Response response = target("/readings")
+                .queryParam("limit", "0")
+                .request()
+                .get();
+        assertEquals(400, response.getStatus());
+        assertTrue(response.readEntity(String.class).contains("Invalid limit"));
+
+        response = target("/readings")
+                .queryParam("next", "not-a-cursor")
+                .request()
+                .get();
+        assertEquals(400, response.getStatus());
+        assertTrue(response.readEntity(String.class).contains("Invalid next cursor"));
+    }
+
+    @Test
+    public void testGetConsumption_Success() throws Exception {
+        Reading later = new Reading();
+        later.setCustomer(testCustomer);
+        later.setDateOfReading(LocalDate.of(2024, 2, 15));
+        later.setMeterId("METER-001");
+        later.setSubstitute(false);
+        later.setMeterCount(1300.5);
+        later.setKindOfMeter(IReading.KindOfMeter.STROM);
+        readingDAO.create(later);
+
+        Response response = target("/readings/consumption")
+                .queryParam("customer", testCustomer.getId().toString())
+                .queryParam("interval", "month")
+                .request()
+                .get();
+
+        assertEquals(200, response.getStatus());
+        JsonNode jsonNode = objectMapper.readTree(response.readEntity(String.class));
+        assertEquals("month", jsonNode.get("interval").asText());
+        JsonNode periods = jsonNode.get("consumption");
+        assertEquals(1, periods.size());
+        assertEquals("METER-001", periods.get(0).get("meterId").asText());
+        assertEquals("2024-02", periods.get(0).get("period").asText());
+        assertEquals(66.0, periods.get(0).get("consumption").asDouble(), 1e-9);
+    }
+
+    @Test
+    public void testGetConsumption_InvalidInterval() {
+        Response response = target("/readings/consumption")
+                .queryParam("interval", "week")
+                .request()
+                .get();
+        assertEquals(400, response.getStatus());
+        assertTrue(response.readEntity(String.class).contains("Invalid interval"));
+
+        response = target("/readings/consumption")
+                .queryParam("start", "15.01.2024")
+                .request()
+                .get();
+        assertEquals(400, response.getStatus());
+        assertTrue(response.readEntity(String.class).contains("Invalid start date format"));
+    }
+
     @Test
     public void testGetReadingsWithMultipleFilters_Success() throws Exception {
         Response response = target("/readings")
@@ -569,6 +667,56 @@ public class ReadingsEndpointTest extends JerseyTest {
         assertEquals("New test reading", readingNode.get("comment").asText());
     }
 
+    @Test
+    public void testCreateReading_SameMeterAndDayConflicts() throws Exception {
+        Reading duplicate = new Reading();
+        duplicate.setCustomer(testCustomer);
+        duplicate.setDateOfReading(testReading.getDateOfReading());
+        duplicate.setMeterId(testReading.getMeterId());
+        duplicate.setSubstitute(false);
+        duplicate.setMeterCount(1300.0);
+        duplicate.setKindOfMeter(IReading.KindOfMeter.STROM);
+
+        Response response = target("/readings")
+                .request()
+                .post(jakarta.ws.rs.client.Entity.entity(
+                        objectMapper.writeValueAsString(new ReadingRequest(duplicate)), "application/json"));
+
+        assertEquals(409, response.getStatus());
+        assertTrue(response.readEntity(String.class).contains("METER-001"));
+        assertEquals(1, readingDAO.findAll().size());
+    }
+
+    @Test
+    public void testCreateReading_ConflictBodyIsValidJson() throws Exception {
+        String meterId = "METER-\"QUOTED\\-001";
+        Reading first = new Reading();
+        first.setCustomer(testCustomer);
+        first.setDateOfReading(LocalDate.of(2024, 4, 1));
+        first.setMeterId(meterId);
+        first.setSubstitute(false);
+        first.setMeterCount(100.0);
+        first.setKindOfMeter(IReading.KindOfMeter.STROM);
+        assertNotNull(readingDAO.create(first));
+
+        Reading duplicate = new Reading();
+        duplicate.setCustomer(testCustomer);
+        duplicate.setDateOfReading(first.getDateOfReading());
+        duplicate.setMeterId(meterId);
+        duplicate.setSubstitute(false);
+        duplicate.setMeterCount(200.0);
+        duplicate.setKindOfMeter(IReading.KindOfMeter.STROM);
+
+        Response response = target("/readings")
+                .request()
+                .post(jakarta.ws.rs.client.Entity.entity(
+                        objectMapper.writeValueAsString(new ReadingRequest(duplicate)), "application/json"));
+
+        assertEquals(409, response.getStatus());
+        JsonNode body = objectMapper.readTree(response.readEntity(String.class));
+        assertTrue(body.get("error").asText().contains(meterId));
+    }
+
     @Test
     public void testCreateReading_WithProvidedId() throws Exception {
         UUID providedId = UUID.randomUUID();
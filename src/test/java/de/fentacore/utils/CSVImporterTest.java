@@ -1,24 +1,35 @@
 package de.fentacore.utils;
 
 import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.ConsumptionInterval;
 import de.fentacore.dao.CustomerDAO;
+import de.fentacore.dao.ReadingBulkLoader;
 import de.fentacore.dao.ReadingDAO;
 import de.fentacore.interfaces.ICustomer;
 import de.fentacore.interfaces.IReading;
+import de.fentacore.model.ConsumptionPeriod;
 import de.fentacore.model.Customer;
+import de.fentacore.model.ImportResult;
+import de.fentacore.model.ImportSummary;
 import de.fentacore.model.Reading;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mariadb.jdbc.MariaDbDataSource;
 
 import java.io.*;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -265,11 +276,13 @@ public class CSVImporterTest {
                 "\"Datum\";\"Zählerstand\";\"Kommentar\"\n" +
                 "\"01.01.2024\";\"1234,5\";\"\"\n";
 
-        // This will fail because the customer lookup returns null and causes NPE during creation
-        // The CSVImporter should handle this case more gracefully
-        assertThrows(NullPointerException.class, () -> {
-            csvImporter.importReadingsFromString(csvContent);
-        });
+        // The customer is resolved once from the header; an unknown one rejects the whole file
+        int importedCount = csvImporter.importReadingsFromString(csvContent);
+        assertEquals(0, importedCount);
+        assertTrue(outContent.toString().contains("Unknown customer " + nonExistentCustomerId));
+
+        List<IReading> readings = readingDAO.findAll();
+        assertEquals(0, readings.size());
     }
 
     @Test
@@ -448,11 +461,63 @@ public class CSVImporterTest {
         
         // Only the valid reading should exist
         IReading validReading = readings.get(0);
-        // Note: Due to the parsing issue in CSVImporter, meter counts are stored as 0.0
-        assertEquals(0.0, validReading.getMeterCount());
+        // Quoted counts are unquoted before parsing
+        assertEquals(1234.5, validReading.getMeterCount());
         assertEquals("Valid reading", validReading.getComment());
     }
 
+    @Test
+    public void testImportReadingsFromStream() throws Exception {
+        Customer customer = createTestCustomer();
+
+        // "strom" only appears in a data row comment; the kind must come from the header block
+        String csvContent = "\"Kunde\";\"" + customer.getId() + "\";\n" +
+                "\"Zählernummer\";\"WAS-789\";\n" +
+                ";;\n" +
+                "\"Datum\";\"Zählerstand m³\";\"Kommentar\"\n" +
+                "\"01.03.2024\";\"123,45\";\"Strom war aus\"\n" +
+                "\"01.04.2024\";;\"\"\n" +
+                "\"01.05.2024\";\"130,00\";\"\"\n";
+
+        ImportResult result = csvImporter.importReadingsFromStream(
+                new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(result.isRejected());
+        assertEquals(3, result.getLinesRead());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getSkipped());
+
+        List<IReading> readings = readingDAO.findAll();
+        assertEquals(2, readings.size());
+        assertTrue(readings.stream().allMatch(r -> r.getKindOfMeter() == IReading.KindOfMeter.WASSER));
+    }
+
+    @Test
+    public void testImportFromStream_RejectedAndCustomers() throws Exception {
+        String readingsContent = "\"Kunde\";\"00000000-0000-0000-0000-000000000000\";\n" +
+                "\"Zählernummer\";\"MST-123456\";\n" +
+                "\"Datum\";\"Zählerstand\";\"Kommentar\"\n" +
+                "\"01.01.2024\";\"1234,5\";\"\"\n";
+
+        ImportResult rejected = csvImporter.importReadingsFromStream(
+                new ByteArrayInputStream(readingsContent.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(rejected.isRejected());
+        assertEquals(0, rejected.getLinesRead());
+        assertTrue(rejected.getMessage().contains("Unknown customer"));
+
+        String customersContent = "UUID,Anrede,Vorname,Nachname,Geburtsdatum\n" +
+                "550e8400-e29b-41d4-a716-446655440000,Herr,John,Doe,01.01.1990\n" +
+                "550e8400-e29b-41d4-a716-446655440001,Frau,Jäne\n" +
+                "550e8400-e29b-41d4-a716-446655440002,Frau,Jäne,Smith,15.05.1985\n";
+
+        ImportResult customers = csvImporter.importCustomersFromStream(
+                new ByteArrayInputStream(customersContent.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("customers", customers.getType());
+        assertEquals(3, customers.getLinesRead());
+        assertEquals(2, customers.getImported());
+        assertEquals("Jäne", customerDAO.findById(UUID.fromString("550e8400-e29b-41d4-a716-446655440002")).getFirstName());
+    }
+
     // ====== EXISTING TESTS (keeping the working ones) ======
 
     @Test
@@ -692,84 +757,73 @@ public class CSVImporterTest {
         assertEquals(2345.6, readings.get(0).getMeterCount());
     }
 
-    // Tests for private helper methods using reflection
+    // Tests for the field parsing, through CsvTokenizer as the importer reads the files
 
     @Test
     public void testMapAnredeToGender() throws Exception {
-        Method method = CSVImporter.class.getDeclaredMethod("mapAnredeToGender", String.class);
+        Method method = CSVImporter.class.getDeclaredMethod("mapAnredeToGender", CsvTokenizer.class, int.class);
         method.setAccessible(true);
-        
-        assertEquals(ICustomer.Gender.M, method.invoke(csvImporter, "Herr"));
-        assertEquals(ICustomer.Gender.M, method.invoke(csvImporter, "HERR"));
-        assertEquals(ICustomer.Gender.M, method.invoke(csvImporter, "herr"));
-        
-        assertEquals(ICustomer.Gender.W, method.invoke(csvImporter, "Frau"));
-        assertEquals(ICustomer.Gender.W, method.invoke(csvImporter, "FRAU"));
-        assertEquals(ICustomer.Gender.W, method.invoke(csvImporter, "frau"));
-        
-        assertEquals(ICustomer.Gender.D, method.invoke(csvImporter, "Divers"));
-        assertEquals(ICustomer.Gender.D, method.invoke(csvImporter, "DIVERS"));
-        assertEquals(ICustomer.Gender.D, method.invoke(csvImporter, "divers"));
-        
-        assertEquals(ICustomer.Gender.U, method.invoke(csvImporter, "Unknown"));
-        assertEquals(ICustomer.Gender.U, method.invoke(csvImporter, ""));
-        assertEquals(ICustomer.Gender.U, method.invoke(csvImporter, "invalid"));
+        CsvTokenizer csv = tokenize("Herr;HERR;herr;Frau;FRAU;frau;Divers;DIVERS;divers;Unknown;;invalid;\"Herr\"");
+        ICustomer.Gender[] expected = {
+                ICustomer.Gender.M, ICustomer.Gender.M, ICustomer.Gender.M,
+                ICustomer.Gender.W, ICustomer.Gender.W, ICustomer.Gender.W,
+                ICustomer.Gender.D, ICustomer.Gender.D, ICustomer.Gender.D,
+                ICustomer.Gender.U, ICustomer.Gender.U, ICustomer.Gender.U,
+                ICustomer.Gender.M};
+
+        assertEquals(expected.length, csv.getFieldCount());
+        for (int field = 0; field < expected.length; field++) {
+            assertEquals(expected[field], method.invoke(csvImporter, csv, field), csv.getString(field));
+        }
     }
 
     @Test
-    public void testParseDateOrNull() throws Exception {
-        Method method = CSVImporter.class.getDeclaredMethod("parseDateOrNull", String.class);
-        method.setAccessible(true);
-        
-        assertEquals(LocalDate.of(2024, 1, 15), method.invoke(csvImporter, "15.01.2024"));
-        assertEquals(LocalDate.of(1990, 12, 31), method.invoke(csvImporter, "31.12.1990"));
-        
-        assertNull(method.invoke(csvImporter, ""));
-        assertNull(method.invoke(csvImporter, (String) null));
-        assertNull(method.invoke(csvImporter, "invalid-date"));
-        assertNull(method.invoke(csvImporter, "2024-01-15"));  // Wrong format
+    public void testParseDate() throws Exception {
+        CsvTokenizer csv = tokenize("15.01.2024;\"31.12.1990\";;invalid-date;2024-01-15");
+
+        assertEquals(LocalDate.of(2024, 1, 15), csv.getDate(0));
+        assertEquals(LocalDate.of(1990, 12, 31), csv.getDate(1));
+        assertNull(csv.getDate(2));
+        assertNull(csv.getDate(3));
+        assertNull(csv.getDate(4));  // Wrong format
+        assertNull(CsvTokenizer.parseLocalDate(null));
     }
 
     @Test
-    public void testParseDoubleWithComma() throws Exception {
-        Method method = CSVImporter.class.getDeclaredMethod("parseDoubleWithComma", String.class);
-        method.setAccessible(true);
-        
-        assertEquals(1234.5, method.invoke(csvImporter, "1234,5"));
-        assertEquals(1234.5, method.invoke(csvImporter, "1234.5"));
-        assertEquals(0.0, method.invoke(csvImporter, "0,0"));
-        assertEquals(999999.99, method.invoke(csvImporter, "999999,99"));
-        
-        assertNull(method.invoke(csvImporter, ""));
-        assertNull(method.invoke(csvImporter, (String) null));
-        assertNull(method.invoke(csvImporter, "invalid"));
-        assertNull(method.invoke(csvImporter, "abc,def"));
+    public void testParseDecimalWithComma() throws Exception {
+        CsvTokenizer csv = tokenize("1234,5;1234.5;0,0;\"999999,99\";;invalid;abc,def");
+
+        assertEquals(1234.5, csv.getDecimal(0));
+        assertEquals(1234.5, csv.getDecimal(1));
+        assertEquals(0.0, csv.getDecimal(2));
+        assertEquals(999999.99, csv.getDecimal(3));
+        assertTrue(Double.isNaN(csv.getDecimal(4)));
+        assertTrue(Double.isNaN(csv.getDecimal(5)));
+        assertTrue(Double.isNaN(csv.getDecimal(6)));
+        assertTrue(Double.isNaN(CsvTokenizer.parseDecimal((String) null)));
     }
 
     @Test
-    public void testStripQuotes() throws Exception {
-        Method method = CSVImporter.class.getDeclaredMethod("stripQuotes", String.class);
-        method.setAccessible(true);
-        
-        assertEquals("test", method.invoke(csvImporter, "\"test\""));
-        assertEquals("test", method.invoke(csvImporter, "test"));
-        assertEquals("", method.invoke(csvImporter, "\"\""));
-        assertEquals("\"test", method.invoke(csvImporter, "\"test"));
-        assertEquals("test\"", method.invoke(csvImporter, "test\""));
-        assertEquals("\"test with spaces\"", method.invoke(csvImporter, "\"\"test with spaces\"\""));
+    public void testQuotedFields() throws Exception {
+        CsvTokenizer csv = tokenize("\"test\";test;\"\";test\";\"\"\"test with spaces\"\"\"");
+
+        assertEquals("test", csv.getString(0));
+        assertEquals("test", csv.getString(1));
+        assertEquals("", csv.getString(2));
+        assertEquals("test\"", csv.getString(3));
+        assertEquals("\"test with spaces\"", csv.getString(4));
     }
 
     @Test
-    public void testExtractUuid() throws Exception {
-        Method method = CSVImporter.class.getDeclaredMethod("extractUuid", String.class);
-        method.setAccessible(true);
-        
+    public void testGetUuid() throws Exception {
+        CsvTokenizer csv = tokenize("\"550e8400-e29b-41d4-a716-446655440000\"; 550e8400-e29b-41d4-a716-446655440000 ;"
+                + "invalid-uuid;\"invalid-uuid\"");
+
         UUID testUuid = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
-        assertEquals(testUuid, method.invoke(csvImporter, "\"550e8400-e29b-41d4-a716-446655440000\""));
-        assertEquals(testUuid, method.invoke(csvImporter, "550e8400-e29b-41d4-a716-446655440000"));
-        
-        assertThrows(Exception.class, () -> method.invoke(csvImporter, "invalid-uuid"));
-        assertThrows(Exception.class, () -> method.invoke(csvImporter, "\"invalid-uuid\""));
+        assertEquals(testUuid, csv.getUuid(0));
+        assertEquals(testUuid, csv.getUuid(1));
+        assertThrows(IllegalArgumentException.class, () -> csv.getUuid(2));
+        assertThrows(IllegalArgumentException.class, () -> csv.getUuid(3));
     }
 
     @Test
@@ -813,6 +867,185 @@ public class CSVImporterTest {
         });
     }
 
+    @Test
+    public void testImportAllParallel() throws Exception {
+        UUID known = UUID.fromString("550e8400-e29b-41d4-a716-446655440010");
+        Path customers = createTempCSVFile("kunden.csv", "UUID,Anrede,Vorname,Nachname,Geburtsdatum\n" +
+                known + ",Frau,Erika,Muster,01.02.1970\n" +
+                "550e8400-e29b-41d4-a716-446655440011,Herr,Max,Muster,\n");
+
+        // One file per month for one meter, as the meter exports deliver them
+        List<Path> files = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            files.add(createTempCSVFile(String.format("MST-1_2024-%02d.csv", month),
+                    "\"Kunde\";\"" + known + "\";\n\"Zählernummer\";\"MST-1\";\n" +
+                    "\"Datum\";\"Zählerstand in kWh\";\"Kommentar\"\n" +
+                    String.format("01.%02d.2024;%d;\n", month, 1000 + month * 100)));
+        }
+        files.add(5, createTempCSVFile("strom_unknown.csv",
+                "\"Kunde\";\"550e8400-e29b-41d4-a716-446655449999\";\n\"Zählernummer\";\"MST-2\";\n" +
+                "\"Datum\";\"Zählerstand in kWh\";\"Kommentar\"\n01.01.2024;1;\n"));
+        files.add(createTempCSVFile("strom_broken.csv", "\"Kunde\";\"not-a-uuid\";\n"));
+
+        ImportSummary summary = csvImporter.importAll(customers, files, 4);
+
+        assertEquals(2, summary.getCustomers().get(0).getImported());
+        assertEquals(files.size(), summary.getFiles().size());
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(files.get(i).toString(), summary.getFiles().get(i).getSource());
+        }
+        assertEquals(2, summary.getFailedFiles());
+        assertTrue(summary.getFiles().get(5).getMessage().contains("Unknown customer"));
+        assertTrue(summary.getFiles().get(files.size() - 1).getMessage().contains("not-a-uuid"));
+        assertEquals(12, summary.getImported());
+        assertEquals(12, readingDAO.findAll().size());
+
+        // Concurrent writes to one meter must leave the monthly rollup complete
+        List<ConsumptionPeriod> months = readingDAO.findConsumption(null, ConsumptionInterval.MONTH);
+        assertEquals(11, months.size());
+        months.forEach(period -> assertEquals(100.0, period.getConsumption(), 1e-9));
+    }
+
+    @Test
+    public void testImportFromDirectoryAndZip() throws Exception {
+        UUID known = UUID.fromString("550e8400-e29b-41d4-a716-446655440010");
+        String customers = "UUID,Anrede,Vorname,Nachname,Geburtsdatum\n" + known + ",Frau,Jürgen,Muster,01.02.1970\n";
+        String header = "\"Kunde\";\"" + known + "\";\n\"Zählernummer\";\"%s\";\n\"Datum\";\"Zählerstand\";\"Kommentar\"\n";
+        // Large enough to be memory-mapped
+        StringBuilder strom = new StringBuilder(String.format(header, "MST-1"));
+        LocalDate day = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < 8000; i++) {
+            strom.append(day.plusDays(i).format(DateTimeFormatter.ofPattern("dd.MM.yyyy")))
+                    .append(';').append(i).append(";Ablesung vor Ort\n");
+        }
+        String heizung = String.format(header, "MWZ-1") + "01.01.2024;10;Größe geprüft\n";
+
+        Path directory = Files.createDirectories(tempDir.resolve("export/2024"));
+        Files.write(tempDir.resolve("export/Kunden.csv"), customers.getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("strom_1.csv"), strom.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("heizung_1.CSV"), heizung.getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("wasser_latin1.csv"),
+                (String.format(header, "WZ-1") + "01.01.2024;1;\n").getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(directory.resolve("notes.txt"), "not a csv".getBytes(StandardCharsets.UTF_8));
+
+        ImportSummary summary = csvImporter.importFrom(tempDir.resolve("export"), 2);
+
+        assertEquals(1, summary.getCustomers().size());
+        assertEquals("Jürgen", customerDAO.findById(known).getFirstName());
+        assertEquals(3, summary.getFiles().size());
+        assertEquals(8001, summary.getImported());
+        assertEquals(1, summary.getFailedFiles());
+        assertTrue(summary.getFiles().get(2).getMessage().contains("wasser_latin1.csv"));
+        assertTrue(readingDAO.findAll().stream().anyMatch(r -> "Größe geprüft".equals(r.getComment())));
+
+        // The archive repeats two files and adds one; only the new one is imported
+        Path zip = tempDir.resolve("export.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addZipEntry(out, "kunden.csv", customers);
+            addZipEntry(out, "2024/strom_1.csv", strom.toString());
+            addZipEntry(out, "2025/heizung_1.csv", String.format(header, "MWZ-1") + "01.01.2025;20;\n");
+        }
+
+        summary = csvImporter.importFrom(zip, 2);
+
+        assertTrue(summary.getCustomers().get(0).isAlreadyImported());
+        assertEquals(zip + "!/2024/strom_1.csv", summary.getFiles().get(0).getSource());
+        assertTrue(summary.getFiles().get(0).isAlreadyImported());
+        assertEquals(1, summary.getSkippedFiles());
+        assertEquals(0, summary.getFailedFiles());
+        assertEquals(1, summary.getImported());
+        assertEquals(8002, readingDAO.findAll().size());
+    }
+
+    private static void addZipEntry(ZipOutputStream out, String name, String content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    @Test
+    public void testReimportUpsertsOnNaturalKeys() throws Exception {
+        UUID known = UUID.fromString("550e8400-e29b-41d4-a716-446655440010");
+        String customerHeader = "UUID,Anrede,Vorname,Nachname,Geburtsdatum\n";
+        String erika = known + ",Frau,Erika,Muster,01.02.1970\n";
+        String header = "\"Kunde\";\"" + known + "\";\n\"Zählernummer\";\"MST-1\";\n" +
+                "\"Datum\";\"Zählerstand in kWh\";\"Kommentar\"\n";
+
+        csvImporter.importAll(createTempCSVFile("kunden_1.csv", customerHeader + erika),
+                List.of(createTempCSVFile("strom_1.csv", header + "01.01.2024;100;\n01.02.2024;200;\n")), 1);
+
+        // A corrected export of the same period: one count fixed, one month added
+        ImportSummary summary = csvImporter.importAll(
+                createTempCSVFile("kunden_2.csv", customerHeader + erika +
+                        "550e8400-e29b-41d4-a716-446655440011,Herr,Max,Muster,\n"),
+                List.of(createTempCSVFile("strom_2.csv", header + "01.01.2024;100;\n01.02.2024;210;korrigiert\n01.03.2024;300;\n")), 1);
+
+        ImportResult customers = summary.getCustomers().get(0);
+        assertEquals(1, customers.getInserted());
+        assertEquals(0, customers.getUpdated());
+        assertEquals(1, customers.getSkipped());
+        ImportResult readings = summary.getFiles().get(0);
+        assertEquals(1, readings.getInserted());
+        assertEquals(1, readings.getUpdated());
+        assertEquals(1, readings.getSkipped());
+
+        assertEquals(2, customerDAO.findAll().size());
+        List<IReading> stored = readingDAO.findAll();
+        assertEquals(3, stored.size());
+        assertTrue(stored.stream().anyMatch(r -> r.getMeterCount() == 210 && "korrigiert".equals(r.getComment())));
+    }
+
+    @Test
+    public void testImportReadingsWithLoadDataLocalInfile() throws Exception {
+        Customer customer = createTestCustomer();
+        String header = "\"Kunde\";\"" + customer.getId() + "\";\n\"Zählernummer\";\"%s\";\n" +
+                "\"Datum\";\"Zählerstand in kWh\";\"Kommentar\"\n";
+        Path strom = createTempCSVFile("strom_bulk.csv", String.format(header, "MST-B") +
+                "01.01.2024;100;\"Tab\there, back\\slash\"\n" +
+                "01.02.2024;150,5;\"Zeile\nzwei\"\n" +
+                "01.03.2024;200;\n");
+
+        System.setProperty("db.bulk.loadLocalInfile", "true");
+        System.setProperty("db.bulk.rows", "2");
+        try {
+            ImportResult result = new CSVImporter().importAll(null, List.of(strom), 1).getFiles().get(0);
+            assertFalse(result.isRejected(), result.getMessage());
+            assertEquals(3, result.getImported());
+
+            List<IReading> readings = readingDAO.findAll();
+            assertEquals(3, readings.size());
+            assertTrue(readings.stream().anyMatch(r -> "Tab\there, back\\slash".equals(r.getComment())));
+            assertTrue(readings.stream().anyMatch(r -> "Zeile\nzwei".equals(r.getComment())
+                    && r.getMeterCount() == 150.5 && r.getKindOfMeter() == IReading.KindOfMeter.STROM
+                    && customer.getId().equals(r.getCustomer().getId())));
+            assertEquals(2, readingDAO.findConsumption(null, ConsumptionInterval.MONTH).size());
+            assertFalse(outContent.toString().contains("LOAD DATA LOCAL INFILE is not allowed"));
+
+            // With LOCAL INFILE disabled in the driver the loader falls back to INSERTs; the
+            // server's own setting is left alone
+            String url = DatabaseConfig.getProperty("db.url", null);
+            MariaDbDataSource noLocalInfile = new MariaDbDataSource(
+                    url + (url.contains("?") ? "&" : "?") + "allowLocalInfile=false");
+            noLocalInfile.setUser(DatabaseConfig.getProperty("db.username", null));
+            noLocalInfile.setPassword(DatabaseConfig.getProperty("db.password", null));
+            ReadingBulkLoader loader = new ReadingBulkLoader(readingDAO, noLocalInfile);
+
+            Reading reading = new Reading();
+            reading.setCustomer(customer);
+            reading.setDateOfReading(LocalDate.of(2024, 1, 1));
+            reading.setKindOfMeter(IReading.KindOfMeter.WASSER);
+            reading.setMeterCount(7d);
+            reading.setMeterId("WZ-B");
+            assertEquals(1, loader.createAll(List.of(reading)));
+            assertFalse(loader.isBulkLoading());
+            assertEquals(4, readingDAO.findAll().size());
+            assertTrue(outContent.toString().contains("LOAD DATA LOCAL INFILE is not allowed"));
+        } finally {
+            System.clearProperty("db.bulk.loadLocalInfile");
+            System.clearProperty("db.bulk.rows");
+        }
+    }
+
     // Edge case tests
 
     @Test
@@ -901,46 +1134,33 @@ public class CSVImporterTest {
 
     private Path createTempCSVFile(String filename, String content) throws IOException {
         Path file = tempDir.resolve(filename);
-        Files.write(file, content.getBytes());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
         return file;
     }
 
     private void testImportCustomersFromString(String csvContent) throws Exception {
-        // Create a temporary file and use reflection to test the import
-        try (StringReader stringReader = new StringReader(csvContent);
-             BufferedReader bufferedReader = new BufferedReader(stringReader)) {
-            
-            String line = bufferedReader.readLine(); // read header
-            
-            while ((line = bufferedReader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(",");
-                if (parts.length < 4) continue;
-
-                String uuidStr = parts[0].trim();
-                String anrede = parts[1].trim();
-                String vorname = parts[2].trim();
-                String nachname = parts[3].trim();
-                String geburtsdatum = (parts.length > 4) ? parts[4].trim() : "";
-
-                Customer c = new Customer();
-                c.setId(UUID.fromString(uuidStr));
-                c.setFirstName(vorname);
-                c.setLastName(nachname);
-                
-                // Use reflection to call private method
-                Method mapGenderMethod = CSVImporter.class.getDeclaredMethod("mapAnredeToGender", String.class);
-                mapGenderMethod.setAccessible(true);
-                c.setGender((ICustomer.Gender) mapGenderMethod.invoke(csvImporter, anrede));
-                
-                Method parseDateMethod = CSVImporter.class.getDeclaredMethod("parseDateOrNull", String.class);
-                parseDateMethod.setAccessible(true);
-                c.setBirthDate((LocalDate) parseDateMethod.invoke(csvImporter, geburtsdatum));
-
-                customerDAO.create(c);
-            }
+        Method mapGenderMethod = CSVImporter.class.getDeclaredMethod("mapAnredeToGender", CsvTokenizer.class, int.class);
+        mapGenderMethod.setAccessible(true);
+
+        CsvTokenizer csv = new CsvTokenizer(new StringReader(csvContent), ',');
+        csv.next(); // read header
+        while (csv.next()) {
+            if (csv.isBlank() || csv.getFieldCount() < 4) continue;
+
+            Customer c = new Customer();
+            c.setId(csv.getUuid(0));
+            c.setFirstName(csv.getString(2));
+            c.setLastName(csv.getString(3));
+            c.setGender((ICustomer.Gender) mapGenderMethod.invoke(csvImporter, csv, 1));
+            c.setBirthDate(csv.getFieldCount() > 4 ? csv.getDate(4) : null);
+
+            customerDAO.create(c);
         }
     }
+
+    private static CsvTokenizer tokenize(String record) throws IOException {
+        CsvTokenizer csv = new CsvTokenizer(new StringReader(record), ';');
+        assertTrue(csv.next());
+        return csv;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,205 @@
+package de.fentacore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTokenizerTest {
+
+    @Test
+    public void testSplitsAndTrimsFields() throws IOException {
+        List<List<String>> records = read("a; b ;;c\n  x  \n\n;;\n", ';');
+
+        assertEquals(List.of(
+                List.of("a", "b", "", "c"),
+                List.of("x"),
+                List.of(""),
+                List.of("", "", "")), records);
+    }
+
+    @Test
+    public void testRfc4180Quoting() throws IOException {
+        List<List<String>> records = read(
+                "\"01.02.2018\";\"a;b\";\"say \"\"hi\"\"\"\r\n" +
+                "\"two\nlines\";\" padded \";\"\"\r\n" +
+                "\"unterminated;x", ';');
+
+        assertEquals(List.of(
+                List.of("01.02.2018", "a;b", "say \"hi\""),
+                List.of("two\nlines", " padded ", ""),
+                List.of("unterminated;x")), records);
+    }
+
+    @Test
+    public void testLineEndingsAndLastLineWithoutNewline() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of("b"), List.of("c"), List.of("d", "")),
+                read("a\rb\r\nc\nd,", ','));
+    }
+
+    @Test
+    public void testRecordsSpanningBufferRefills() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        String longComment = "x".repeat(200_000);
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("\"").append(i).append("\";").append(i % 100 == 0 ? "\"" + longComment + "\"" : "c").append('\n');
+        }
+        // Short reads refill mid-field; the long comments do not fit the initial buffer
+        CsvTokenizer tokenizer = new CsvTokenizer(new TrickleReader(csv.toString(), 1_000), ';');
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(tokenizer.next());
+            assertEquals(Integer.toString(i), tokenizer.getString(0));
+            assertEquals(i % 100 == 0 ? longComment : "c", tokenizer.getString(1));
+        }
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    public void testSurrogatePairOnBufferBoundary() throws IOException {
+        // The emoji starts at the last char of the 64K buffer, inside a record that spans it
+        String field = "x".repeat(64 * 1024 - 1) + "\uD83D\uDE00";
+        for (String record : new String[]{field, "\"" + field.substring(1) + "\""}) {
+            ByteBuffer bytes = ByteBuffer.wrap((record + ";b\nnext\n").getBytes(StandardCharsets.UTF_8));
+            CsvTokenizer tokenizer = new CsvTokenizer(new ByteBufferReader(bytes), ';');
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertTrue(tokenizer.next()));
+            assertEquals(field.substring(record.startsWith("\"") ? 1 : 0), tokenizer.getString(0));
+            assertEquals("b", tokenizer.getString(1));
+            assertTrue(tokenizer.next());
+            assertEquals("next", tokenizer.getString(0));
+            assertFalse(tokenizer.next());
+        }
+
+        // A one-char read of a surrogate pair returns it in two reads, never 0
+        Reader reader = new ByteBufferReader(ByteBuffer.wrap("\uD83D\uDE00".getBytes(StandardCharsets.UTF_8)));
+        char[] one = new char[1];
+        assertEquals(1, reader.read(one, 0, 1));
+        assertEquals('\uD83D', one[0]);
+        assertEquals(1, reader.read(one, 0, 1));
+        assertEquals('\uDE00', one[0]);
+        assertEquals(-1, reader.read(one, 0, 1));
+    }
+
+    @Test
+    public void testFieldAccessors() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(
+                "\"Kunde\";\"ec617965-88b4-4721-8158-ee36c38e4db3\";HERR;5,965;;\n"), ';');
+        assertTrue(tokenizer.next());
+
+        assertEquals(6, tokenizer.getFieldCount());
+        assertEquals(4, tokenizer.getNonEmptyFieldCount());
+        assertFalse(tokenizer.isBlank());
+        assertTrue(tokenizer.startsWith(0, "Kun"));
+        assertFalse(tokenizer.startsWith(0, "Kundennummer"));
+        assertTrue(tokenizer.equalsIgnoreCase(2, "herr"));
+        assertEquals(UUID.fromString("ec617965-88b4-4721-8158-ee36c38e4db3"), tokenizer.getUuid(1));
+        assertEquals(5.965, tokenizer.getDecimal(3));
+        assertNull(tokenizer.getDate(4));
+        assertEquals(-1, tokenizer.getDateValue(4));
+        assertEquals("Kunde;ec617965-88b4-4721-8158-ee36c38e4db3;HERR;5,965;;", tokenizer.getRecord());
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.getString(6));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.getUuid(2));
+    }
+
+    @Test
+    public void testParseDateMatchesDateTimeFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+        String[] samples = {"01.02.2018", "31.12.1990", "29.02.2020", "29.02.2019", "31.04.2018",
+                "32.01.2018", "00.01.2018", "01.13.2018", "01.01.0000", "01.01.0001", "01.01.+20245",
+                "1.01.2018", "01-01-2018", "2018-02-01", "01.01.2O18", "01.01.20x8", "invalid-date"};
+        for (String sample : samples) {
+            LocalDate expected;
+            try {
+                expected = LocalDate.parse(sample, formatter);
+            } catch (RuntimeException e) {
+                expected = null;
+            }
+            assertEquals(expected, CsvTokenizer.parseLocalDate(sample), sample);
+        }
+        assertNull(CsvTokenizer.parseLocalDate(""));
+        assertNull(CsvTokenizer.parseLocalDate(null));
+    }
+
+    @Test
+    public void testDateValue() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("01.02.2018,31.04.2018,01.01.+20245,2018-02-01"), ',');
+        assertTrue(tokenizer.next());
+
+        assertEquals(20180201L, tokenizer.getDateValue(0));
+        assertEquals(20180430L, tokenizer.getDateValue(1));
+        assertEquals(202450101L, tokenizer.getDateValue(2));
+        assertEquals(LocalDate.of(20245, 1, 1), tokenizer.getDate(2));
+        assertEquals(-1, tokenizer.getDateValue(3));
+    }
+
+    @Test
+    public void testParseDecimalMatchesParseDouble() {
+        String[] samples = {"0", "16573", "5,965", "1234.5", "-0,5", "+3", "1.", ",5", "0,1",
+                "999999999,99", "123456789012345", "1234567890123456789", "0,30000000000000004",
+                "1e3", "1,5e-2", "1.234,5", "abc,def", "-", ",", "1,2,3"};
+        for (String sample : samples) {
+            double expected;
+            try {
+                expected = Double.parseDouble(sample.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            assertEquals(expected, CsvTokenizer.parseDecimal(sample), sample);
+        }
+        assertTrue(Double.isNaN(CsvTokenizer.parseDecimal("")));
+        assertTrue(Double.isNaN(CsvTokenizer.parseDecimal((String) null)));
+    }
+
+    @Test
+    public void testRejectsQuoteAsDelimiter() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvTokenizer(new StringReader(""), '"'));
+    }
+
+    private static List<List<String>> read(String csv, char delimiter) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv), delimiter);
+        List<List<String>> records = new ArrayList<>();
+        while (tokenizer.next()) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+                fields.add(tokenizer.getString(i));
+            }
+            records.add(fields);
+        }
+        return records;
+    }
+
+    /**
+     * Returns at most {@code chunk} chars per read, like a slow network stream.
+     */
+    private static final class TrickleReader extends Reader {
+        private final StringReader delegate;
+        private final int chunk;
+
+        private TrickleReader(String content, int chunk) {
+            this.delegate = new StringReader(content);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            return delegate.read(buf, off, Math.min(len, chunk));
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
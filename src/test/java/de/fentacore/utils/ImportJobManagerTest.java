@@ -0,0 +1,107 @@
+package de.fentacore.utils;
+
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.CustomerDAO;
+import de.fentacore.dao.ReadingDAO;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.Customer;
+import de.fentacore.model.ImportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportJobManagerTest {
+
+    private ImportJobManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+        manager = new ImportJobManager(new CSVImporter(), 1, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.shutdown();
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+    }
+
+    @Test
+    public void testReadingsJobCompletes() throws Exception {
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setGender(ICustomer.Gender.M);
+        new CustomerDAO().create(customer);
+
+        String csvContent = "\"Kunde\";\"" + customer.getId() + "\";\n" +
+                "\"Zählernummer\";\"MST-123456\";\n" +
+                "\"Datum\";\"Zählerstand\";\"Kommentar\"\n" +
+                "\"01.01.2024\";\"1234,5\";\"\"\n" +
+                "\"15.01.2024\";\"1456,7\";\"\"\n";
+
+        ImportJobStatus submitted = manager.submit(ImportJobManager.READINGS, stream(csvContent));
+        assertNotNull(submitted.getId());
+        assertEquals(csvContent.getBytes(StandardCharsets.UTF_8).length, submitted.getBytesTotal());
+
+        ImportJobStatus finished = awaitFinished(UUID.fromString(submitted.getId()));
+        assertEquals("COMPLETED", finished.getState());
+        assertEquals(2, finished.getLinesRead());
+        assertEquals(2, finished.getImported());
+        assertEquals(1.0, finished.getProgress());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(2, new ReadingDAO().findAll().size());
+    }
+
+    @Test
+    public void testQueuedJobCanBeCancelled() throws Exception {
+        // Keeps the single worker busy while the second job waits in the queue
+        StringBuilder large = new StringBuilder("UUID,Anrede,Vorname,Nachname,Geburtsdatum\n");
+        for (int i = 0; i < 5000; i++) {
+            large.append(UUID.randomUUID()).append(",Herr,John,Doe,01.01.1990\n");
+        }
+        ImportJobStatus first = manager.submit(ImportJobManager.CUSTOMERS, stream(large.toString()));
+        ImportJobStatus second = manager.submit(ImportJobManager.CUSTOMERS,
+                stream("UUID,Anrede,Vorname,Nachname,Geburtsdatum\n" + UUID.randomUUID() + ",Frau,Jane,Doe,\n"));
+
+        UUID secondId = UUID.fromString(second.getId());
+        assertTrue(manager.cancel(secondId));
+        assertFalse(manager.cancel(secondId));
+
+        assertEquals("COMPLETED", awaitFinished(UUID.fromString(first.getId())).getState());
+        ImportJobStatus cancelled = manager.getStatus(secondId);
+        assertEquals("CANCELLED", cancelled.getState());
+        assertEquals(0, cancelled.getImported());
+        assertEquals(5000, new CustomerDAO().findAll().size());
+    }
+
+    @Test
+    public void testUnknownTypeAndJob() {
+        assertThrows(IllegalArgumentException.class, () -> manager.submit("meters", stream("")));
+        assertNull(manager.getStatus(UUID.randomUUID()));
+        assertFalse(manager.cancel(UUID.randomUUID()));
+    }
+
+    private ImportJobStatus awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        ImportJobStatus status = manager.getStatus(id);
+        while (("QUEUED".equals(status.getState()) || "RUNNING".equals(status.getState()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            status = manager.getStatus(id);
+        }
+        return status;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,38 @@
 package de.fentacore.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fentacore.config.DatabaseConfig;
+import de.fentacore.dao.CachingCustomerDAO;
+import de.fentacore.dao.CustomerDAO;
+import de.fentacore.dao.DefaultDaos;
+import de.fentacore.dao.ICustomerDAO;
+import de.fentacore.interfaces.ICustomer;
+import de.fentacore.model.Customer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
 
 public class ServerTest {
 
@@ -340,4 +361,267 @@ public class ServerTest {
         assertTrue(customersResponse > 0, "Customers endpoint should be accessible");
         customersConnection.disconnect();
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testCreateExecutor_PlatformPool() {
+        System.setProperty("server.executor", "platform");
+        System.setProperty("server.threads", "4");
+        System.setProperty("server.queueCapacity", "8");
+        try {
+            ExecutorService executor = JdkContainer.createExecutor();
+            assertTrue(executor instanceof ThreadPoolExecutor);
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            assertEquals(4, pool.getMaximumPoolSize());
+            assertEquals(8, pool.getQueue().remainingCapacity());
+            executor.shutdown();
+        } finally {
+            System.clearProperty("server.executor");
+            System.clearProperty("server.threads");
+            System.clearProperty("server.queueCapacity");
+        }
+    }
+
+    @Test
+    public void testCreateExecutor_UnknownMode() {
+        System.setProperty("server.executor", "platfrom");
+        try {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, JdkContainer::createExecutor);
+            assertTrue(e.getMessage().contains("virtual, platform, auto"));
+        } finally {
+            System.clearProperty("server.executor");
+        }
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    public void testFullPlatformPoolAnswers503() throws Exception {
+        System.setProperty("server.executor", "platform");
+        System.setProperty("server.threads", "1");
+        System.setProperty("server.queueCapacity", "1");
+        String testUrl = "http://localhost:8097/rest";
+        Socket running = null;
+        Socket queued = null;
+        try {
+            Server.startServer(testUrl);
+
+            // One request holds the only worker waiting for its body, a second fills the queue
+            running = openSlowUpload(8097);
+            Thread.sleep(200);
+            queued = openSlowUpload(8097);
+            Thread.sleep(200);
+
+            long start = System.nanoTime();
+            HttpURLConnection rejected = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+            rejected.setConnectTimeout(2000);
+            rejected.setReadTimeout(2000);
+            assertEquals(503, rejected.getResponseCode());
+            assertEquals("1", rejected.getHeaderField("Retry-After"));
+            rejected.disconnect();
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, "Overflow should be answered at once");
+
+            // Once the slow clients are gone the pool serves requests again
+            running.close();
+            queued.close();
+            int status = 503;
+            for (int attempt = 0; attempt < 50 && status == 503; attempt++) {
+                Thread.sleep(100);
+                HttpURLConnection connection = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+                connection.setReadTimeout(2000);
+                status = connection.getResponseCode();
+                connection.disconnect();
+            }
+            assertNotEquals(503, status);
+        } finally {
+            if (running != null) {
+                running.close();
+            }
+            if (queued != null) {
+                queued.close();
+            }
+            System.clearProperty("server.executor");
+            System.clearProperty("server.threads");
+            System.clearProperty("server.queueCapacity");
+        }
+    }
+
+    /**
+     * Sends a request whose announced body never arrives, so it occupies a worker until closed.
+     */
+    private static Socket openSlowUpload(int port) throws Exception {
+        Socket socket = new Socket("localhost", port);
+        OutputStream out = socket.getOutputStream();
+        out.write(("POST /rest/import/readings HTTP/1.1\r\nHost: localhost\r\n" +
+                "Content-Type: text/csv\r\nContent-Length: 100\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testSlowRequestDoesNotBlockOthers() throws Exception {
+        String testUrl = "http://localhost:8091/rest";
+        Server.startServer(testUrl);
+
+        // Hold one connection open mid-request: the body is announced but never sent
+        try (Socket slowClient = new Socket("localhost", 8091)) {
+            OutputStream out = slowClient.getOutputStream();
+            out.write(("POST /rest/import/readings HTTP/1.1\r\nHost: localhost\r\n" +
+                    "Content-Type: text/csv\r\nContent-Length: 100\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread.sleep(200);
+
+            HttpURLConnection connection = (HttpURLConnection) new URL(testUrl + "/dbsetup").openConnection();
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            assertTrue(connection.getResponseCode() > 0, "Other clients should still be served");
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    public void testStartServer_Grizzly() throws Exception {
+        String testUrl = "http://localhost:8092/rest";
+        Server.startServer(testUrl, Server.createContainer("grizzly"));
+        assertTrue(outContent.toString().contains("Ready for Requests.... (grizzly)"));
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+        connection.setConnectTimeout(5000);
+        assertEquals(200, connection.getResponseCode());
+        connection.disconnect();
+
+        Server.stopServer();
+        assertThrows(IllegalArgumentException.class, () -> Server.createContainer("tomcat"));
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    public void testListCompressionAndConditionalGet() throws Exception {
+        DatabaseConfig.createTables();
+        String testUrl = "http://localhost:8093/rest";
+        Server.startServer(testUrl);
+
+        HttpURLConnection first = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+        first.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(200, first.getResponseCode());
+        assertEquals("gzip", first.getHeaderField("Content-Encoding"));
+        try (InputStream body = new GZIPInputStream(first.getInputStream())) {
+            assertTrue(new String(body.readAllBytes(), StandardCharsets.UTF_8).startsWith("{\"customers\":["));
+        }
+        String etag = first.getHeaderField("ETag");
+        assertNotNull(etag);
+        assertNotNull(first.getHeaderField("Last-Modified"));
+        first.disconnect();
+
+        HttpURLConnection unchanged = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+        unchanged.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, unchanged.getResponseCode());
+        unchanged.disconnect();
+
+        Customer customer = new Customer();
+        customer.setFirstName("Etag");
+        customer.setLastName("Test");
+        customer.setBirthDate(LocalDate.of(1980, 1, 1));
+        customer.setGender(ICustomer.Gender.D);
+        CustomerDAO customerDAO = new CustomerDAO();
+        customerDAO.create(customer);
+        try {
+            HttpURLConnection changed = (HttpURLConnection) new URL(testUrl + "/customers").openConnection();
+            changed.setRequestProperty("If-None-Match", etag);
+            assertEquals(200, changed.getResponseCode());
+            assertNotEquals(etag, changed.getHeaderField("ETag"));
+            changed.disconnect();
+        } finally {
+            customerDAO.delete(customer.getId());
+        }
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    public void testResourcesShareInjectedCustomerCache() throws Exception {
+        DatabaseConfig.createTables();
+        // A cache of its own, told apart from the default one by its size
+        CachingCustomerDAO cache = new CachingCustomerDAO(new CustomerDAO(), 7, 5, TimeUnit.MINUTES);
+        long defaultHitsBefore = CachingCustomerDAO.getDefault().getMetrics().getHits();
+        HttpContainer container = Server.createContainer("jdk");
+        container.start(URI.create("http://localhost:8094/rest"),
+                Server.createResourceConfig(new DaoBinder(cache, DefaultDaos.readingDAO())));
+
+        Customer customer = new Customer();
+        customer.setFirstName("Cache");
+        customer.setLastName("Test");
+        customer.setBirthDate(LocalDate.of(1980, 1, 1));
+        customer.setGender(ICustomer.Gender.W);
+        CustomerDAO customerDAO = new CustomerDAO();
+        customerDAO.create(customer);
+        try {
+            for (int i = 0; i < 2; i++) {
+                HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:8094/rest/customers/" + customer.getId()).openConnection();
+                assertEquals(200, connection.getResponseCode());
+                connection.disconnect();
+            }
+            // Both requests went through the bound cache: the first filled it, the second hit it
+            assertEquals(1, cache.getMetrics().getMisses());
+            assertEquals(1, cache.getMetrics().getHits());
+            assertEquals(defaultHitsBefore, CachingCustomerDAO.getDefault().getMetrics().getHits());
+
+            // Metrics reports the same instance
+            HttpURLConnection metrics = (HttpURLConnection) new URL("http://localhost:8094/rest/metrics/cache").openConnection();
+            assertEquals(200, metrics.getResponseCode());
+            try (InputStream body = metrics.getInputStream()) {
+                JsonNode json = new ObjectMapper().readTree(body);
+                assertEquals(7, json.get("maxSize").asInt());
+                assertEquals(1, json.get("hits").asLong());
+            }
+            metrics.disconnect();
+        } finally {
+            customerDAO.delete(customer.getId());
+            container.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    public void testImportJobsUseBoundDaos() throws Exception {
+        DatabaseConfig.deleteTables();
+        DatabaseConfig.createTables();
+        ICustomerDAO customers = spy(new CustomerDAO());
+        DaoBinder binder = new DaoBinder(customers, DefaultDaos.readingDAO());
+        HttpContainer container = Server.createContainer("jdk");
+        container.start(URI.create("http://localhost:8096/rest"), Server.createResourceConfig(binder));
+        try {
+            HttpURLConnection submit = (HttpURLConnection) new URL("http://localhost:8096/rest/import/jobs/customers").openConnection();
+            submit.setRequestMethod("POST");
+            submit.setDoOutput(true);
+            submit.setRequestProperty("Content-Type", "text/csv");
+            try (OutputStream out = submit.getOutputStream()) {
+                out.write(("UUID,Anrede,Vorname,Nachname,Geburtsdatum\n" + UUID.randomUUID()
+                        + ",Herr,John,Doe,01.01.1990\n").getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(202, submit.getResponseCode());
+            String location = submit.getHeaderField("Location");
+            submit.disconnect();
+
+            String state;
+            do {
+                Thread.sleep(50);
+                HttpURLConnection status = (HttpURLConnection) new URL(location).openConnection();
+                assertEquals(200, status.getResponseCode());
+                try (InputStream body = status.getInputStream()) {
+                    state = new ObjectMapper().readTree(body).get("state").asText();
+                }
+                status.disconnect();
+            } while ("QUEUED".equals(state) || "RUNNING".equals(state));
+
+            assertEquals("COMPLETED", state);
+            // The worker wrote through the DAO bound for this application, not a default one
+            assertFalse(mockingDetails(customers).getInvocations().isEmpty());
+            assertEquals(1, new CustomerDAO().findAll().size());
+        } finally {
+            binder.shutdown();
+            container.stop();
+            DatabaseConfig.deleteTables();
+            DatabaseConfig.createTables();
+        }
+    }
+}
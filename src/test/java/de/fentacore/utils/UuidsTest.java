@@ -0,0 +1,45 @@
+package de.fentacore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidsTest {
+
+    @Test
+    public void testTimeOrderedIsVersion7() {
+        UUID uuid = Uuids.timeOrdered();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - timestamp) < 10_000);
+    }
+
+    @Test
+    public void testTimeOrderedIsStrictlyIncreasing() {
+        UUID previous = Uuids.timeOrdered();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = Uuids.timeOrdered();
+            // Unsigned byte order is what BINARY(16) indexes compare
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    "Ids must sort in creation order: " + previous + " then " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testBytesRoundTrip() {
+        UUID uuid = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        byte[] bytes = Uuids.toBytes(uuid);
+
+        assertEquals(16, bytes.length);
+        assertEquals((byte) 0x55, bytes[0]);
+        assertEquals((byte) 0x00, bytes[15]);
+        assertEquals(uuid, Uuids.fromBytes(bytes));
+        assertNull(Uuids.fromBytes(null));
+        assertThrows(IllegalArgumentException.class, () -> Uuids.fromBytes(new byte[8]));
+    }
+}